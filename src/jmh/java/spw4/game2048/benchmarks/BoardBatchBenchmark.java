@@ -0,0 +1,62 @@
+package spw4.game2048.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import spw4.game2048.Direction;
+import spw4.game2048.batch.BoardBatch;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link BoardBatch#moveAll} in boards per second, once in a JVM with the Vector API module and once without.
+ * Every invocation first restores the batch from the corpus, {@code restore} measures that copy alone.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OperationsPerInvocation(BoardBatchBenchmark.BOARDS)
+public class BoardBatchBenchmark {
+    static final int BOARDS = 4096;
+
+    @Param({"up", "down", "left", "right"})
+    public Direction direction;
+
+    private BoardBatch corpus;
+    private BoardBatch batch;
+
+    @Setup
+    public void setup() {
+        long[] boards = BoardCorpus.load(BoardCorpus.MIDGAME);
+        corpus = new BoardBatch(BOARDS);
+        for (int i = 0; i < BOARDS; i++) {
+            corpus.setBoard(i, boards[i % boards.length]);
+        }
+        batch = new BoardBatch(BOARDS);
+    }
+
+    @Benchmark
+    @Fork(1)
+    public BoardBatch restore() {
+        batch.copyFrom(corpus, BOARDS);
+        return batch;
+    }
+
+    @Benchmark
+    @Fork(1)
+    public BoardBatch moveAllScalar() {
+        batch.copyFrom(corpus, BOARDS);
+        batch.moveAll(direction);
+        return batch;
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+    public BoardBatch moveAllVector() {
+        if (!BoardBatch.isVectorized())
+            throw new IllegalStateException("Vector API not available");
+        batch.copyFrom(corpus, BOARDS);
+        batch.moveAll(direction);
+        return batch;
+    }
+}
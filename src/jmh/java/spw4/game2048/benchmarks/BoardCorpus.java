@@ -0,0 +1,46 @@
+package spw4.game2048.benchmarks;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Fixed set of packed boards from {@code boards.txt}, so runs on different commits measure the same positions.
+ */
+public final class BoardCorpus {
+    public static final String MIDGAME = "midgame";
+    public static final String NEARLY_FULL = "nearlyFull";
+
+    private BoardCorpus() {
+    }
+
+    public static long[] load(String category) {
+        var stream = BoardCorpus.class.getResourceAsStream("boards.txt");
+        if (stream == null)
+            throw new IllegalStateException("boards.txt not found on the classpath");
+
+        long[] boards = new long[64];
+        int count = 0;
+        try (var reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.US_ASCII))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank() || line.startsWith("#"))
+                    continue;
+                String[] parts = line.trim().split("\\s+");
+                if (!parts[0].equals(category))
+                    continue;
+                if (count == boards.length)
+                    boards = Arrays.copyOf(boards, count * 2);
+                boards[count++] = Long.parseUnsignedLong(parts[1], 16);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (count == 0)
+            throw new IllegalArgumentException("Unknown corpus category: " + category);
+        return Arrays.copyOf(boards, count);
+    }
+}
@@ -0,0 +1,69 @@
+package spw4.game2048.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import spw4.game2048.BitboardGame;
+import spw4.game2048.GameImpl;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read-only queries ({@code isOver}, {@code isWon}, {@code toString}) on preloaded corpus boards.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameStateBenchmark {
+    @Param({BoardCorpus.MIDGAME, BoardCorpus.NEARLY_FULL})
+    public String category;
+
+    private GameImpl[] gameImpls;
+    private BitboardGame[] bitboardGames;
+    private int next;
+
+    @Setup
+    public void setup() {
+        long[] boards = BoardCorpus.load(category);
+        gameImpls = new GameImpl[boards.length];
+        bitboardGames = new BitboardGame[boards.length];
+        for (int i = 0; i < boards.length; i++) {
+            gameImpls[i] = new GameImpl();
+            gameImpls[i].loadBoard(boards[i]);
+            bitboardGames[i] = new BitboardGame();
+            bitboardGames[i].loadBoard(boards[i]);
+        }
+    }
+
+    private int nextIndex() {
+        int index = next;
+        next = next + 1 == gameImpls.length ? 0 : next + 1;
+        return index;
+    }
+
+    @Benchmark
+    public boolean isOverGameImpl() {
+        return gameImpls[nextIndex()].isOver();
+    }
+
+    @Benchmark
+    public boolean isWonGameImpl() {
+        return gameImpls[nextIndex()].isWon();
+    }
+
+    @Benchmark
+    public String toStringGameImpl() {
+        return gameImpls[nextIndex()].toString();
+    }
+
+    @Benchmark
+    public boolean isOverBitboardGame() {
+        return bitboardGames[nextIndex()].isOver();
+    }
+
+    @Benchmark
+    public boolean isWonBitboardGame() {
+        return bitboardGames[nextIndex()].isWon();
+    }
+}
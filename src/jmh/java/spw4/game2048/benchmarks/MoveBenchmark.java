@@ -0,0 +1,68 @@
+package spw4.game2048.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import spw4.game2048.BitboardGame;
+import spw4.game2048.Direction;
+import spw4.game2048.GameImpl;
+import spw4.game2048.TileSpawners;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code move} per direction on midgame boards. Every invocation first restores a corpus board,
+ * {@code loadBoard*} measure that restore alone.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoveBenchmark {
+    @Param({"up", "down", "left", "right"})
+    public Direction direction;
+
+    private long[] boards;
+    private int next;
+    private GameImpl gameImpl;
+    private BitboardGame bitboardGame;
+
+    @Setup
+    public void setup() {
+        boards = BoardCorpus.load(BoardCorpus.MIDGAME);
+        gameImpl = new GameImpl(TileSpawners.seeded(42));
+        bitboardGame = new BitboardGame(TileSpawners.seeded(42));
+    }
+
+    private long nextBoard() {
+        long board = boards[next];
+        next = next + 1 == boards.length ? 0 : next + 1;
+        return board;
+    }
+
+    @Benchmark
+    public GameImpl loadBoardGameImpl() {
+        gameImpl.loadBoard(nextBoard());
+        return gameImpl;
+    }
+
+    @Benchmark
+    public int moveGameImpl() {
+        gameImpl.loadBoard(nextBoard());
+        gameImpl.move(direction);
+        return gameImpl.getScore();
+    }
+
+    @Benchmark
+    public BitboardGame loadBoardBitboardGame() {
+        bitboardGame.loadBoard(nextBoard());
+        return bitboardGame;
+    }
+
+    @Benchmark
+    public int moveBitboardGame() {
+        bitboardGame.loadBoard(nextBoard());
+        bitboardGame.move(direction);
+        return bitboardGame.getScore();
+    }
+}
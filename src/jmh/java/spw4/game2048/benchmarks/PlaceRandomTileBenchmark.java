@@ -0,0 +1,68 @@
+package spw4.game2048.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import spw4.game2048.BitboardGame;
+import spw4.game2048.GameImpl;
+import spw4.game2048.TileSpawners;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code placeRandomTile} on boards with one or two empty cells, where rejection sampling spins the longest,
+ * compared with the uniform spawner that selects among the empty cells directly.
+ * Every invocation first restores a corpus board, {@code loadBoard*} measure that restore alone.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlaceRandomTileBenchmark {
+    private long[] boards;
+    private int next;
+    private GameImpl gameImpl;
+    private GameImpl rejectionSamplingGameImpl;
+    private BitboardGame bitboardGame;
+
+    @Setup
+    public void setup() {
+        boards = BoardCorpus.load(BoardCorpus.NEARLY_FULL);
+        gameImpl = new GameImpl(TileSpawners.seeded(42));
+        rejectionSamplingGameImpl = new GameImpl(TileSpawners.rejectionSampling(42));
+        bitboardGame = new BitboardGame(TileSpawners.seeded(42));
+    }
+
+    private long nextBoard() {
+        long board = boards[next];
+        next = next + 1 == boards.length ? 0 : next + 1;
+        return board;
+    }
+
+    @Benchmark
+    public GameImpl loadBoardGameImpl() {
+        gameImpl.loadBoard(nextBoard());
+        return gameImpl;
+    }
+
+    @Benchmark
+    public GameImpl placeRandomTileGameImpl() {
+        gameImpl.loadBoard(nextBoard());
+        gameImpl.placeRandomTile();
+        return gameImpl;
+    }
+
+    @Benchmark
+    public GameImpl placeRandomTileRejectionSamplingGameImpl() {
+        rejectionSamplingGameImpl.loadBoard(nextBoard());
+        rejectionSamplingGameImpl.placeRandomTile();
+        return rejectionSamplingGameImpl;
+    }
+
+    @Benchmark
+    public BitboardGame placeRandomTileBitboardGame() {
+        bitboardGame.loadBoard(nextBoard());
+        bitboardGame.placeRandomTile();
+        return bitboardGame;
+    }
+}
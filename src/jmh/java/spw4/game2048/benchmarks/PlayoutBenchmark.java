@@ -0,0 +1,53 @@
+package spw4.game2048.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import spw4.game2048.BitboardGame;
+import spw4.game2048.Direction;
+import spw4.game2048.Game;
+import spw4.game2048.GameImpl;
+import spw4.game2048.TileSpawner;
+import spw4.game2048.TileSpawners;
+
+import java.util.SplittableRandom;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Complete games under a uniformly random policy, reported as games per second.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PlayoutBenchmark {
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private SplittableRandom policy;
+    private TileSpawner spawner;
+
+    @Setup
+    public void setup() {
+        policy = new SplittableRandom(7);
+        spawner = TileSpawners.seeded(42);
+    }
+
+    private int playOut(Game game) {
+        game.initialize();
+        while (!game.isOver()) {
+            game.move(DIRECTIONS[policy.nextInt(DIRECTIONS.length)]);
+        }
+        return game.getScore();
+    }
+
+    @Benchmark
+    public int randomPlayoutGameImpl() {
+        return playOut(new GameImpl(spawner));
+    }
+
+    @Benchmark
+    public int randomPlayoutBitboardGame() {
+        return playOut(new BitboardGame(spawner));
+    }
+}
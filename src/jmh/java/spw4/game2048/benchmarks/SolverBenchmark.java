@@ -0,0 +1,47 @@
+package spw4.game2048.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import spw4.game2048.Direction;
+import spw4.game2048.solver.ExpectimaxSolver;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fixed-depth expectimax searches on midgame boards. The primary score is moves (searches) per second,
+ * the {@code nodes} counter reports search nodes per second.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SolverBenchmark {
+    @Param({"2", "3"})
+    public int depth;
+
+    private long[] boards;
+    private int next;
+    private ExpectimaxSolver solver;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class NodeCounter {
+        public long nodes;
+    }
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        boards = BoardCorpus.load(BoardCorpus.MIDGAME);
+        solver = new ExpectimaxSolver();
+    }
+
+    @Benchmark
+    public Direction bestMove(NodeCounter counter) {
+        long before = solver.getNodes();
+        Direction direction = solver.bestMove(boards[next], depth);
+        next = next + 1 == boards.length ? 0 : next + 1;
+        counter.nodes += solver.getNodes() - before;
+        return direction;
+    }
+}
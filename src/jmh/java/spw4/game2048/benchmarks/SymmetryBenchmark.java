@@ -0,0 +1,56 @@
+package spw4.game2048.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import spw4.game2048.Symmetries;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of mapping corpus boards to their canonical symmetric form, the overhead paid per cache lookup.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SymmetryBenchmark {
+    @Param({BoardCorpus.MIDGAME, BoardCorpus.NEARLY_FULL})
+    public String category;
+
+    private long[] boards;
+    private int next;
+
+    @Setup
+    public void setup() {
+        boards = BoardCorpus.load(category);
+    }
+
+    private long nextBoard() {
+        long board = boards[next];
+        next = next + 1 == boards.length ? 0 : next + 1;
+        return board;
+    }
+
+    @Benchmark
+    public long canonical() {
+        return Symmetries.canonical(nextBoard());
+    }
+
+    @Benchmark
+    public int canonicalTransform() {
+        return Symmetries.canonicalTransform(nextBoard());
+    }
+
+    @Benchmark
+    public long canonicalViaApply() {
+        long board = nextBoard();
+        long min = board;
+        for (int t = 1; t < Symmetries.COUNT; t++) {
+            long transformed = Symmetries.apply(board, t);
+            if (Long.compareUnsigned(transformed, min) < 0)
+                min = transformed;
+        }
+        return min;
+    }
+}
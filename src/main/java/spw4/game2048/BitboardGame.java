@@ -0,0 +1,276 @@
+package spw4.game2048;
+
+
+/**
+ * {@link Game} on a board packed into a single {@code long}, see {@link Bitboards}.
+ * Plays by the same rules as {@link GameImpl} and reports the same {@link GameListener} events.
+ */
+public class BitboardGame implements Game {
+    private static final int WINNING_EXPONENT = 11;
+
+    private final int size = Bitboards.SIZE;
+    private final TileSpawner spawner;
+    private final long[] emptyCells = new long[1];
+
+    private long board;
+    private int score;
+    private int moves;
+    private GameListener[] listeners = GameListeners.NONE;
+
+    public BitboardGame() {
+        this(TileSpawners.unseeded());
+    }
+
+    public BitboardGame(TileSpawner spawner) {
+        this.spawner = spawner;
+    }
+
+    public int getMoves() {
+        return moves;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public int getValueAt(int x, int y) {
+        return Bitboards.valueAt(board, x, y);
+    }
+
+    public long getBoard() {
+        return board;
+    }
+
+    @Override
+    public int getExponentAt(int x, int y) {
+        return Bitboards.exponentAt(board, x, y);
+    }
+
+    @Override
+    public void copyBoard(int[] target) {
+        for (int cell = 0; cell < size * size; cell++) {
+            int exponent = (int) (board >>> (4 * cell)) & 0xF;
+            target[cell] = exponent == 0 ? 0 : 1 << exponent;
+        }
+    }
+
+    @Override
+    public void copyExponents(byte[] target) {
+        for (int cell = 0; cell < size * size; cell++) {
+            target[cell] = (byte) ((board >>> (4 * cell)) & 0xF);
+        }
+    }
+
+    @Override
+    public long packBoard() {
+        return board;
+    }
+
+    @Override
+    public void loadBoard(int[] values) {
+        if (values.length < size * size)
+            throw new IllegalArgumentException("A " + size + "x" + size + " board needs " + size * size + " values");
+        long loaded = 0;
+        for (int cell = 0; cell < size * size; cell++) {
+            loaded |= (long) Bitboards.toExponent(values[cell]) << (4 * cell);
+        }
+        board = loaded;
+        fireBoardChanged();
+    }
+
+    @Override
+    public void loadBoard(long packed) {
+        board = packed;
+        fireBoardChanged();
+    }
+
+    public boolean isOver() {
+        if (isWon())
+            return true;
+        return legalMoves() == 0;
+    }
+
+    @Override
+    public int legalMoves() {
+        return Bitboards.legalMoves(board);
+    }
+
+    @Override
+    public int previewMove(Direction direction, int[] target) {
+        long moved = Bitboards.move(board, direction);
+        for (int cell = 0; cell < size * size; cell++) {
+            int exponent = (int) (moved >>> (4 * cell)) & 0xF;
+            target[cell] = exponent == 0 ? 0 : 1 << exponent;
+        }
+        return Bitboards.score(board, direction);
+    }
+
+    public boolean isWon() {
+        return Bitboards.maxExponent(board) >= WINNING_EXPONENT;
+    }
+
+    @Override
+    public int getWinningTile() {
+        return 1 << WINNING_EXPONENT;
+    }
+
+    @Override
+    public int getBoardSize() {
+        return size;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder returnVal = new StringBuilder(String.format("Moves: %s\t\tScore: %d\n", moves, score));
+
+        for (int i = 0; i < size; i++) {
+            StringBuilder toAdd = new StringBuilder();
+            for (int k = 0; k < size; k++) {
+                int value = getValueAt(k, i);
+                toAdd.append(String.format("%-5s", value == 0 ? "." : value));
+            }
+            returnVal.append(toAdd.toString().trim());
+            returnVal.append('\n');
+        }
+
+        return returnVal.toString().trim();
+    }
+
+    public void initialize() {
+        placeRandomTile();
+        placeRandomTile();
+    }
+
+    public void move(Direction direction) {
+        long moved = Bitboards.move(board, direction);
+        if (moved != board) {
+            int gained = Bitboards.score(board, direction);
+            boolean wasWon = isWon();
+            if (listeners.length != 0)
+                fireLines(direction);
+            score += gained;
+            board = moved;
+            moves++;
+            for (GameListener listener : listeners) {
+                listener.moved(direction, gained);
+            }
+            placeRandomTile();
+            if (listeners.length != 0)
+                fireGameEnd(wasWon);
+        }
+    }
+
+    /**
+     * Replays the move of the current board line by line, in the order {@link GameImpl} moves its tiles, to report
+     * the individual slides and merges. Only runs while listeners are registered.
+     */
+    private void fireLines(Direction direction) {
+        for (int line = 0; line < size; line++) {
+            switch (direction) {
+                case left -> fireLine(line * size, 1);
+                case right -> fireLine(line * size + size - 1, -1);
+                case up -> fireLine(line, size);
+                case down -> fireLine((size - 1) * size + line, -size);
+            }
+        }
+    }
+
+    private void fireLine(int start, int step) {
+        int target = start;
+        int last = 0;
+        for (int i = 0, from = start; i < size; i++, from += step) {
+            int exponent = (int) (board >>> (4 * from)) & 0xF;
+            if (exponent == 0)
+                continue;
+            if (exponent == last) {
+                int merged = 1 << Math.min(exponent + 1, Bitboards.MAX_EXPONENT);
+                for (GameListener listener : listeners) {
+                    listener.tilesMerged(from, target - step, merged);
+                }
+                last = 0;
+            } else {
+                if (from != target) {
+                    for (GameListener listener : listeners) {
+                        listener.tileMoved(from, target, 1 << exponent);
+                    }
+                }
+                last = exponent;
+                target += step;
+            }
+        }
+    }
+
+    private void fireGameEnd(boolean wasWon) {
+        if (isWon()) {
+            if (!wasWon) {
+                for (GameListener listener : listeners) {
+                    listener.gameWon();
+                }
+            }
+        } else if (isOver()) {
+            for (GameListener listener : listeners) {
+                listener.gameLost();
+            }
+        }
+    }
+
+    private void fireBoardChanged() {
+        for (GameListener listener : listeners) {
+            listener.boardChanged();
+        }
+    }
+
+    public void placeRandomTile() {
+        long empty = Bitboards.emptyMask(board);
+        if (empty == 0)
+            throw new IllegalStateException("No empty cell left");
+        emptyCells[0] = empty;
+        int cell = spawner.nextCell(emptyCells, Long.bitCount(empty), size);
+        int value = spawner.nextValue();
+        board |= (long) Bitboards.toExponent(value) << (4 * cell);
+        for (GameListener listener : listeners) {
+            listener.tileSpawned(cell, value);
+        }
+    }
+
+    @Override
+    public void placeTile(int x, int y, int value) {
+        board = Bitboards.withExponent(board, x, y, Bitboards.toExponent(value));
+        fireBoardChanged();
+    }
+
+    @Override
+    public GameSnapshot snapshot() {
+        int[] values = new int[size * size];
+        for (int cell = 0; cell < values.length; cell++) {
+            values[cell] = getValueAt(cell % size, cell / size);
+        }
+        return new GameSnapshot(size, values, score, moves, spawner.saveState());
+    }
+
+    @Override
+    public void restore(GameSnapshot snapshot) {
+        snapshot.checkBoardSize(size);
+        spawner.restoreState(snapshot.getSpawnerState());
+        long restored = 0;
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                restored = Bitboards.withExponent(restored, x, y, Bitboards.toExponent(snapshot.getValueAt(x, y)));
+            }
+        }
+        board = restored;
+        score = snapshot.getScore();
+        moves = snapshot.getMoves();
+        fireBoardChanged();
+    }
+
+    @Override
+    public void addListener(GameListener listener) {
+        listeners = GameListeners.add(listeners, listener);
+    }
+
+    @Override
+    public void removeListener(GameListener listener) {
+        listeners = GameListeners.remove(listeners, listener);
+    }
+}
@@ -0,0 +1,159 @@
+package spw4.game2048;
+
+/**
+ * Static helpers for a 4x4 board packed into a single {@code long}.
+ * <p>
+ * Every cell holds the exponent of its tile in 4 bits (0 = empty, 1 = 2, 2 = 4, ...).
+ * Row {@code y} occupies bits {@code 16 * y} to {@code 16 * y + 15}, cell {@code x} of a row
+ * the nibble at {@code 4 * x} within it. Moves are four lookups per direction in tables that
+ * hold the slid and merged result of each of the 65536 possible rows, see {@link RowTables}.
+ * <p>
+ * A nibble cannot hold 65536, so merging two 32768 tiles keeps a single 32768 tile.
+ */
+public final class Bitboards {
+    public static final int SIZE = 4;
+    public static final int MAX_EXPONENT = 15;
+
+    private static final RowTables TABLES = RowTables.load();
+    private static final char[] LEFT = TABLES.left;
+    private static final char[] RIGHT = TABLES.right;
+    private static final int[] SCORE = TABLES.score;
+
+    private Bitboards() {
+    }
+
+    public static long move(long board, Direction direction) {
+        return switch (direction) {
+            case left -> moveRows(board, LEFT);
+            case right -> moveRows(board, RIGHT);
+            case up -> transpose(moveRows(transpose(board), LEFT));
+            case down -> transpose(moveRows(transpose(board), RIGHT));
+        };
+    }
+
+    /**
+     * Returns the score gained by moving {@code board} in {@code direction}.
+     */
+    public static int score(long board, Direction direction) {
+        long rows = direction == Direction.up || direction == Direction.down ? transpose(board) : board;
+        return SCORE[(int) (rows & 0xFFFF)]
+                + SCORE[(int) ((rows >>> 16) & 0xFFFF)]
+                + SCORE[(int) ((rows >>> 32) & 0xFFFF)]
+                + SCORE[(int) (rows >>> 48)];
+    }
+
+    /**
+     * Returns a mask with {@link Direction#mask()} set for every direction that changes {@code board}.
+     */
+    public static int legalMoves(long board) {
+        long transposed = transpose(board);
+        int mask = 0;
+        if (moveRows(transposed, LEFT) != transposed)
+            mask |= Direction.up.mask();
+        if (moveRows(transposed, RIGHT) != transposed)
+            mask |= Direction.down.mask();
+        if (moveRows(board, LEFT) != board)
+            mask |= Direction.left.mask();
+        if (moveRows(board, RIGHT) != board)
+            mask |= Direction.right.mask();
+        return mask;
+    }
+
+    public static long transpose(long board) {
+        long a1 = board & 0xF0F00F0FF0F00F0FL;
+        long a2 = board & 0x0000F0F00000F0F0L;
+        long a3 = board & 0x0F0F00000F0F0000L;
+        long a = a1 | (a2 << 12) | (a3 >>> 12);
+        long b1 = a & 0xFF00FF0000FF00FFL;
+        long b2 = a & 0x00FF00FF00000000L;
+        long b3 = a & 0x00000000FF00FF00L;
+        return b1 | (b2 >>> 24) | (b3 << 24);
+    }
+
+    public static int exponentAt(long board, int x, int y) {
+        return (int) (board >>> shift(x, y)) & 0xF;
+    }
+
+    public static long withExponent(long board, int x, int y, int exponent) {
+        int shift = shift(x, y);
+        return (board & ~(0xFL << shift)) | ((long) exponent << shift);
+    }
+
+    public static int valueAt(long board, int x, int y) {
+        int exponent = exponentAt(board, x, y);
+        return exponent == 0 ? 0 : 1 << exponent;
+    }
+
+    public static long pack(Game game) {
+        if (game.getBoardSize() != SIZE)
+            throw new IllegalArgumentException("Only " + SIZE + "x" + SIZE + " boards can be packed");
+        return game.packBoard();
+    }
+
+    public static int toExponent(int value) {
+        if (value == 0)
+            return 0;
+        if (value < 2 || Integer.bitCount(value) != 1 || value > 1 << MAX_EXPONENT)
+            throw new IllegalArgumentException("Not a tile value: " + value);
+        return Integer.numberOfTrailingZeros(value);
+    }
+
+    public static boolean hasEmptyCell(long board) {
+        return emptyCount(board) > 0;
+    }
+
+    public static int emptyCount(long board) {
+        long occupied = board | (board >>> 1) | (board >>> 2) | (board >>> 3);
+        return 16 - Long.bitCount(occupied & 0x1111111111111111L);
+    }
+
+    /**
+     * Returns a 16-bit mask with bit {@code y * 4 + x} set for every empty cell.
+     */
+    public static long emptyMask(long board) {
+        long occupied = board | (board >>> 1) | (board >>> 2) | (board >>> 3);
+        long mask = ~occupied & 0x1111111111111111L;
+        mask = (mask | (mask >>> 3)) & 0x0303030303030303L;
+        mask = (mask | (mask >>> 6)) & 0x000F000F000F000FL;
+        mask = (mask | (mask >>> 12)) & 0x000000FF000000FFL;
+        return (mask | (mask >>> 24)) & 0xFFFFL;
+    }
+
+    public static int maxExponent(long board) {
+        int max = 0;
+        for (int i = 0; i < 64; i += 4) {
+            max = Math.max(max, (int) (board >>> i) & 0xF);
+        }
+        return max;
+    }
+
+    public static boolean containsExponent(long board, int exponent) {
+        for (int i = 0; i < 64; i += 4) {
+            if (((board >>> i) & 0xF) == exponent)
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Slides and merges a row of four exponents towards nibble 0.
+     */
+    static int slideRow(int row) {
+        return LEFT[row];
+    }
+
+    static int rowScore(int row) {
+        return SCORE[row];
+    }
+
+    private static int shift(int x, int y) {
+        return (y * SIZE + x) * 4;
+    }
+
+    private static long moveRows(long board, char[] table) {
+        return (long) table[(int) (board & 0xFFFF)]
+                | (long) table[(int) ((board >>> 16) & 0xFFFF)] << 16
+                | (long) table[(int) ((board >>> 32) & 0xFFFF)] << 32
+                | (long) table[(int) (board >>> 48)] << 48;
+    }
+}
@@ -0,0 +1,83 @@
+package spw4.game2048;
+
+/**
+ * Immutable 4x4 board, a thin value wrapper around the packed {@code long} of {@link Bitboards}.
+ * Transitions return new boards and never spawn tiles; search code that must avoid even these small objects
+ * can work on {@link #packed()} with {@link Bitboards} directly.
+ */
+public final class Board {
+    public static final Board EMPTY = new Board(0);
+
+    private final long packed;
+
+    private Board(long packed) {
+        this.packed = packed;
+    }
+
+    public static Board of(long packed) {
+        return packed == 0 ? EMPTY : new Board(packed);
+    }
+
+    public static Board of(Game game) {
+        return of(Bitboards.pack(game));
+    }
+
+    public long packed() {
+        return packed;
+    }
+
+    public int getValueAt(int x, int y) {
+        return Bitboards.valueAt(packed, x, y);
+    }
+
+    public Board withTile(int x, int y, int value) {
+        return of(Bitboards.withExponent(packed, x, y, Bitboards.toExponent(value)));
+    }
+
+    /**
+     * Returns the board after sliding and merging in {@code direction}, or this board if nothing moves.
+     */
+    public Board withMove(Direction direction) {
+        long moved = Bitboards.move(packed, direction);
+        return moved == packed ? this : new Board(moved);
+    }
+
+    /**
+     * Returns the score {@link #withMove(Direction)} gains.
+     */
+    public int moveScore(Direction direction) {
+        return Bitboards.score(packed, direction);
+    }
+
+    public int legalMoves() {
+        return Bitboards.legalMoves(packed);
+    }
+
+    public int emptyCount() {
+        return Bitboards.emptyCount(packed);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Board other && packed == other.packed;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(packed);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder();
+        for (int y = 0; y < Bitboards.SIZE; y++) {
+            StringBuilder row = new StringBuilder();
+            for (int x = 0; x < Bitboards.SIZE; x++) {
+                int value = getValueAt(x, y);
+                row.append(String.format("%-5s", value == 0 ? "." : value));
+            }
+            result.append(row.toString().trim()).append('\n');
+        }
+        return result.toString().trim();
+    }
+}
@@ -4,5 +4,12 @@ public enum Direction {
     up,
     down,
     left,
-    right
+    right;
+
+    /**
+     * Bit of this direction in a mask as returned by {@link Game#legalMoves()}.
+     */
+    public int mask() {
+        return 1 << ordinal();
+    }
 }
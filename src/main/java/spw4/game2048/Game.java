@@ -1,14 +1,89 @@
 package spw4.game2048;
 
 public interface Game {
+    /**
+     * {@link #getWinningTile()} of a game that goes on until no move is left.
+     */
+    int NO_WINNING_TILE = 0;
+
     void initialize();
     void move(Direction direction);
     int getMoves();
     int getScore();
     int getValueAt(int x, int y);
+
+    /**
+     * Returns the exponent of the tile at {@code x}, {@code y}: 0 for an empty cell, 1 for 2, 2 for 4 and so on.
+     */
+    int getExponentAt(int x, int y);
+
+    /**
+     * Writes the tile values to {@code target} ({@code y * size + x}, at least {@code size * size} long).
+     */
+    void copyBoard(int[] target);
+
+    /**
+     * Writes the tile exponents, see {@link #getExponentAt}, to {@code target} in the layout of {@link #copyBoard}.
+     */
+    void copyExponents(byte[] target);
+
+    /**
+     * Returns the board with the exponent of cell {@code y * size + x} in the nibble at bit {@code 4 * (y * size + x)},
+     * the layout of {@link Bitboards} on a 4x4 board. Boards larger than 4x4 throw
+     * {@link UnsupportedOperationException}, tiles above 32768 {@link IllegalStateException}.
+     */
+    long packBoard();
+
+    /**
+     * Replaces all tiles with {@code values} in the layout of {@link #copyBoard}. Score and moves are kept,
+     * an undo history is cleared.
+     */
+    void loadBoard(int[] values);
+
+    /**
+     * Replaces all tiles with a board packed like {@link #packBoard()}. Score and moves are kept,
+     * an undo history is cleared.
+     */
+    void loadBoard(long packed);
+
+    void placeTile(int x, int y, int value);
     boolean isOver();
+
+    /**
+     * Returns a mask with {@link Direction#mask()} set for every direction that would change the board.
+     */
+    int legalMoves();
+
+    /**
+     * Writes the board after moving in {@code direction}, before a new tile spawns, to {@code target}
+     * ({@code y * size + x}, at least {@code size * size} long) and returns the score the move would gain.
+     * The game itself is not changed.
+     */
+    int previewMove(Direction direction, int[] target);
     boolean isWon();
+
+    /**
+     * Returns the tile that wins the game, or {@link #NO_WINNING_TILE} if it goes on until no move is left.
+     */
+    int getWinningTile();
     int getBoardSize();
 
     void placeRandomTile();
+
+    /**
+     * Captures board, score, moves and spawner state.
+     */
+    GameSnapshot snapshot();
+
+    /**
+     * Returns to a state captured by {@link #snapshot()} on a game of the same board size.
+     */
+    void restore(GameSnapshot snapshot);
+
+    /**
+     * Registers {@code listener} for the changes of this game, see {@link GameListener} for the order of events.
+     */
+    void addListener(GameListener listener);
+
+    void removeListener(GameListener listener);
 }
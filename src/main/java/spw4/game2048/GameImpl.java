@@ -1,19 +1,69 @@
 package spw4.game2048;
 
-import java.util.Random;
-import java.util.function.Function;
+import jdk.jfr.EventType;
+import spw4.game2048.jfr.MergeEvent;
+import spw4.game2048.jfr.MoveEvent;
+import spw4.game2048.jfr.SpawnEvent;
 
-public class GameImpl implements Game {
-    public static Random random;
-
-    private final int size = 4;
+import java.util.Arrays;
 
-    private final int[][] board;
+public class GameImpl implements Game {
+    public static final int DEFAULT_SIZE = 4;
+    public static final int DEFAULT_WINNING_TILE = 2048;
+
+    /**
+     * Set the system property {@code game2048.verifyCounters} to cross-check the incrementally maintained
+     * counters against a full board scan after every change.
+     */
+    static final boolean VERIFY_COUNTERS = Boolean.getBoolean("game2048.verifyCounters");
+
+    private static final int ALL_DIRECTIONS = (1 << Direction.values().length) - 1;
+    private static final EventType MOVE_EVENT = EventType.getEventType(MoveEvent.class);
+    private static final EventType MERGE_EVENT = EventType.getEventType(MergeEvent.class);
+    private static final EventType SPAWN_EVENT = EventType.getEventType(SpawnEvent.class);
+
+    private final int size;
+    private final int winningTile;
+
+    private final TileSpawner spawner;
+    private final int[] board;
+    private final long[] emptyCells;
+    private int emptyCount;
+    private int maxTile;
+    private int mergeablePairs;
     private int score;
     private int moves;
+    private StateStack undoStack;
+    private StateStack redoStack;
+    private int[] previous;
+    private boolean recordMerges;
+    private GameListener[] listeners = GameListeners.NONE;
 
     public GameImpl() {
-        board = new int[size][size];
+        this(TileSpawners.unseeded());
+    }
+
+    public GameImpl(TileSpawner spawner) {
+        this(DEFAULT_SIZE, DEFAULT_WINNING_TILE, spawner);
+    }
+
+    /**
+     * @param winningTile tile that wins the game, or {@link #NO_WINNING_TILE} to play until no move is left
+     */
+    public GameImpl(int size, int winningTile, TileSpawner spawner) {
+        if (size < 2)
+            throw new IllegalArgumentException("Board size must be at least 2");
+        if (winningTile != NO_WINNING_TILE && (winningTile < 4 || Integer.bitCount(winningTile) != 1))
+            throw new IllegalArgumentException("Winning tile must be a power of two of at least 4");
+        this.size = size;
+        this.winningTile = winningTile;
+        this.spawner = spawner;
+        board = new int[size * size];
+        emptyCells = new long[(size * size + 63) / 64];
+        for (int cell = 0; cell < size * size; cell++) {
+            emptyCells[cell >>> 6] |= 1L << cell;
+        }
+        emptyCount = size * size;
     }
 
     public int getMoves() {
@@ -25,37 +75,165 @@ public class GameImpl implements Game {
     }
 
     public int getValueAt(int x, int y) {
-        return board[y][x];
+        return board[y * size + x];
+    }
+
+    @Override
+    public int getExponentAt(int x, int y) {
+        int value = board[y * size + x];
+        return value == 0 ? 0 : Integer.numberOfTrailingZeros(value);
+    }
+
+    @Override
+    public void copyBoard(int[] target) {
+        System.arraycopy(board, 0, target, 0, board.length);
+    }
+
+    @Override
+    public void copyExponents(byte[] target) {
+        for (int cell = 0; cell < board.length; cell++) {
+            int value = board[cell];
+            target[cell] = (byte) (value == 0 ? 0 : Integer.numberOfTrailingZeros(value));
+        }
     }
 
+    @Override
+    public long packBoard() {
+        checkPackable();
+        if (maxTile > 1 << Bitboards.MAX_EXPONENT)
+            throw new IllegalStateException("Tile " + maxTile + " does not fit in a packed board");
+        long packed = 0;
+        for (int cell = 0; cell < board.length; cell++) {
+            int value = board[cell];
+            if (value != 0)
+                packed |= (long) Integer.numberOfTrailingZeros(value) << (4 * cell);
+        }
+        return packed;
+    }
+
+    /**
+     * Copies {@code values} in one go and rebuilds the counters in a single pass instead of updating them cell by cell.
+     */
+    @Override
+    public void loadBoard(int[] values) {
+        if (values.length < board.length)
+            throw new IllegalArgumentException("A " + size + "x" + size + " board needs " + board.length + " values");
+        for (int cell = 0; cell < board.length; cell++) {
+            int value = values[cell];
+            if (value != 0 && (value < 2 || Integer.bitCount(value) != 1))
+                throw new IllegalArgumentException("Not a tile value: " + value);
+        }
+        System.arraycopy(values, 0, board, 0, board.length);
+        recount();
+        clearHistory();
+        if (VERIFY_COUNTERS)
+            verifyCounters();
+        fireBoardChanged();
+    }
+
+    @Override
+    public void loadBoard(long packed) {
+        checkPackable();
+        if (board.length < 16 && packed >>> (4 * board.length) != 0)
+            throw new IllegalArgumentException("Packed board has tiles outside a " + size + "x" + size + " board");
+        for (int cell = 0; cell < board.length; cell++) {
+            int exponent = (int) (packed >>> (4 * cell)) & 0xF;
+            board[cell] = exponent == 0 ? 0 : 1 << exponent;
+        }
+        recount();
+        clearHistory();
+        if (VERIFY_COUNTERS)
+            verifyCounters();
+        fireBoardChanged();
+    }
+
+    private void checkPackable() {
+        if (size > Bitboards.SIZE)
+            throw new UnsupportedOperationException("Only boards up to " + Bitboards.SIZE + "x" + Bitboards.SIZE
+                    + " can be packed");
+    }
+
+    @Override
+    public int getWinningTile() {
+        return winningTile;
+    }
 
     public boolean isOver() {
         if (isWon())
             return true;
 
-        for (int i = 0; i < size; i++) {
-            for (int o = 0; o < size; o++) {
-                if (board[i][o] == 0) return false;
-
-                if ((o < size - 1 && board[i][o + 1] == board[i][o])
-                        || (o > 0 && board[i][o - 1] == board[i][o])
-                        || (i < size - 1 && board[i + 1][o] == board[i][o])
-                        || (i > 0 && board[i - 1][o] == board[i][o])) {
-                    return false;
-                }
-            }
+        return emptyCount == 0 && mergeablePairs == 0;
+    }
+
+    /**
+     * Finds the legal directions in one pass over all neighbour pairs: a direction is legal if some tile has an
+     * empty cell or an equal tile next to it on that side.
+     */
+    @Override
+    public int legalMoves() {
+        if (emptyCount == 0 && mergeablePairs == 0)
+            return 0;
+        int mask = 0;
+        for (int cell = 0; cell < board.length && mask != ALL_DIRECTIONS; cell++) {
+            int value = board[cell];
+            if (cell % size < size - 1)
+                mask |= pairMoves(value, board[cell + 1], Direction.left, Direction.right);
+            if (cell < board.length - size)
+                mask |= pairMoves(value, board[cell + size], Direction.up, Direction.down);
         }
-        return true;
+        return mask;
     }
 
-    public boolean isWon() {
-        for (int i = 0; i < size; i++) {
-            for (int k = 0; k < size; k++) {
-                if (board[i][k] == 2048)
-                    return true;
+    private static int pairMoves(int first, int second, Direction towardsFirst, Direction towardsSecond) {
+        if (first == 0)
+            return second == 0 ? 0 : towardsFirst.mask();
+        if (second == 0)
+            return towardsSecond.mask();
+        return first == second ? towardsFirst.mask() | towardsSecond.mask() : 0;
+    }
+
+    @Override
+    public int previewMove(Direction direction, int[] target) {
+        System.arraycopy(board, 0, target, 0, board.length);
+        int gained = 0;
+        for (int line = 0; line < size; line++) {
+            gained += switch (direction) {
+                case left -> previewLine(target, line * size, 1);
+                case right -> previewLine(target, line * size + size - 1, -1);
+                case up -> previewLine(target, line, size);
+                case down -> previewLine(target, (size - 1) * size + line, -size);
+            };
+        }
+        return gained;
+    }
+
+    /**
+     * Same pass as {@link #moveLine} on a plain array, without any bookkeeping. Returns the score gained.
+     */
+    private int previewLine(int[] cells, int start, int step) {
+        int gained = 0;
+        int target = start;
+        boolean canMerge = false;
+        for (int i = 0, from = start; i < size; i++, from += step) {
+            int value = cells[from];
+            if (value == 0)
+                continue;
+            cells[from] = 0;
+            if (canMerge && cells[target - step] == value) {
+                cells[target - step] = value * 2;
+                gained += value * 2;
+                canMerge = false;
+            } else {
+                cells[target] = value;
+                canMerge = true;
+                target += step;
             }
         }
-        return false;
+        return gained;
+    }
+
+    public boolean isWon() {
+        return winningTile != NO_WINNING_TILE && maxTile >= winningTile;
     }
 
     @Override
@@ -66,11 +244,13 @@ public class GameImpl implements Game {
     @Override
     public String toString() {
         StringBuilder returnVal = new StringBuilder(String.format("Moves: %s\t\tScore: %d\n", moves, score));
+        String cellFormat = "%-" + Math.max(5, Integer.toString(maxTile).length() + 1) + "s";
 
         for (int i = 0; i < size; i++) {
             StringBuilder toAdd = new StringBuilder();
             for (int k = 0; k < size; k++) {
-                toAdd.append(String.format("%-5s", board[i][k] == 0 ? "." : board[i][k]));
+                int value = board[i * size + k];
+                toAdd.append(String.format(cellFormat, value == 0 ? "." : value));
             }
             returnVal.append(toAdd.toString().trim());
             returnVal.append('\n');
@@ -80,99 +260,429 @@ public class GameImpl implements Game {
     }
 
     public void initialize() {
-        if (random == null)
-            random = new Random();
         placeRandomTile();
         placeRandomTile();
     }
 
-    public void move(Direction direction) {
-        boolean hasMovedAnything = false;
+    /**
+     * Clears board, score and moves so the instance can be reused for a new game with the same spawner.
+     */
+    public void reset() {
+        Arrays.fill(board, 0);
+        recount();
+        score = 0;
+        moves = 0;
+        clearHistory();
+        fireBoardChanged();
+    }
 
-        boolean isVertical = direction == Direction.up || direction == Direction.down;
+    /**
+     * Keeps the positions before the last {@code steps} moves for {@link #undo()}; 0, the default, disables undo.
+     * The history is stored in arrays allocated here, a move only copies the board into them.
+     */
+    public void setUndoLimit(int steps) {
+        if (steps < 0)
+            throw new IllegalArgumentException("Undo limit must not be negative");
+        if (steps == 0) {
+            undoStack = null;
+            redoStack = null;
+            previous = null;
+        } else {
+            undoStack = new StateStack(board.length, steps);
+            redoStack = new StateStack(board.length, steps);
+            previous = new int[board.length];
+        }
+    }
 
-        int startValue = 0;
-        int increment = 1;
-        Function<Integer, Boolean> condition = (Integer i) -> i < size;
+    public boolean canUndo() {
+        return undoStack != null && !undoStack.isEmpty();
+    }
 
-        switch (direction) {
-            case right, down -> {
-                startValue = size - 1;
-                increment = -1;
-                condition = (Integer i) -> i >= 0;
-            }
+    public boolean canRedo() {
+        return redoStack != null && !redoStack.isEmpty();
+    }
+
+    /**
+     * Returns to the position before the last move that changed the board, without the tile it spawned.
+     */
+    public void undo() {
+        if (!canUndo())
+            throw new IllegalStateException("Nothing to undo");
+        redoStack.push(board, score, moves);
+        restoreFrom(undoStack);
+    }
+
+    public void redo() {
+        if (!canRedo())
+            throw new IllegalStateException("Nothing to redo");
+        undoStack.push(board, score, moves);
+        restoreFrom(redoStack);
+    }
+
+    private void restoreFrom(StateStack stack) {
+        score = stack.peekScore();
+        moves = stack.peekMoves();
+        stack.pop(board);
+        recount();
+        if (VERIFY_COUNTERS)
+            verifyCounters();
+        fireBoardChanged();
+    }
+
+    private void clearHistory() {
+        if (undoStack != null) {
+            undoStack.clear();
+            redoStack.clear();
         }
+    }
+
+    public void move(Direction direction) {
+        MoveEvent event = MOVE_EVENT.isEnabled() ? new MoveEvent() : null;
+        if (event != null)
+            event.begin();
+        recordMerges = MERGE_EVENT.isEnabled();
+        boolean useTable = size == Bitboards.SIZE && listeners.length == 0 && !recordMerges;
+        boolean wasWon = isWon();
 
-        var summedUpFields = new boolean[size][size];
-        for (int yPosToShiftFrom = startValue; condition.apply(yPosToShiftFrom); yPosToShiftFrom += increment) {
-            for (int xPosToShiftFrom = startValue; condition.apply(xPosToShiftFrom); xPosToShiftFrom += increment) {
-                if (board[yPosToShiftFrom][xPosToShiftFrom] != 0) {
-                    boolean movePossible = true;
-                    int cursorPos = isVertical ? yPosToShiftFrom : xPosToShiftFrom;
-                    while (movePossible && cursorPos >= 0 && cursorPos < size) {
-                        int yPosToShiftTo = yPosToShiftFrom;
-                        int xPosToShiftTo = cursorPos;
-                        if (isVertical) {
-                            yPosToShiftTo = cursorPos;
-                            xPosToShiftTo = xPosToShiftFrom;
-                        }
-
-                        cursorPos -= increment;
-
-                        if (xPosToShiftFrom == xPosToShiftTo && yPosToShiftFrom == yPosToShiftTo) continue;
-
-                        int fromValue = board[yPosToShiftFrom][xPosToShiftFrom];
-                        int toValue = board[yPosToShiftTo][xPosToShiftTo];
-
-                        if (fromValue == toValue && !summedUpFields[yPosToShiftTo][xPosToShiftTo]) {
-                            handleMerge(xPosToShiftFrom, xPosToShiftTo, yPosToShiftFrom, yPosToShiftTo);
-                            summedUpFields[yPosToShiftTo][xPosToShiftTo] = true;
-                            hasMovedAnything = true;
-                        } else if (toValue == 0) {
-                            handleNormalMove(xPosToShiftFrom, xPosToShiftTo, yPosToShiftFrom, yPosToShiftTo);
-                            hasMovedAnything = true;
-                            if (isVertical) {
-                                yPosToShiftFrom = cursorPos + increment;
-                            } else {
-                                xPosToShiftFrom = cursorPos + increment;
-                            }
-                        } else {
-                            movePossible = false;
-                        }
-                    }
+        boolean hasMovedAnything = false;
+        int previousScore = score;
+        int previousEmptyCount = emptyCount;
+        if (undoStack != null)
+            System.arraycopy(board, 0, previous, 0, board.length);
+
+        for (int line = 0; line < size; line++) {
+            int start;
+            int step;
+            switch (direction) {
+                case left -> {
+                    start = line * size;
+                    step = 1;
+                }
+                case right -> {
+                    start = line * size + size - 1;
+                    step = -1;
+                }
+                case up -> {
+                    start = line;
+                    step = size;
+                }
+                default -> {
+                    start = (size - 1) * size + line;
+                    step = -size;
                 }
             }
+            hasMovedAnything |= useTable ? moveLineWithTable(start, step) : moveLine(start, step);
         }
+        int merges = emptyCount - previousEmptyCount;
 
         if (hasMovedAnything) {
+            if (undoStack != null) {
+                undoStack.push(previous, previousScore, moves);
+                redoStack.clear();
+            }
             moves++;
+            if (listeners.length != 0)
+                fireMoved(direction, score - previousScore);
             placeRandomTile();
+            if (listeners.length != 0)
+                fireGameEnd(wasWon);
+        } else if (VERIFY_COUNTERS) {
+            verifyCounters();
+        }
+
+        if (event != null && event.shouldCommit()) {
+            event.direction = direction.name();
+            event.moved = hasMovedAnything;
+            event.scoreDelta = score - previousScore;
+            event.merges = merges;
+            event.board = joinValues(board);
+            event.commit();
+        }
+    }
+
+    private static String joinValues(int[] values) {
+        StringBuilder result = new StringBuilder();
+        for (int value : values) {
+            if (!result.isEmpty())
+                result.append(',');
+            result.append(value);
+        }
+        return result.toString();
+    }
+
+    /**
+     * Moves a line of a 4x4 board with one lookup in the precomputed row tables of {@link Bitboards}.
+     * Lines holding a tile the tables cannot represent fall back to {@link #moveLine}. Not used while
+     * {@link MergeEvent}s are recorded or listeners registered, as it does not see the individual tiles.
+     */
+    private boolean moveLineWithTable(int start, int step) {
+        int row = 0;
+        for (int i = 0, cell = start; i < Bitboards.SIZE; i++, cell += step) {
+            int value = board[cell];
+            if (value >= 1 << Bitboards.MAX_EXPONENT)
+                return moveLine(start, step);
+            if (value != 0)
+                row |= Integer.numberOfTrailingZeros(value) << (4 * i);
+        }
+        int moved = Bitboards.slideRow(row);
+        if (moved == row)
+            return false;
+        for (int i = 0, cell = start; i < Bitboards.SIZE; i++, cell += step) {
+            int exponent = (moved >>> (4 * i)) & 0xF;
+            int value = exponent == 0 ? 0 : 1 << exponent;
+            setCell(cell, value);
+            maxTile = Math.max(maxTile, value);
+        }
+        score += Bitboards.rowScore(row);
+        return true;
+    }
+
+    /**
+     * Slides and merges one row or column in a single pass. {@code start} is the cell the tiles move towards,
+     * {@code step} the distance to the next cell of the line. Each tile merges at most once.
+     */
+    private boolean moveLine(int start, int step) {
+        boolean moved = false;
+        int target = start;
+        boolean canMerge = false;
+        for (int i = 0, from = start; i < size; i++, from += step) {
+            int value = board[from];
+            if (value == 0)
+                continue;
+            if (canMerge && board[target - step] == value) {
+                handleMerge(from, target - step);
+                canMerge = false;
+                moved = true;
+            } else {
+                if (from != target) {
+                    handleNormalMove(from, target);
+                    moved = true;
+                }
+                canMerge = true;
+                target += step;
+            }
         }
+        return moved;
     }
 
-    private void handleMerge(int xFrom, int xTo, int yFrom, int yTo) {
-        board[yTo][xTo] *= 2;
-        board[yFrom][xFrom] = 0;
-        score += board[yTo][xTo];
+    private void handleMerge(int from, int to) {
+        int merged = board[to] * 2;
+        setCell(to, merged);
+        setCell(from, 0);
+        score += merged;
+        maxTile = Math.max(maxTile, merged);
+        for (GameListener listener : listeners) {
+            listener.tilesMerged(from, to, merged);
+        }
+
+        if (recordMerges) {
+            MergeEvent event = new MergeEvent();
+            event.value = merged;
+            event.cell = to;
+            event.commit();
+        }
     }
 
-    private void handleNormalMove(int xFrom, int xTo, int yFrom, int yTo) {
-        board[yTo][xTo] = board[yFrom][xFrom];
-        board[yFrom][xFrom] = 0;
+    private void handleNormalMove(int from, int to) {
+        int value = board[from];
+        setCell(to, value);
+        setCell(from, 0);
+        for (GameListener listener : listeners) {
+            listener.tileMoved(from, to, value);
+        }
     }
 
     public void placeRandomTile() {
-        int nextX;
-        int nextY;
-        do {
-            nextY = random.nextInt(size);
-            nextX = random.nextInt(size);
-        } while (board[nextY][nextX] != 0);
+        if (emptyCount == 0)
+            throw new IllegalStateException("No empty cell left");
+        SpawnEvent event = SPAWN_EVENT.isEnabled() ? new SpawnEvent() : null;
+        if (event != null)
+            event.begin();
+        int emptyBefore = emptyCount;
+        long drawsBefore = cellDraws();
+
+        int cell = spawner.nextCell(emptyCells, emptyCount, size);
+        int value = spawner.nextValue();
+        setCell(cell, value);
+        maxTile = Math.max(maxTile, value);
+        if (VERIFY_COUNTERS)
+            verifyCounters();
+        for (GameListener listener : listeners) {
+            listener.tileSpawned(cell, value);
+        }
+
+        if (event != null && event.shouldCommit()) {
+            event.cell = cell;
+            event.value = value;
+            event.emptyCells = emptyBefore;
+            event.attempts = spawner instanceof RejectionSamplingTileSpawner ? cellDraws() - drawsBefore : 1;
+            event.commit();
+        }
+    }
 
-        board[nextY][nextX] = random.nextInt(10) == 0 ? 4 : 2;
+    private long cellDraws() {
+        return spawner instanceof RejectionSamplingTileSpawner rejectionSampling ? rejectionSampling.getCellDraws() : 0;
     }
 
+    @Override
     public void placeTile(int x, int y, int value) {
-        board[y][x] = value;
+        int cell = y * size + x;
+        int previous = board[cell];
+        setCell(cell, value);
+        if (value >= maxTile)
+            maxTile = value;
+        else if (previous == maxTile)
+            maxTile = scanMaxTile();
+        if (VERIFY_COUNTERS)
+            verifyCounters();
+        fireBoardChanged();
+    }
+
+    @Override
+    public GameSnapshot snapshot() {
+        return new GameSnapshot(size, board.clone(), score, moves, spawner.saveState());
+    }
+
+    @Override
+    public void restore(GameSnapshot snapshot) {
+        snapshot.checkBoardSize(size);
+        spawner.restoreState(snapshot.getSpawnerState());
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                board[y * size + x] = snapshot.getValueAt(x, y);
+            }
+        }
+        recount();
+        score = snapshot.getScore();
+        moves = snapshot.getMoves();
+        clearHistory();
+        if (VERIFY_COUNTERS)
+            verifyCounters();
+        fireBoardChanged();
+    }
+
+    @Override
+    public void addListener(GameListener listener) {
+        listeners = GameListeners.add(listeners, listener);
+    }
+
+    @Override
+    public void removeListener(GameListener listener) {
+        listeners = GameListeners.remove(listeners, listener);
+    }
+
+    private void fireMoved(Direction direction, int scoreDelta) {
+        for (GameListener listener : listeners) {
+            listener.moved(direction, scoreDelta);
+        }
+    }
+
+    private void fireGameEnd(boolean wasWon) {
+        if (isWon()) {
+            if (!wasWon) {
+                for (GameListener listener : listeners) {
+                    listener.gameWon();
+                }
+            }
+        } else if (isOver()) {
+            for (GameListener listener : listeners) {
+                listener.gameLost();
+            }
+        }
+    }
+
+    private void fireBoardChanged() {
+        for (GameListener listener : listeners) {
+            listener.boardChanged();
+        }
+    }
+
+    /**
+     * Writes a cell and keeps the empty-cell mask, empty count and number of mergeable neighbour pairs up to date.
+     */
+    private void setCell(int cell, int value) {
+        int previous = board[cell];
+        if (previous == value)
+            return;
+        if ((previous == 0) != (value == 0)) {
+            emptyCells[cell >>> 6] ^= 1L << cell;
+            emptyCount += value == 0 ? 1 : -1;
+        }
+        mergeablePairs += equalNeighbours(cell, value) - equalNeighbours(cell, previous);
+        board[cell] = value;
+    }
+
+    /**
+     * Rebuilds the empty-cell mask and all counters in one pass after the board was written directly.
+     */
+    private void recount() {
+        Arrays.fill(emptyCells, 0);
+        emptyCount = 0;
+        mergeablePairs = 0;
+        maxTile = 0;
+        for (int cell = 0; cell < board.length; cell++) {
+            int value = board[cell];
+            if (value == 0) {
+                emptyCells[cell >>> 6] |= 1L << cell;
+                emptyCount++;
+                continue;
+            }
+            maxTile = Math.max(maxTile, value);
+            if (cell % size < size - 1 && board[cell + 1] == value)
+                mergeablePairs++;
+            if (cell < board.length - size && board[cell + size] == value)
+                mergeablePairs++;
+        }
+    }
+
+    private int equalNeighbours(int cell, int value) {
+        if (value == 0)
+            return 0;
+        int x = cell % size;
+        int count = 0;
+        if (x > 0 && board[cell - 1] == value)
+            count++;
+        if (x < size - 1 && board[cell + 1] == value)
+            count++;
+        if (cell >= size && board[cell - size] == value)
+            count++;
+        if (cell < board.length - size && board[cell + size] == value)
+            count++;
+        return count;
+    }
+
+    private int scanMaxTile() {
+        int max = 0;
+        for (int value : board) {
+            max = Math.max(max, value);
+        }
+        return max;
+    }
+
+    private void verifyCounters() {
+        int empty = 0;
+        int pairs = 0;
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                int cell = y * size + x;
+                int value = board[cell];
+                if (TileSpawners.isEmpty(emptyCells, cell) != (value == 0))
+                    throw new IllegalStateException("Empty mask disagrees with cell " + cell + " holding " + value);
+                if (value == 0) {
+                    empty++;
+                    continue;
+                }
+                if (x < size - 1 && board[cell + 1] == value)
+                    pairs++;
+                if (y < size - 1 && board[cell + size] == value)
+                    pairs++;
+            }
+        }
+        if (empty != emptyCount)
+            throw new IllegalStateException("Empty count is " + emptyCount + ", board has " + empty);
+        if (pairs != mergeablePairs)
+            throw new IllegalStateException("Mergeable pairs are " + mergeablePairs + ", board has " + pairs);
+        if (scanMaxTile() != maxTile)
+            throw new IllegalStateException("Max tile is " + maxTile + ", board has " + scanMaxTile());
     }
 }
@@ -0,0 +1,45 @@
+package spw4.game2048;
+
+/**
+ * Receives the changes of a {@link Game} as they happen, so consumers do work per change instead of rescanning
+ * the board after every move. Cells are numbered {@code y * size + x}.
+ * <p>
+ * A move that changes the board reports its slides and merges line by line, then {@link #moved}, then the
+ * spawned tile, then {@link #gameWon()} or {@link #gameLost()} if the move ended the game. Callbacks run on the
+ * thread that changed the game and must not change it themselves. All methods do nothing by default.
+ */
+public interface GameListener {
+    /**
+     * A tile of {@code value} slid from {@code from} to the empty cell {@code to}.
+     */
+    default void tileMoved(int from, int to, int value) {
+    }
+
+    /**
+     * The tile at {@code from} merged into the equal tile at {@code to}, which now holds {@code value}.
+     */
+    default void tilesMerged(int from, int to, int value) {
+    }
+
+    default void tileSpawned(int cell, int value) {
+    }
+
+    /**
+     * A move in {@code direction} finished sliding and merging and gained {@code scoreDelta}.
+     */
+    default void moved(Direction direction, int scoreDelta) {
+    }
+
+    default void gameWon() {
+    }
+
+    default void gameLost() {
+    }
+
+    /**
+     * The board was replaced as a whole, by {@code placeTile}, {@code restore}, {@code undo} and the like;
+     * read it again instead of applying changes.
+     */
+    default void boardChanged() {
+    }
+}
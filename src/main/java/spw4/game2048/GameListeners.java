@@ -0,0 +1,36 @@
+package spw4.game2048;
+
+import java.util.Arrays;
+
+/**
+ * Copy-on-write arrays of {@link GameListener}s, so games notify them without allocating and pay a single length
+ * check while there are none.
+ */
+final class GameListeners {
+    static final GameListener[] NONE = {};
+
+    private GameListeners() {
+    }
+
+    static GameListener[] add(GameListener[] listeners, GameListener listener) {
+        if (listener == null)
+            throw new IllegalArgumentException("listener must not be null");
+        GameListener[] added = Arrays.copyOf(listeners, listeners.length + 1);
+        added[listeners.length] = listener;
+        return added;
+    }
+
+    static GameListener[] remove(GameListener[] listeners, GameListener listener) {
+        for (int i = 0; i < listeners.length; i++) {
+            if (listeners[i] == listener) {
+                if (listeners.length == 1)
+                    return NONE;
+                GameListener[] remaining = new GameListener[listeners.length - 1];
+                System.arraycopy(listeners, 0, remaining, 0, i);
+                System.arraycopy(listeners, i + 1, remaining, i, remaining.length - i);
+                return remaining;
+            }
+        }
+        return listeners;
+    }
+}
@@ -0,0 +1,66 @@
+package spw4.game2048;
+
+import java.util.Arrays;
+
+/**
+ * Immutable copy of the full state of a {@link Game}: tiles, score, moves and the state of its {@link TileSpawner}.
+ */
+public final class GameSnapshot {
+    private final int size;
+    private final int[] values;
+    private final int score;
+    private final int moves;
+    private final long spawnerState;
+
+    GameSnapshot(int size, int[] values, int score, int moves, long spawnerState) {
+        this.size = size;
+        this.values = values;
+        this.score = score;
+        this.moves = moves;
+        this.spawnerState = spawnerState;
+    }
+
+    public int getBoardSize() {
+        return size;
+    }
+
+    public int getValueAt(int x, int y) {
+        return values[y * size + x];
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public int getMoves() {
+        return moves;
+    }
+
+    public long getSpawnerState() {
+        return spawnerState;
+    }
+
+    void checkBoardSize(int expected) {
+        if (size != expected)
+            throw new IllegalArgumentException("Snapshot of a " + size + "x" + size + " board cannot be restored on "
+                    + expected + "x" + expected);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (!(o instanceof GameSnapshot other))
+            return false;
+        return size == other.size && score == other.score && moves == other.moves
+                && spawnerState == other.spawnerState && Arrays.equals(values, other.values);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Arrays.hashCode(values);
+        result = 31 * result + score;
+        result = 31 * result + moves;
+        return 31 * result + Long.hashCode(spawnerState);
+    }
+}
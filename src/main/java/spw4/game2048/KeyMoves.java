@@ -0,0 +1,48 @@
+package spw4.game2048;
+
+/**
+ * Moves typed as {@code w}, {@code a}, {@code s} and {@code d} keys, as in {@link Main}.
+ */
+public final class KeyMoves {
+    private KeyMoves() {
+    }
+
+    /**
+     * Returns the direction of {@code key}, or {@code null} if it is not a move key.
+     */
+    public static Direction direction(char key) {
+        return switch (key) {
+            case 'w' -> Direction.up;
+            case 'a' -> Direction.left;
+            case 's' -> Direction.down;
+            case 'd' -> Direction.right;
+            default -> null;
+        };
+    }
+
+    public static boolean isMoveSequence(CharSequence keys) {
+        if (keys.length() == 0)
+            return false;
+        for (int i = 0; i < keys.length(); i++) {
+            if (direction(keys.charAt(i)) == null)
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Plays the moves back to back and stops as soon as the game is over.
+     * Returns how many keys were consumed, less than {@code keys.length()} only if the game ended early.
+     *
+     * @throws IllegalArgumentException if {@code keys} contains anything but move keys
+     */
+    public static int play(Game game, CharSequence keys) {
+        if (!isMoveSequence(keys))
+            throw new IllegalArgumentException("Not a move sequence: " + keys);
+        int consumed = 0;
+        while (consumed < keys.length() && !game.isOver()) {
+            game.move(direction(keys.charAt(consumed++)));
+        }
+        return consumed;
+    }
+}
@@ -1,20 +1,35 @@
 package spw4.game2048;
 
+import spw4.game2048.solver.ExpectimaxSolver;
+
 import java.util.*;
 
 public class Main {
+    private static final long AI_FRAME_NANOS = 1_000_000_000L / 30;
+
     public static void main(String[] args) {
+        if (args.length > 0 && args[0].equals("--ai")) {
+            playAi(args.length > 1 ? Integer.parseInt(args[1]) : 2);
+            return;
+        }
+
         Scanner scanner = new Scanner(System.in);
         String input;
 
-        Game game = new GameImpl();
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : GameImpl.DEFAULT_SIZE;
+        int winningTile = args.length > 1 ? Integer.parseInt(args[1]) : GameImpl.DEFAULT_WINNING_TILE;
+
+        Game game = new GameImpl(size, winningTile, TileSpawners.unseeded());
+        TerminalRenderer renderer = new TerminalRenderer(System.out);
         game.initialize();
-        System.out.println(game);
+        renderer.renderNow(game);
+        renderer.moveBelowBoard();
 
         while (!game.isOver()) {
-            System.out.print("command [w, a, s, d, (r)estart, (q)uit, (h)elp] > ");
+            System.out.print("command [w, a, s, d or a sequence like wwasd, (r)estart, (q)uit, (h)elp] > ");
             input = scanner.nextLine();
 
+            renderer.moveBelowBoard();
             switch (input) {
                 case "w": game.move(Direction.up);               break;
                 case "a": game.move(Direction.left);             break;
@@ -23,10 +38,44 @@ public class Main {
                 case "r": game.initialize();                     break;
                 case "q": System.out.println("Ok, bye.");        return;
                 case "h": printHelp();                           break;
-                default:  System.out.println("Unknown command"); break;
+                default:  playSequence(game, input);             break;
             }
-            System.out.println(game);
+            renderer.renderNow(game);
         }
+        printResult(game);
+    }
+
+    /**
+     * Lets the expectimax solver play a 4x4 game at the given search depth, redrawing at most 30 times a second.
+     */
+    private static void playAi(int depth) {
+        Game game = new BitboardGame();
+        ExpectimaxSolver solver = new ExpectimaxSolver();
+        TerminalRenderer renderer = new TerminalRenderer(System.out, AI_FRAME_NANOS);
+        game.initialize();
+        renderer.renderNow(game);
+        renderer.moveBelowBoard();
+
+        Direction direction;
+        while (!game.isOver() && (direction = solver.bestMove(game, depth)) != null) {
+            game.move(direction);
+            renderer.render(game);
+        }
+        renderer.renderNow(game);
+        printResult(game);
+    }
+
+    private static void playSequence(Game game, String input) {
+        if (!KeyMoves.isMoveSequence(input)) {
+            System.out.println("Unknown command");
+            return;
+        }
+        int consumed = KeyMoves.play(game, input);
+        if (consumed < input.length())
+            System.out.println("Game over after " + consumed + " of " + input.length() + " moves");
+    }
+
+    private static void printResult(Game game) {
         System.out.println(game.isWon() ? "You win!!! :)" : "You lose. :(");
         System.out.println("Your score: " + game.getScore());
     }
@@ -39,6 +88,7 @@ public class Main {
         System.out.println("a --> move left");
         System.out.println("s --> move down");
         System.out.println("d --> move right");
+        System.out.println("wwasd... --> play several moves at once");
         System.out.println("r --> restart game");
         System.out.println("q --> quit game");
         System.out.println("h --> show help");
@@ -0,0 +1,66 @@
+package spw4.game2048;
+
+import java.util.Arrays;
+
+/**
+ * Passes every call on to another spawner and remembers the cells and values it returned,
+ * so the game can be reproduced later with {@link #replay()}.
+ */
+public class RecordingTileSpawner implements TileSpawner {
+    private final TileSpawner delegate;
+    private int[] cells = new int[64];
+    private int[] values = new int[64];
+    private int cellCount;
+    private int valueCount;
+
+    public RecordingTileSpawner(TileSpawner delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public int nextCell(long[] emptyCells, int emptyCount, int size) {
+        int cell = delegate.nextCell(emptyCells, emptyCount, size);
+        if (cellCount == cells.length)
+            cells = Arrays.copyOf(cells, cellCount * 2);
+        cells[cellCount++] = cell;
+        return cell;
+    }
+
+    @Override
+    public int nextValue() {
+        int value = delegate.nextValue();
+        if (valueCount == values.length)
+            values = Arrays.copyOf(values, valueCount * 2);
+        values[valueCount++] = value;
+        return value;
+    }
+
+    /**
+     * Returns the state of the delegate. The tiles recorded so far are kept on {@link #restoreState(long)}.
+     */
+    @Override
+    public long saveState() {
+        return delegate.saveState();
+    }
+
+    @Override
+    public void restoreState(long state) {
+        delegate.restoreState(state);
+    }
+
+    public int getSpawnCount() {
+        return valueCount;
+    }
+
+    public int[] getCells() {
+        return Arrays.copyOf(cells, cellCount);
+    }
+
+    public int[] getValues() {
+        return Arrays.copyOf(values, valueCount);
+    }
+
+    public ReplayTileSpawner replay() {
+        return new ReplayTileSpawner(getCells(), getValues());
+    }
+}
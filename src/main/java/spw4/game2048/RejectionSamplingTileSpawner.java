@@ -0,0 +1,48 @@
+package spw4.game2048;
+
+/**
+ * Draws a row, then a column, until the cell is empty, then the value. Needs many draws on nearly full boards,
+ * but reproduces the tile sequence of the original {@code GameImpl} for a given random source.
+ */
+public class RejectionSamplingTileSpawner implements TileSpawner {
+    private final ReplayableRandom random;
+    private long cellDraws;
+
+    public RejectionSamplingTileSpawner(ReplayableRandom random) {
+        this.random = random;
+    }
+
+    @Override
+    public int nextCell(long[] emptyCells, int emptyCount, int size) {
+        int cell;
+        do {
+            int y = random.nextInt(size);
+            int x = random.nextInt(size);
+            cell = y * size + x;
+            cellDraws++;
+        } while (!TileSpawners.isEmpty(emptyCells, cell));
+        return cell;
+    }
+
+    /**
+     * Returns how many cells were drawn so far, including the ones that were not empty.
+     */
+    public long getCellDraws() {
+        return cellDraws;
+    }
+
+    @Override
+    public int nextValue() {
+        return TileSpawners.nextValue(random);
+    }
+
+    @Override
+    public long saveState() {
+        return random.saveState();
+    }
+
+    @Override
+    public void restoreState(long state) {
+        random.restoreState(state);
+    }
+}
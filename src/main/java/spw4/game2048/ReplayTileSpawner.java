@@ -0,0 +1,56 @@
+package spw4.game2048;
+
+/**
+ * Returns a fixed sequence of cells and values, for example one captured by a {@link RecordingTileSpawner}.
+ */
+public class ReplayTileSpawner implements TileSpawner {
+    private final int[] cells;
+    private final int[] values;
+    private int nextCell;
+    private int nextValue;
+
+    public ReplayTileSpawner(int[] cells, int[] values) {
+        if (cells.length != values.length)
+            throw new IllegalArgumentException("Need exactly one value per cell");
+        this.cells = cells;
+        this.values = values;
+    }
+
+    @Override
+    public int nextCell(long[] emptyCells, int emptyCount, int size) {
+        if (nextCell == cells.length)
+            throw new IllegalStateException("Replay exhausted after " + cells.length + " tiles");
+        int cell = cells[nextCell];
+        if (!TileSpawners.isEmpty(emptyCells, cell))
+            throw new IllegalStateException("Recorded cell " + cell + " is not empty, the game diverged from the recording");
+        nextCell++;
+        return cell;
+    }
+
+    @Override
+    public int nextValue() {
+        if (nextValue == values.length)
+            throw new IllegalStateException("Replay exhausted after " + values.length + " tiles");
+        return values[nextValue++];
+    }
+
+    /**
+     * Returns the number of tiles handed out so far.
+     */
+    @Override
+    public long saveState() {
+        return nextValue;
+    }
+
+    @Override
+    public void restoreState(long state) {
+        if (state < 0 || state > cells.length)
+            throw new IllegalArgumentException("No tile " + state + " in replay of " + cells.length + " tiles");
+        nextCell = (int) state;
+        nextValue = (int) state;
+    }
+
+    public int getRemaining() {
+        return cells.length - nextCell;
+    }
+}
@@ -0,0 +1,16 @@
+package spw4.game2048;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * {@link RandomGenerator} whose whole state fits in one {@code long}, so spawners built on it support
+ * {@link Game#snapshot()} and {@link Game#restore(GameSnapshot)}.
+ */
+public interface ReplayableRandom extends RandomGenerator {
+    long saveState();
+
+    /**
+     * Continues with a state previously returned by {@link #saveState()}.
+     */
+    void restoreState(long state);
+}
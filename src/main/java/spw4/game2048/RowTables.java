@@ -0,0 +1,136 @@
+package spw4.game2048;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Slide and merge results of all 65536 rows of a packed board, see {@link Bitboards}. The build writes them to the
+ * resource {@value #RESOURCE} with {@link #main(String[])}, so loading them at startup is a single read; without the
+ * resource, for example when running from an IDE that skips the build step, they are computed instead.
+ * Whether a row changes needs no table of its own: it does if {@code left[row] != row}.
+ */
+public final class RowTables {
+    static final String RESOURCE = "row-tables.bin";
+    static final int ROWS = 1 << 16;
+
+    private static final int MAGIC = 0x524F5753;
+    private static final int BYTES = 8 + ROWS * (2 + 2 + 4);
+
+    final char[] left;
+    final char[] right;
+    final int[] score;
+
+    private RowTables(char[] left, char[] right, int[] score) {
+        this.left = left;
+        this.right = right;
+        this.score = score;
+    }
+
+    /**
+     * Writes the tables to the file given as the only argument.
+     */
+    public static void main(String[] args) throws IOException {
+        Path file = Path.of(args[0]);
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        try (OutputStream out = Files.newOutputStream(file)) {
+            compute().write(out);
+        }
+    }
+
+    static RowTables load() {
+        try (InputStream in = RowTables.class.getResourceAsStream(RESOURCE)) {
+            return in == null ? compute() : read(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read " + RESOURCE, e);
+        }
+    }
+
+    static RowTables compute() {
+        char[] left = new char[ROWS];
+        char[] right = new char[ROWS];
+        int[] score = new int[ROWS];
+        for (int row = 0; row < ROWS; row++) {
+            left[row] = (char) slideLeft(row);
+            right[row] = (char) reverseRow(slideLeft(reverseRow(row)));
+            score[row] = mergeScore(row);
+        }
+        return new RowTables(left, right, score);
+    }
+
+    static RowTables read(InputStream in) throws IOException {
+        byte[] bytes = in.readNBytes(BYTES + 1);
+        if (bytes.length != BYTES)
+            throw new IOException("Row tables have " + bytes.length + " bytes instead of " + BYTES);
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        if (buffer.getInt() != MAGIC || buffer.getInt() != ROWS)
+            throw new IOException("Not a row table resource");
+        char[] left = new char[ROWS];
+        char[] right = new char[ROWS];
+        int[] score = new int[ROWS];
+        buffer.asCharBuffer().get(left);
+        buffer.position(buffer.position() + ROWS * 2);
+        buffer.asCharBuffer().get(right);
+        buffer.position(buffer.position() + ROWS * 2);
+        buffer.asIntBuffer().get(score);
+        return new RowTables(left, right, score);
+    }
+
+    void write(OutputStream out) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(BYTES);
+        buffer.putInt(MAGIC).putInt(ROWS);
+        buffer.asCharBuffer().put(left);
+        buffer.position(buffer.position() + ROWS * 2);
+        buffer.asCharBuffer().put(right);
+        buffer.position(buffer.position() + ROWS * 2);
+        buffer.asIntBuffer().put(score);
+        out.write(buffer.array());
+    }
+
+    private static int slideLeft(int row) {
+        int result = 0;
+        int target = 0;
+        int pending = 0;
+        for (int i = 0; i < Bitboards.SIZE; i++) {
+            int exponent = (row >>> (4 * i)) & 0xF;
+            if (exponent == 0)
+                continue;
+            if (pending == exponent) {
+                result |= Math.min(exponent + 1, Bitboards.MAX_EXPONENT) << (4 * target++);
+                pending = 0;
+            } else {
+                if (pending != 0)
+                    result |= pending << (4 * target++);
+                pending = exponent;
+            }
+        }
+        if (pending != 0)
+            result |= pending << (4 * target);
+        return result;
+    }
+
+    private static int mergeScore(int row) {
+        int score = 0;
+        int pending = 0;
+        for (int i = 0; i < Bitboards.SIZE; i++) {
+            int exponent = (row >>> (4 * i)) & 0xF;
+            if (exponent == 0)
+                continue;
+            if (pending == exponent) {
+                score += 1 << (exponent + 1);
+                pending = 0;
+            } else {
+                pending = exponent;
+            }
+        }
+        return score;
+    }
+
+    private static int reverseRow(int row) {
+        return ((row & 0xF) << 12) | ((row & 0xF0) << 4) | ((row >>> 4) & 0xF0) | (row >>> 12);
+    }
+}
@@ -0,0 +1,32 @@
+package spw4.game2048;
+
+/**
+ * SplitMix64 generator whose whole state is one {@code long}, so it can be saved and restored.
+ */
+final class SplitMixRandom implements ReplayableRandom {
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private long state;
+
+    SplitMixRandom(long seed) {
+        state = seed;
+    }
+
+    @Override
+    public long nextLong() {
+        long z = state += GOLDEN_GAMMA;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    @Override
+    public long saveState() {
+        return state;
+    }
+
+    @Override
+    public void restoreState(long state) {
+        this.state = state;
+    }
+}
@@ -0,0 +1,72 @@
+package spw4.game2048;
+
+/**
+ * Bounded stack of game states for undo and redo. Each state is stored as one exponent byte per cell plus score
+ * and moves in arrays allocated up front; pushing onto a full stack drops the oldest state.
+ */
+final class StateStack {
+    private final int cellsPerState;
+    private final int capacity;
+    private final byte[] exponents;
+    private final int[] scores;
+    private final int[] moves;
+    private int top;
+    private int count;
+
+    StateStack(int cellsPerState, int capacity) {
+        this.cellsPerState = cellsPerState;
+        this.capacity = capacity;
+        exponents = new byte[cellsPerState * capacity];
+        scores = new int[capacity];
+        this.moves = new int[capacity];
+    }
+
+    boolean isEmpty() {
+        return count == 0;
+    }
+
+    int size() {
+        return count;
+    }
+
+    void clear() {
+        count = 0;
+    }
+
+    void push(int[] board, int score, int moves) {
+        if (capacity == 0)
+            return;
+        top = (top + 1) % capacity;
+        count = Math.min(count + 1, capacity);
+        int offset = top * cellsPerState;
+        for (int cell = 0; cell < cellsPerState; cell++) {
+            int value = board[cell];
+            exponents[offset + cell] = (byte) (value == 0 ? 0 : Integer.numberOfTrailingZeros(value));
+        }
+        scores[top] = score;
+        this.moves[top] = moves;
+    }
+
+    /**
+     * Removes the top state after copying its tiles to {@code board}. Read its score and moves first.
+     */
+    void pop(int[] board) {
+        if (count == 0)
+            throw new IllegalStateException("Stack is empty");
+        int offset = top * cellsPerState;
+        for (int cell = 0; cell < cellsPerState; cell++) {
+            int exponent = exponents[offset + cell];
+            board[cell] = exponent == 0 ? 0 : 1 << exponent;
+        }
+        top = (top - 1 + capacity) % capacity;
+        count--;
+    }
+
+    int peekScore() {
+        return scores[top];
+    }
+
+    int peekMoves() {
+        return moves[top];
+    }
+}
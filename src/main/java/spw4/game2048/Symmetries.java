@@ -0,0 +1,161 @@
+package spw4.game2048;
+
+/**
+ * The 8 symmetries of the square applied to packed boards (see {@link Bitboards}), for keying caches and tables on
+ * one representative per class of equivalent boards.
+ * <p>
+ * Transform {@code t} (0 to 7) transposes the board if bit 2 is set, then mirrors every row if bit 0 is set, then
+ * reverses the order of the rows if bit 1 is set. Transform 0 is the identity. Moving the original board in
+ * direction {@code d} gives, after transform {@code t}, the same board as moving the transformed board in
+ * {@link #mapDirection(Direction, int) mapDirection(d, t)}.
+ */
+public final class Symmetries {
+    public static final int COUNT = 8;
+
+    private static final Direction[][] MAPPED = new Direction[COUNT][];
+    private static final Direction[][] UNMAPPED = new Direction[COUNT][];
+
+    static {
+        Direction[] directions = Direction.values();
+        for (int t = 0; t < COUNT; t++) {
+            MAPPED[t] = new Direction[directions.length];
+            UNMAPPED[t] = new Direction[directions.length];
+            for (Direction direction : directions) {
+                Direction mapped = direction;
+                if ((t & 4) != 0)
+                    mapped = transposed(mapped);
+                if ((t & 1) != 0)
+                    mapped = mirrored(mapped);
+                if ((t & 2) != 0)
+                    mapped = flipped(mapped);
+                MAPPED[t][direction.ordinal()] = mapped;
+                UNMAPPED[t][mapped.ordinal()] = direction;
+            }
+        }
+    }
+
+    private Symmetries() {
+    }
+
+    public static long apply(long board, int transform) {
+        if ((transform & 4) != 0)
+            board = Bitboards.transpose(board);
+        if ((transform & 1) != 0)
+            board = mirrorRows(board);
+        if ((transform & 2) != 0)
+            board = reverseRows(board);
+        return board;
+    }
+
+    /**
+     * Undoes {@link #apply(long, int)}.
+     */
+    public static long invert(long board, int transform) {
+        if ((transform & 2) != 0)
+            board = reverseRows(board);
+        if ((transform & 1) != 0)
+            board = mirrorRows(board);
+        if ((transform & 4) != 0)
+            board = Bitboards.transpose(board);
+        return board;
+    }
+
+    /**
+     * Returns the smallest board, compared as unsigned numbers, among the 8 transforms of {@code board}.
+     */
+    public static long canonical(long board) {
+        long mirrored = mirrorRows(board);
+        long transposed = Bitboards.transpose(board);
+        long transposedMirrored = mirrorRows(transposed);
+        long min = minUnsigned(
+                minUnsigned(board, mirrored),
+                minUnsigned(reverseRows(board), reverseRows(mirrored)));
+        return minUnsigned(min, minUnsigned(
+                minUnsigned(transposed, transposedMirrored),
+                minUnsigned(reverseRows(transposed), reverseRows(transposedMirrored))));
+    }
+
+    public static long canonical(Game game) {
+        return canonical(Bitboards.pack(game));
+    }
+
+    /**
+     * Returns a transform that turns {@code board} into {@link #canonical(long)}; the lowest one if several do.
+     */
+    public static int canonicalTransform(long board) {
+        int best = 0;
+        long min = board;
+        for (int t = 1; t < COUNT; t++) {
+            long candidate = apply(board, t);
+            if (Long.compareUnsigned(candidate, min) < 0) {
+                min = candidate;
+                best = t;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Direction on the transformed board that corresponds to {@code direction} on the original one.
+     */
+    public static Direction mapDirection(Direction direction, int transform) {
+        return MAPPED[transform][direction.ordinal()];
+    }
+
+    /**
+     * Direction on the original board that corresponds to {@code direction} on the transformed one,
+     * for example to play a move found on the canonical board.
+     */
+    public static Direction unmapDirection(Direction direction, int transform) {
+        return UNMAPPED[transform][direction.ordinal()];
+    }
+
+    /**
+     * Reverses the cells of every row.
+     */
+    static long mirrorRows(long board) {
+        return (board & 0x000F000F000F000FL) << 12
+                | (board & 0x00F000F000F000F0L) << 4
+                | (board >>> 4) & 0x00F000F000F000F0L
+                | (board >>> 12) & 0x000F000F000F000FL;
+    }
+
+    /**
+     * Reverses the order of the rows.
+     */
+    static long reverseRows(long board) {
+        return board << 48
+                | (board & 0xFFFF0000L) << 16
+                | (board >>> 16) & 0xFFFF0000L
+                | board >>> 48;
+    }
+
+    private static long minUnsigned(long a, long b) {
+        return Long.compareUnsigned(a, b) <= 0 ? a : b;
+    }
+
+    private static Direction transposed(Direction direction) {
+        return switch (direction) {
+            case up -> Direction.left;
+            case left -> Direction.up;
+            case down -> Direction.right;
+            case right -> Direction.down;
+        };
+    }
+
+    private static Direction mirrored(Direction direction) {
+        return switch (direction) {
+            case left -> Direction.right;
+            case right -> Direction.left;
+            default -> direction;
+        };
+    }
+
+    private static Direction flipped(Direction direction) {
+        return switch (direction) {
+            case up -> Direction.down;
+            case down -> Direction.up;
+            default -> direction;
+        };
+    }
+}
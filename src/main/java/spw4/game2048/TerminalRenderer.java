@@ -0,0 +1,189 @@
+package spw4.game2048;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.function.LongSupplier;
+
+/**
+ * Draws a {@link Game} on an ANSI terminal. Only the header and the cells that changed since the last frame are
+ * written, positioned with cursor escapes, and all output goes through one reused buffer. Frames requested faster
+ * than the configured interval are skipped, so a fast game loop is not slowed down by the display.
+ * Drawing leaves the cursor where it was, so prompts and messages can be printed below the board.
+ */
+public class TerminalRenderer {
+    private static final byte ESC = 0x1B;
+    private static final int CELL_WIDTH = 7;
+    private static final int HEADER_ROW = 1;
+    private static final int FIRST_BOARD_ROW = 2;
+
+    private final OutputStream out;
+    private final long minIntervalNanos;
+    private final LongSupplier clock;
+
+    private byte[] buffer = new byte[256];
+    private int length;
+    private int[] shown = new int[0];
+    private int shownSize = -1;
+    private int shownScore;
+    private int shownMoves;
+    private boolean invalid = true;
+    private boolean rendered;
+    private long lastFrame;
+
+    public TerminalRenderer(OutputStream out) {
+        this(out, 0);
+    }
+
+    /**
+     * @param minIntervalNanos minimum time between two frames drawn by {@link #render(Game)}
+     */
+    public TerminalRenderer(OutputStream out, long minIntervalNanos) {
+        this(out, minIntervalNanos, System::nanoTime);
+    }
+
+    TerminalRenderer(OutputStream out, long minIntervalNanos, LongSupplier clock) {
+        this.out = out;
+        this.minIntervalNanos = minIntervalNanos;
+        this.clock = clock;
+    }
+
+    /**
+     * Draws a frame unless the previous one is more recent than the minimum interval.
+     * Returns whether a frame was drawn.
+     */
+    public boolean render(Game game) {
+        long now = clock.getAsLong();
+        if (rendered && now - lastFrame < minIntervalNanos)
+            return false;
+        draw(game, now);
+        return true;
+    }
+
+    /**
+     * Draws a frame regardless of the minimum interval, for example the final position.
+     */
+    public void renderNow(Game game) {
+        draw(game, clock.getAsLong());
+    }
+
+    /**
+     * Clears the screen and redraws everything on the next frame, for when other output may have overwritten the board.
+     */
+    public void invalidate() {
+        invalid = true;
+    }
+
+    /**
+     * Moves the cursor to the first line below the board and clears the rest of the screen.
+     */
+    public void moveBelowBoard() {
+        length = 0;
+        moveTo(FIRST_BOARD_ROW + Math.max(shownSize, 0), 1);
+        escape('J');
+        flush();
+    }
+
+    private void draw(Game game, long now) {
+        rendered = true;
+        lastFrame = now;
+        int size = game.getBoardSize();
+        if (size != shownSize) {
+            shownSize = size;
+            shown = new int[size * size];
+            buffer = new byte[Math.max(buffer.length, 128 + size * size * (CELL_WIDTH + 16))];
+            invalid = true;
+        }
+
+        length = 0;
+        buffer[length++] = ESC;
+        buffer[length++] = '7';
+        if (invalid) {
+            moveTo(1, 1);
+            escape('J');
+            Arrays.fill(shown, -1);
+            shownScore = -1;
+            shownMoves = -1;
+            invalid = false;
+        }
+
+        int score = game.getScore();
+        int moves = game.getMoves();
+        if (score != shownScore || moves != shownMoves) {
+            moveTo(HEADER_ROW, 1);
+            ascii("Moves: ");
+            number(moves);
+            ascii("   Score: ");
+            number(score);
+            escape('K');
+            shownScore = score;
+            shownMoves = moves;
+        }
+
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                int value = game.getValueAt(x, y);
+                int cell = y * size + x;
+                if (value == shown[cell])
+                    continue;
+                moveTo(FIRST_BOARD_ROW + y, 1 + x * CELL_WIDTH);
+                int start = length;
+                if (value == 0)
+                    buffer[length++] = '.';
+                else
+                    number(value);
+                while (length - start < CELL_WIDTH)
+                    buffer[length++] = ' ';
+                shown[cell] = value;
+            }
+        }
+        buffer[length++] = ESC;
+        buffer[length++] = '8';
+        flush();
+    }
+
+    private void moveTo(int row, int column) {
+        buffer[length++] = ESC;
+        buffer[length++] = '[';
+        number(row);
+        buffer[length++] = ';';
+        number(column);
+        buffer[length++] = 'H';
+    }
+
+    private void escape(char command) {
+        buffer[length++] = ESC;
+        buffer[length++] = '[';
+        buffer[length++] = (byte) command;
+    }
+
+    private void ascii(String text) {
+        for (int i = 0; i < text.length(); i++)
+            buffer[length++] = (byte) text.charAt(i);
+    }
+
+    private void number(int value) {
+        if (value < 0) {
+            buffer[length++] = '-';
+            value = -value;
+        }
+        int digits = 1;
+        for (int rest = value / 10; rest != 0; rest /= 10)
+            digits++;
+        for (int i = length + digits - 1; i >= length; i--) {
+            buffer[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        length += digits;
+    }
+
+    private void flush() {
+        try {
+            out.write(buffer, 0, length);
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package spw4.game2048;
+
+/**
+ * Decides where new tiles appear and what they are worth. Each {@link Game} instance owns its spawner.
+ * <p>
+ * Cells are numbered {@code y * size + x}. For every spawn the game calls {@link #nextCell} and then {@link #nextValue}.
+ */
+public interface TileSpawner {
+    /**
+     * Returns the cell of the next tile. Bit {@code i % 64} of {@code emptyCells[i / 64]} is set if cell {@code i}
+     * is empty, {@code emptyCount > 0} bits are set in total. The array must not be modified or kept.
+     */
+    int nextCell(long[] emptyCells, int emptyCount, int size);
+
+    /**
+     * Returns the value of the next tile, 2 or 4.
+     */
+    int nextValue();
+
+    /**
+     * Returns the state of the random source, for {@link Game#snapshot()}.
+     */
+    long saveState();
+
+    /**
+     * Continues with a state previously returned by {@link #saveState()}.
+     */
+    void restoreState(long state);
+}
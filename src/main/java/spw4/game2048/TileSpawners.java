@@ -0,0 +1,55 @@
+package spw4.game2048;
+
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * Factories for the standard {@link TileSpawner}s. All of them place a 4 with probability 1/10, otherwise a 2.
+ */
+public final class TileSpawners {
+    private TileSpawners() {
+    }
+
+    /**
+     * Picks uniformly among the empty cells with a single draw from {@code random}.
+     */
+    public static TileSpawner uniform(ReplayableRandom random) {
+        return new UniformTileSpawner(random);
+    }
+
+    /**
+     * Uniform spawner whose sequence of tiles is fully determined by {@code seed}.
+     */
+    public static TileSpawner seeded(long seed) {
+        return new UniformTileSpawner(new SplitMixRandom(seed));
+    }
+
+    /**
+     * Uniform spawner with a seed of its own, for games that need not be reproducible.
+     */
+    public static TileSpawner unseeded() {
+        return seeded(new SplittableRandom().nextLong());
+    }
+
+    /**
+     * Draws a row and a column from {@code random} until they hit an empty cell, as the original game did.
+     */
+    public static TileSpawner rejectionSampling(ReplayableRandom random) {
+        return new RejectionSamplingTileSpawner(random);
+    }
+
+    /**
+     * Rejection-sampling spawner whose sequence of tiles is fully determined by {@code seed}.
+     */
+    public static TileSpawner rejectionSampling(long seed) {
+        return new RejectionSamplingTileSpawner(new SplitMixRandom(seed));
+    }
+
+    static boolean isEmpty(long[] emptyCells, int cell) {
+        return (emptyCells[cell >>> 6] & (1L << cell)) != 0;
+    }
+
+    static int nextValue(RandomGenerator random) {
+        return random.nextInt(10) == 0 ? 4 : 2;
+    }
+}
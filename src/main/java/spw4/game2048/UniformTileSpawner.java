@@ -0,0 +1,76 @@
+package spw4.game2048;
+
+/**
+ * Chooses the {@code k}-th empty cell for a uniformly drawn {@code k}, found by rank selection on the empty mask.
+ */
+public class UniformTileSpawner implements TileSpawner {
+    private static final byte[] SELECT_IN_BYTE = new byte[256 * 8];
+
+    static {
+        for (int value = 0; value < 256; value++) {
+            int rank = 0;
+            for (int bit = 0; bit < 8; bit++) {
+                if ((value & (1 << bit)) != 0)
+                    SELECT_IN_BYTE[value * 8 + rank++] = (byte) bit;
+            }
+        }
+    }
+
+    private final ReplayableRandom random;
+
+    public UniformTileSpawner(ReplayableRandom random) {
+        this.random = random;
+    }
+
+    @Override
+    public int nextCell(long[] emptyCells, int emptyCount, int size) {
+        int rank = random.nextInt(emptyCount);
+        for (int i = 0; ; i++) {
+            int count = Long.bitCount(emptyCells[i]);
+            if (rank < count)
+                return i * 64 + select(emptyCells[i], rank);
+            rank -= count;
+        }
+    }
+
+    @Override
+    public int nextValue() {
+        return TileSpawners.nextValue(random);
+    }
+
+    @Override
+    public long saveState() {
+        return random.saveState();
+    }
+
+    @Override
+    public void restoreState(long state) {
+        random.restoreState(state);
+    }
+
+    /**
+     * Returns the position of the {@code rank}-th (0-based) set bit of {@code word}.
+     */
+    static int select(long word, int rank) {
+        int base = 0;
+        int count = Long.bitCount(word & 0xFFFFFFFFL);
+        if (rank >= count) {
+            rank -= count;
+            word >>>= 32;
+            base += 32;
+        }
+        count = Long.bitCount(word & 0xFFFFL);
+        if (rank >= count) {
+            rank -= count;
+            word >>>= 16;
+            base += 16;
+        }
+        count = Long.bitCount(word & 0xFFL);
+        if (rank >= count) {
+            rank -= count;
+            word >>>= 8;
+            base += 8;
+        }
+        return base + SELECT_IN_BYTE[(int) (word & 0xFF) * 8 + rank];
+    }
+}
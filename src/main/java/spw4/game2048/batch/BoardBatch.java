@@ -0,0 +1,137 @@
+package spw4.game2048.batch;
+
+import spw4.game2048.Bitboards;
+import spw4.game2048.Direction;
+
+/**
+ * Many independent 4x4 boards stored as structure of arrays: one {@code int[]} of exponents per cell,
+ * indexed by board. {@link #moveAll} applies the same direction to every board with the rules of
+ * {@link spw4.game2048.GameImpl#move}, without spawning tiles, and records per board the score gained
+ * and whether anything moved.
+ * <p>
+ * Uses the Vector API when the JVM runs with {@code --add-modules jdk.incubator.vector}, otherwise a scalar loop.
+ */
+public class BoardBatch {
+    public static final int SIZE = Bitboards.SIZE;
+
+    /**
+     * Cells of each line in the order tiles slide through them, per {@link Direction#ordinal()}.
+     */
+    static final int[][][] LINES = new int[Direction.values().length][SIZE][SIZE];
+
+    private static final MoveKernel KERNEL = createKernel();
+
+    static {
+        for (int line = 0; line < SIZE; line++) {
+            for (int i = 0; i < SIZE; i++) {
+                LINES[Direction.left.ordinal()][line][i] = line * SIZE + i;
+                LINES[Direction.right.ordinal()][line][i] = line * SIZE + SIZE - 1 - i;
+                LINES[Direction.up.ordinal()][line][i] = i * SIZE + line;
+                LINES[Direction.down.ordinal()][line][i] = (SIZE - 1 - i) * SIZE + line;
+            }
+        }
+    }
+
+    private final int[][] cells;
+    private final int[] scoreDeltas;
+    private final boolean[] moved;
+    private final MoveKernel kernel;
+
+    public BoardBatch(int capacity) {
+        this(capacity, KERNEL);
+    }
+
+    BoardBatch(int capacity, MoveKernel kernel) {
+        cells = new int[SIZE * SIZE][capacity];
+        scoreDeltas = new int[capacity];
+        moved = new boolean[capacity];
+        this.kernel = kernel;
+    }
+
+    public static boolean isVectorized() {
+        return !(KERNEL instanceof ScalarMoveKernel);
+    }
+
+    public int capacity() {
+        return scoreDeltas.length;
+    }
+
+    public int getValueAt(int board, int x, int y) {
+        int exponent = cells[y * SIZE + x][board];
+        return exponent == 0 ? 0 : 1 << exponent;
+    }
+
+    public void setValueAt(int board, int x, int y, int value) {
+        if (value != 0 && (value < 2 || Integer.bitCount(value) != 1))
+            throw new IllegalArgumentException("Not a tile value: " + value);
+        cells[y * SIZE + x][board] = value == 0 ? 0 : Integer.numberOfTrailingZeros(value);
+    }
+
+    /**
+     * Loads a board packed as described in {@link Bitboards}.
+     */
+    public void setBoard(int board, long packed) {
+        for (int cell = 0; cell < SIZE * SIZE; cell++) {
+            cells[cell][board] = (int) (packed >>> (4 * cell)) & 0xF;
+        }
+    }
+
+    /**
+     * Returns the board packed as described in {@link Bitboards}; tiles above 32768 are capped.
+     */
+    public long getBoard(int board) {
+        long packed = 0;
+        for (int cell = 0; cell < SIZE * SIZE; cell++) {
+            packed |= (long) Math.min(cells[cell][board], Bitboards.MAX_EXPONENT) << (4 * cell);
+        }
+        return packed;
+    }
+
+    /**
+     * Overwrites the first {@code count} boards with those of {@code source}.
+     */
+    public void copyFrom(BoardBatch source, int count) {
+        for (int cell = 0; cell < SIZE * SIZE; cell++) {
+            System.arraycopy(source.cells[cell], 0, cells[cell], 0, count);
+        }
+    }
+
+    public void moveAll(Direction direction) {
+        moveAll(direction, capacity());
+    }
+
+    /**
+     * Moves the first {@code count} boards.
+     */
+    public void moveAll(Direction direction, int count) {
+        if (count < 0 || count > capacity())
+            throw new IndexOutOfBoundsException(count);
+        kernel.move(cells, count, direction, scoreDeltas, moved);
+    }
+
+    /**
+     * Score gained by {@code board} in the last {@link #moveAll}.
+     */
+    public int getScoreDelta(int board) {
+        return scoreDeltas[board];
+    }
+
+    /**
+     * Whether the last {@link #moveAll} changed {@code board}.
+     */
+    public boolean hasMoved(int board) {
+        return moved[board];
+    }
+
+    private static MoveKernel createKernel() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            try {
+                return (MoveKernel) Class.forName("spw4.game2048.batch.VectorMoveKernel")
+                        .getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                return new ScalarMoveKernel();
+            }
+        }
+        return new ScalarMoveKernel();
+    }
+}
@@ -0,0 +1,11 @@
+package spw4.game2048.batch;
+
+import spw4.game2048.Direction;
+
+/**
+ * Applies one move to the first {@code count} boards of a {@link BoardBatch}.
+ * {@code cells[i][b]} is the exponent in cell {@code i = y * 4 + x} of board {@code b}.
+ */
+interface MoveKernel {
+    void move(int[][] cells, int count, Direction direction, int[] scoreDeltas, boolean[] moved);
+}
@@ -0,0 +1,73 @@
+package spw4.game2048.batch;
+
+import spw4.game2048.Direction;
+
+/**
+ * One board at a time, the reference for {@link VectorMoveKernel} and the fallback when the
+ * {@code jdk.incubator.vector} module is not available.
+ */
+class ScalarMoveKernel implements MoveKernel {
+    @Override
+    public void move(int[][] cells, int count, Direction direction, int[] scoreDeltas, boolean[] moved) {
+        move(cells, 0, count, direction, scoreDeltas, moved);
+    }
+
+    void move(int[][] cells, int from, int to, Direction direction, int[] scoreDeltas, boolean[] moved) {
+        int[][] lines = BoardBatch.LINES[direction.ordinal()];
+        for (int board = from; board < to; board++) {
+            int score = 0;
+            boolean changed = false;
+            for (int[] line : lines) {
+                int[] first = cells[line[0]];
+                int[] second = cells[line[1]];
+                int[] third = cells[line[2]];
+                int[] fourth = cells[line[3]];
+                int a = first[board];
+                int b = second[board];
+                int c = third[board];
+                int d = fourth[board];
+
+                for (int pass = 0; pass < 3; pass++) {
+                    if (a == 0) {
+                        a = b;
+                        b = 0;
+                    }
+                    if (b == 0) {
+                        b = c;
+                        c = 0;
+                    }
+                    if (c == 0) {
+                        c = d;
+                        d = 0;
+                    }
+                }
+                if (a != 0 && a == b) {
+                    a++;
+                    score += 1 << a;
+                    b = c;
+                    c = d;
+                    d = 0;
+                }
+                if (b != 0 && b == c) {
+                    b++;
+                    score += 1 << b;
+                    c = d;
+                    d = 0;
+                }
+                if (c != 0 && c == d) {
+                    c++;
+                    score += 1 << c;
+                    d = 0;
+                }
+
+                changed |= a != first[board] || b != second[board] || c != third[board] || d != fourth[board];
+                first[board] = a;
+                second[board] = b;
+                third[board] = c;
+                fourth[board] = d;
+            }
+            scoreDeltas[board] = score;
+            moved[board] = changed;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package spw4.game2048.batch;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+import spw4.game2048.Direction;
+
+/**
+ * Moves as many boards per instruction as the preferred vector shape holds. Every line is compacted
+ * with three bubble passes and merged front to back with lane masks, so there are no per-board branches.
+ * Only loaded through {@link BoardBatch} when {@code jdk.incubator.vector} is in the boot layer.
+ */
+class VectorMoveKernel implements MoveKernel {
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+    private final ScalarMoveKernel tail = new ScalarMoveKernel();
+
+    @Override
+    public void move(int[][] cells, int count, Direction direction, int[] scoreDeltas, boolean[] moved) {
+        int[][] lines = BoardBatch.LINES[direction.ordinal()];
+        IntVector zero = IntVector.zero(SPECIES);
+        IntVector one = IntVector.broadcast(SPECIES, 1);
+        int bound = SPECIES.loopBound(count);
+
+        for (int board = 0; board < bound; board += SPECIES.length()) {
+            IntVector score = zero;
+            VectorMask<Integer> changed = SPECIES.maskAll(false);
+            for (int[] line : lines) {
+                IntVector oa = IntVector.fromArray(SPECIES, cells[line[0]], board);
+                IntVector ob = IntVector.fromArray(SPECIES, cells[line[1]], board);
+                IntVector oc = IntVector.fromArray(SPECIES, cells[line[2]], board);
+                IntVector od = IntVector.fromArray(SPECIES, cells[line[3]], board);
+                IntVector a = oa;
+                IntVector b = ob;
+                IntVector c = oc;
+                IntVector d = od;
+
+                for (int pass = 0; pass < 3; pass++) {
+                    VectorMask<Integer> empty = a.eq(0);
+                    a = a.blend(b, empty);
+                    b = b.blend(zero, empty);
+                    empty = b.eq(0);
+                    b = b.blend(c, empty);
+                    c = c.blend(zero, empty);
+                    empty = c.eq(0);
+                    c = c.blend(d, empty);
+                    d = d.blend(zero, empty);
+                }
+
+                VectorMask<Integer> merge = a.compare(VectorOperators.NE, 0).and(a.eq(b));
+                a = a.add(1, merge);
+                score = score.add(one.lanewise(VectorOperators.LSHL, a), merge);
+                b = b.blend(c, merge);
+                c = c.blend(d, merge);
+                d = d.blend(zero, merge);
+
+                merge = b.compare(VectorOperators.NE, 0).and(b.eq(c));
+                b = b.add(1, merge);
+                score = score.add(one.lanewise(VectorOperators.LSHL, b), merge);
+                c = c.blend(d, merge);
+                d = d.blend(zero, merge);
+
+                merge = c.compare(VectorOperators.NE, 0).and(c.eq(d));
+                c = c.add(1, merge);
+                score = score.add(one.lanewise(VectorOperators.LSHL, c), merge);
+                d = d.blend(zero, merge);
+
+                changed = changed.or(a.compare(VectorOperators.NE, oa))
+                        .or(b.compare(VectorOperators.NE, ob))
+                        .or(c.compare(VectorOperators.NE, oc))
+                        .or(d.compare(VectorOperators.NE, od));
+                a.intoArray(cells[line[0]], board);
+                b.intoArray(cells[line[1]], board);
+                c.intoArray(cells[line[2]], board);
+                d.intoArray(cells[line[3]], board);
+            }
+            score.intoArray(scoreDeltas, board);
+            changed.intoArray(moved, board);
+        }
+
+        tail.move(cells, bound, count, direction, scoreDeltas, moved);
+    }
+}
@@ -0,0 +1,25 @@
+package spw4.game2048.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Two tiles merged into one. Off unless enabled in the recording settings, since there can be several per move.
+ * While enabled, 4x4 games move tile by tile instead of through the row tables, so their moves get slower.
+ */
+@Name("spw4.game2048.Merge")
+@Label("Merge")
+@Category("2048")
+@StackTrace(false)
+@Enabled(false)
+public class MergeEvent extends Event {
+    @Label("Value")
+    public int value;
+
+    @Label("Cell")
+    public int cell;
+}
@@ -0,0 +1,37 @@
+package spw4.game2048.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * One call of {@code Game.move}, including the tile spawned after it.
+ */
+@Name("spw4.game2048.Move")
+@Label("Move")
+@Category("2048")
+@Description("A move, including the tile it spawned")
+@StackTrace(false)
+@Threshold("20 us")
+public class MoveEvent extends Event {
+    @Label("Direction")
+    public String direction;
+
+    @Label("Moved")
+    @Description("Whether the move changed the board")
+    public boolean moved;
+
+    @Label("Score Delta")
+    public int scoreDelta;
+
+    @Label("Merges")
+    public int merges;
+
+    @Label("Board")
+    @Description("Tile values after the move and the tile it spawned, row by row")
+    public String board;
+}
@@ -0,0 +1,32 @@
+package spw4.game2048.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * One call of {@code Game.placeRandomTile}.
+ */
+@Name("spw4.game2048.Spawn")
+@Label("Spawn")
+@Category("2048")
+@StackTrace(false)
+@Threshold("20 us")
+public class SpawnEvent extends Event {
+    @Label("Cell")
+    public int cell;
+
+    @Label("Value")
+    public int value;
+
+    @Label("Empty Cells")
+    public int emptyCells;
+
+    @Label("Attempts")
+    @Description("Cells drawn until an empty one was found")
+    public long attempts;
+}
@@ -0,0 +1,189 @@
+package spw4.game2048.metrics;
+
+import spw4.game2048.Game;
+import spw4.game2048.TileSpawner;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters and latency histograms shared by any number of {@link InstrumentedGame}s and
+ * {@link InstrumentedTileSpawner}s, safe to update from many threads.
+ * <p>
+ * Instrumentation is opt-in: {@link #instrument(Game)} and {@link #instrument(TileSpawner)} return their argument
+ * unchanged unless the system property {@code game2048.metrics} is set, so uninstrumented hot loops keep calling
+ * the concrete game directly. When enabled, the {@link #global()} metrics are registered with JMX under the name
+ * {@code global}, and setting {@code game2048.metrics.dumpSeconds} also prints them to standard error at that period.
+ */
+public class GameMetrics implements GameMetricsMXBean {
+    public static final boolean ENABLED = Boolean.getBoolean("game2048.metrics");
+
+    private static final GameMetrics GLOBAL = new GameMetrics();
+
+    static {
+        if (ENABLED) {
+            GLOBAL.registerMBean("global");
+            long dumpSeconds = Long.getLong("game2048.metrics.dumpSeconds", 0);
+            if (dumpSeconds > 0)
+                new MetricsReporter(GLOBAL, System.err, dumpSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    final LongAdder moveCalls = new LongAdder();
+    final LongAdder effectiveMoves = new LongAdder();
+    final LongAdder isOverCalls = new LongAdder();
+    final LongAdder spawns = new LongAdder();
+    final LongAdder spawnAttempts = new LongAdder();
+    final LatencyHistogram moveLatency = new LatencyHistogram();
+    final LatencyHistogram isOverLatency = new LatencyHistogram();
+    final LatencyHistogram spawnLatency = new LatencyHistogram();
+
+    /**
+     * Metrics the {@code instrument} methods report to.
+     */
+    public static GameMetrics global() {
+        return GLOBAL;
+    }
+
+    public static Game instrument(Game game) {
+        return ENABLED ? new InstrumentedGame(game, GLOBAL) : game;
+    }
+
+    public static TileSpawner instrument(TileSpawner spawner) {
+        return ENABLED ? new InstrumentedTileSpawner(spawner, GLOBAL) : spawner;
+    }
+
+    @Override
+    public long getMoveCalls() {
+        return moveCalls.sum();
+    }
+
+    @Override
+    public long getEffectiveMoves() {
+        return effectiveMoves.sum();
+    }
+
+    @Override
+    public long getIsOverCalls() {
+        return isOverCalls.sum();
+    }
+
+    @Override
+    public long getSpawns() {
+        return spawns.sum();
+    }
+
+    /**
+     * Cells drawn by instrumented spawners; above {@link #getSpawns()} when rejection sampling had to retry.
+     */
+    @Override
+    public long getSpawnAttempts() {
+        return spawnAttempts.sum();
+    }
+
+    @Override
+    public double getMeanSpawnAttempts() {
+        long n = spawns.sum();
+        return n == 0 ? 0 : spawnAttempts.sum() / (double) n;
+    }
+
+    @Override
+    public double getMoveLatencyMean() {
+        return moveLatency.getMean();
+    }
+
+    @Override
+    public long getMoveLatencyP50() {
+        return moveLatency.getValueAtQuantile(0.5);
+    }
+
+    @Override
+    public long getMoveLatencyP99() {
+        return moveLatency.getValueAtQuantile(0.99);
+    }
+
+    @Override
+    public long getMoveLatencyMax() {
+        return moveLatency.getMax();
+    }
+
+    @Override
+    public long getIsOverLatencyP99() {
+        return isOverLatency.getValueAtQuantile(0.99);
+    }
+
+    @Override
+    public long getSpawnLatencyP99() {
+        return spawnLatency.getValueAtQuantile(0.99);
+    }
+
+    public LatencyHistogram getMoveLatency() {
+        return moveLatency;
+    }
+
+    public LatencyHistogram getIsOverLatency() {
+        return isOverLatency;
+    }
+
+    public LatencyHistogram getSpawnLatency() {
+        return spawnLatency;
+    }
+
+    @Override
+    public void reset() {
+        moveCalls.reset();
+        effectiveMoves.reset();
+        isOverCalls.reset();
+        spawns.reset();
+        spawnAttempts.reset();
+        moveLatency.reset();
+        isOverLatency.reset();
+        spawnLatency.reset();
+    }
+
+    /**
+     * Registers these metrics with the platform MBean server as {@code spw4.game2048:type=GameMetrics,name=<name>}.
+     */
+    public ObjectName registerMBean(String name) {
+        try {
+            var objectName = objectName(name);
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+            return objectName;
+        } catch (InstanceAlreadyExistsException e) {
+            throw new IllegalStateException("Metrics " + name + " are already registered", e);
+        } catch (JMException e) {
+            throw new IllegalStateException("Cannot register metrics " + name, e);
+        }
+    }
+
+    public void unregisterMBean(String name) {
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName(name));
+        } catch (InstanceNotFoundException ignored) {
+        } catch (JMException e) {
+            throw new IllegalStateException("Cannot unregister metrics " + name, e);
+        }
+    }
+
+    private static ObjectName objectName(String name) throws MalformedObjectNameException {
+        return new ObjectName("spw4.game2048:type=GameMetrics,name=" + ObjectName.quote(name));
+    }
+
+    /**
+     * One-line summary for logs, latencies in microseconds.
+     */
+    public String format() {
+        return String.format("moves: %d (%d effective)\tmove p50/p99/max: %.1f/%.1f/%.1f us\t"
+                        + "isOver: %d, p99 %.1f us\tspawns: %d, %.2f attempts each, p99 %.1f us",
+                getMoveCalls(), getEffectiveMoves(),
+                getMoveLatencyP50() / 1e3, getMoveLatencyP99() / 1e3, getMoveLatencyMax() / 1e3,
+                getIsOverCalls(), getIsOverLatencyP99() / 1e3,
+                getSpawns(), getMeanSpawnAttempts(), getSpawnLatencyP99() / 1e3);
+    }
+}
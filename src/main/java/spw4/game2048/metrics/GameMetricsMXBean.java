@@ -0,0 +1,32 @@
+package spw4.game2048.metrics;
+
+/**
+ * JMX view of {@link GameMetrics}. Latencies are in nanoseconds.
+ */
+public interface GameMetricsMXBean {
+    long getMoveCalls();
+
+    long getEffectiveMoves();
+
+    long getIsOverCalls();
+
+    long getSpawns();
+
+    long getSpawnAttempts();
+
+    double getMeanSpawnAttempts();
+
+    double getMoveLatencyMean();
+
+    long getMoveLatencyP50();
+
+    long getMoveLatencyP99();
+
+    long getMoveLatencyMax();
+
+    long getIsOverLatencyP99();
+
+    long getSpawnLatencyP99();
+
+    void reset();
+}
@@ -0,0 +1,156 @@
+package spw4.game2048.metrics;
+
+import spw4.game2048.Direction;
+import spw4.game2048.Game;
+import spw4.game2048.GameListener;
+import spw4.game2048.GameSnapshot;
+
+/**
+ * {@link Game} decorator that counts and times {@code move}, {@code isOver} and {@code placeRandomTile}.
+ * Usually created through {@link GameMetrics#instrument(Game)}.
+ */
+public class InstrumentedGame implements Game {
+    private final Game game;
+    private final GameMetrics metrics;
+
+    public InstrumentedGame(Game game, GameMetrics metrics) {
+        this.game = game;
+        this.metrics = metrics;
+    }
+
+    public Game getDelegate() {
+        return game;
+    }
+
+    @Override
+    public void initialize() {
+        game.initialize();
+    }
+
+    @Override
+    public void move(Direction direction) {
+        int moves = game.getMoves();
+        long start = System.nanoTime();
+        game.move(direction);
+        metrics.moveLatency.record(System.nanoTime() - start);
+        metrics.moveCalls.increment();
+        if (game.getMoves() != moves)
+            metrics.effectiveMoves.increment();
+    }
+
+    @Override
+    public int getMoves() {
+        return game.getMoves();
+    }
+
+    @Override
+    public int getScore() {
+        return game.getScore();
+    }
+
+    @Override
+    public int getValueAt(int x, int y) {
+        return game.getValueAt(x, y);
+    }
+
+    @Override
+    public int getExponentAt(int x, int y) {
+        return game.getExponentAt(x, y);
+    }
+
+    @Override
+    public void copyBoard(int[] target) {
+        game.copyBoard(target);
+    }
+
+    @Override
+    public void copyExponents(byte[] target) {
+        game.copyExponents(target);
+    }
+
+    @Override
+    public long packBoard() {
+        return game.packBoard();
+    }
+
+    @Override
+    public void loadBoard(int[] values) {
+        game.loadBoard(values);
+    }
+
+    @Override
+    public void loadBoard(long packed) {
+        game.loadBoard(packed);
+    }
+
+    @Override
+    public void placeTile(int x, int y, int value) {
+        game.placeTile(x, y, value);
+    }
+
+    @Override
+    public boolean isOver() {
+        long start = System.nanoTime();
+        boolean over = game.isOver();
+        metrics.isOverLatency.record(System.nanoTime() - start);
+        metrics.isOverCalls.increment();
+        return over;
+    }
+
+    @Override
+    public int legalMoves() {
+        return game.legalMoves();
+    }
+
+    @Override
+    public int previewMove(Direction direction, int[] target) {
+        return game.previewMove(direction, target);
+    }
+
+    @Override
+    public boolean isWon() {
+        return game.isWon();
+    }
+
+    @Override
+    public int getWinningTile() {
+        return game.getWinningTile();
+    }
+
+    @Override
+    public int getBoardSize() {
+        return game.getBoardSize();
+    }
+
+    @Override
+    public void placeRandomTile() {
+        long start = System.nanoTime();
+        game.placeRandomTile();
+        metrics.spawnLatency.record(System.nanoTime() - start);
+    }
+
+    @Override
+    public GameSnapshot snapshot() {
+        return game.snapshot();
+    }
+
+    @Override
+    public void restore(GameSnapshot snapshot) {
+        game.restore(snapshot);
+    }
+
+    @Override
+    public void addListener(GameListener listener) {
+        game.addListener(listener);
+    }
+
+    @Override
+    public void removeListener(GameListener listener) {
+        game.removeListener(listener);
+    }
+
+    @Override
+    public String toString() {
+        return game.toString();
+    }
+}
@@ -0,0 +1,49 @@
+package spw4.game2048.metrics;
+
+import spw4.game2048.RejectionSamplingTileSpawner;
+import spw4.game2048.TileSpawner;
+
+/**
+ * {@link TileSpawner} decorator that counts spawns and the cells drawn for them. Rejection sampling reports every
+ * retry; other spawners pick a cell with a single draw.
+ */
+public class InstrumentedTileSpawner implements TileSpawner {
+    private final TileSpawner spawner;
+    private final GameMetrics metrics;
+    private final RejectionSamplingTileSpawner rejectionSampling;
+
+    public InstrumentedTileSpawner(TileSpawner spawner, GameMetrics metrics) {
+        this.spawner = spawner;
+        this.metrics = metrics;
+        rejectionSampling = spawner instanceof RejectionSamplingTileSpawner r ? r : null;
+    }
+
+    @Override
+    public int nextCell(long[] emptyCells, int emptyCount, int size) {
+        if (rejectionSampling == null) {
+            metrics.spawnAttempts.increment();
+            metrics.spawns.increment();
+            return spawner.nextCell(emptyCells, emptyCount, size);
+        }
+        long draws = rejectionSampling.getCellDraws();
+        int cell = rejectionSampling.nextCell(emptyCells, emptyCount, size);
+        metrics.spawnAttempts.add(rejectionSampling.getCellDraws() - draws);
+        metrics.spawns.increment();
+        return cell;
+    }
+
+    @Override
+    public int nextValue() {
+        return spawner.nextValue();
+    }
+
+    @Override
+    public long saveState() {
+        return spawner.saveState();
+    }
+
+    @Override
+    public void restoreState(long state) {
+        spawner.restoreState(state);
+    }
+}
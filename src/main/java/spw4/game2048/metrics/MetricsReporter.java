@@ -0,0 +1,27 @@
+package spw4.game2048.metrics;
+
+import java.io.PrintStream;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Prints {@link GameMetrics#format()} at a fixed period on a daemon thread until closed.
+ */
+public class MetricsReporter implements AutoCloseable {
+    private final ScheduledExecutorService executor;
+
+    public MetricsReporter(GameMetrics metrics, PrintStream out, long period, TimeUnit unit) {
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            var thread = new Thread(runnable, "game-metrics-reporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleAtFixedRate(() -> out.println(metrics.format()), period, period, unit);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
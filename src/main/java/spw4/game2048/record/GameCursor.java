@@ -0,0 +1,140 @@
+package spw4.game2048.record;
+
+import spw4.game2048.Bitboards;
+import spw4.game2048.Direction;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.util.NoSuchElementException;
+
+import static spw4.game2048.record.GameRecordFormat.*;
+
+/**
+ * Walks the games of a {@link GameRecordReader}. The accessors read straight from the mapped file;
+ * nothing is copied or allocated per game or per move.
+ */
+public class GameCursor {
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private final GameRecordReader reader;
+    private MappedByteBuffer block;
+    private int blockIndex = -1;
+    private int gameInBlock;
+    private int next;
+
+    private int gameStart = -1;
+    private long initialBoard;
+    private int moves;
+    private int directionsStart;
+    private int spawnsStart;
+
+    GameCursor(GameRecordReader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Advances to the next game. Returns {@code false} when there is none left.
+     */
+    public boolean next() throws IOException {
+        while (block == null || gameInBlock == reader.gamesIn(blockIndex)) {
+            if (blockIndex + 1 >= reader.getBlocks())
+                return false;
+            enterBlock(blockIndex + 1);
+        }
+        gameStart = next;
+        initialBoard = block.getLong(gameStart);
+        moves = block.getInt(gameStart + 8);
+        directionsStart = gameStart + GAME_HEADER_BYTES;
+        spawnsStart = directionsStart + directionBytes(moves);
+        next = spawnsStart + moves;
+        gameInBlock++;
+        return true;
+    }
+
+    /**
+     * Number of the current game in the file.
+     */
+    public long gameNumber() {
+        checkGame();
+        return reader.firstGame(blockIndex) + gameInBlock - 1;
+    }
+
+    public long initialBoard() {
+        checkGame();
+        return initialBoard;
+    }
+
+    public int moveCount() {
+        checkGame();
+        return moves;
+    }
+
+    public Direction direction(int move) {
+        checkMove(move);
+        return DIRECTIONS[(block.get(directionsStart + (move >>> 2)) >>> ((move & 3) * 2)) & 3];
+    }
+
+    public int spawnCell(int move) {
+        checkMove(move);
+        return block.get(spawnsStart + move) & 0xF;
+    }
+
+    public int spawnValue(int move) {
+        checkMove(move);
+        return (block.get(spawnsStart + move) & SPAWN_FOUR) != 0 ? 4 : 2;
+    }
+
+    /**
+     * Replays the first {@code moves} moves of the current game and returns the packed board.
+     */
+    public long boardAfter(int moves) {
+        checkGame();
+        if (moves < 0 || moves > this.moves)
+            throw new IndexOutOfBoundsException(moves);
+        long board = initialBoard;
+        for (int move = 0; move < moves; move++) {
+            board = Bitboards.move(board, direction(move));
+            board |= (long) (spawnValue(move) == 4 ? 2 : 1) << (4 * spawnCell(move));
+        }
+        return board;
+    }
+
+    public long finalBoard() {
+        return boardAfter(moveCount());
+    }
+
+    void seek(long game) throws IOException {
+        if (game < 0 || game > reader.getGames())
+            throw new IndexOutOfBoundsException("Game " + game + " of " + reader.getGames());
+        if (game == reader.getGames()) {
+            blockIndex = reader.getBlocks() - 1;
+            block = null;
+            return;
+        }
+        enterBlock(reader.blockOf(game));
+        long skip = game - reader.firstGame(blockIndex);
+        for (long i = 0; i < skip; i++) {
+            next += GAME_HEADER_BYTES + directionBytes(block.getInt(next + 8)) + block.getInt(next + 8);
+            gameInBlock++;
+        }
+    }
+
+    private void enterBlock(int index) throws IOException {
+        blockIndex = index;
+        block = reader.mapBlock(index);
+        gameInBlock = 0;
+        next = 0;
+        gameStart = -1;
+    }
+
+    private void checkGame() {
+        if (gameStart < 0)
+            throw new NoSuchElementException("Call next() first");
+    }
+
+    private void checkMove(int move) {
+        checkGame();
+        if (move < 0 || move >= moves)
+            throw new IndexOutOfBoundsException(move);
+    }
+}
@@ -0,0 +1,33 @@
+package spw4.game2048.record;
+
+import java.nio.ByteOrder;
+
+/**
+ * Layout of a game record file. All numbers are little-endian.
+ * <pre>
+ * header   int magic, short version, byte board size, byte reserved, int games per block, int reserved
+ * game     long initial board (see spw4.game2048.Bitboards), int move count n,
+ *          ceil(n / 4) bytes directions (2 bits each, first move in the lowest bits),
+ *          n bytes spawns (bits 0-3 cell y * 4 + x, bit 4 set for a 4, clear for a 2)
+ * index    int block count, per block: long file offset, long first game, int games
+ * trailer  long index offset, int magic
+ * </pre>
+ * Only moves that changed the board are recorded, each is followed by exactly one spawn.
+ */
+final class GameRecordFormat {
+    static final int MAGIC = 0x32303438;
+    static final short VERSION = 1;
+    static final int HEADER_BYTES = 16;
+    static final int GAME_HEADER_BYTES = 12;
+    static final int INDEX_ENTRY_BYTES = 20;
+    static final int TRAILER_BYTES = 12;
+    static final int SPAWN_FOUR = 0x10;
+    static final ByteOrder ORDER = ByteOrder.LITTLE_ENDIAN;
+
+    private GameRecordFormat() {
+    }
+
+    static int directionBytes(int moves) {
+        return (moves + 3) >>> 2;
+    }
+}
@@ -0,0 +1,120 @@
+package spw4.game2048.record;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static spw4.game2048.record.GameRecordFormat.*;
+
+/**
+ * Reads a record file written by {@link GameRecordWriter}. Blocks are memory-mapped one at a time
+ * when a {@link GameCursor} reaches them, so scanning an archive keeps only the index on the heap.
+ */
+public class GameRecordReader implements Closeable {
+    private final FileChannel channel;
+    private final long[] blockOffsets;
+    private final long[] blockEnds;
+    private final long[] firstGames;
+    private final int[] blockGames;
+    private final long games;
+
+    public GameRecordReader(Path path) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            if (size < HEADER_BYTES + 4 + TRAILER_BYTES)
+                throw new IOException("Not a game record file: " + path);
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES).order(ORDER);
+            if (header.getInt() != MAGIC || header.getShort() != VERSION)
+                throw new IOException("Not a game record file: " + path);
+
+            ByteBuffer trailer = channel.map(FileChannel.MapMode.READ_ONLY, size - TRAILER_BYTES, TRAILER_BYTES).order(ORDER);
+            long indexOffset = trailer.getLong();
+            if (trailer.getInt() != MAGIC)
+                throw new IOException("Missing index, file was not closed properly: " + path);
+
+            ByteBuffer index = channel.map(FileChannel.MapMode.READ_ONLY, indexOffset, size - TRAILER_BYTES - indexOffset)
+                    .order(ORDER);
+            int blocks = index.getInt();
+            blockOffsets = new long[blocks];
+            blockEnds = new long[blocks];
+            firstGames = new long[blocks];
+            blockGames = new int[blocks];
+            long total = 0;
+            for (int block = 0; block < blocks; block++) {
+                blockOffsets[block] = index.getLong();
+                firstGames[block] = index.getLong();
+                blockGames[block] = index.getInt();
+                total += blockGames[block];
+            }
+            for (int block = 0; block < blocks; block++) {
+                blockEnds[block] = block + 1 < blocks ? blockOffsets[block + 1] : indexOffset;
+            }
+            games = total;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public long getGames() {
+        return games;
+    }
+
+    public int getBlocks() {
+        return blockOffsets.length;
+    }
+
+    /**
+     * Returns a cursor positioned before the first game.
+     */
+    public GameCursor cursor() {
+        return new GameCursor(this);
+    }
+
+    /**
+     * Returns a cursor positioned before game {@code game}, found through the block index.
+     */
+    public GameCursor cursor(long game) throws IOException {
+        var cursor = new GameCursor(this);
+        cursor.seek(game);
+        return cursor;
+    }
+
+    int blockOf(long game) {
+        int low = 0;
+        int high = firstGames.length - 1;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (firstGames[middle] <= game)
+                low = middle;
+            else
+                high = middle - 1;
+        }
+        return low;
+    }
+
+    long firstGame(int block) {
+        return firstGames[block];
+    }
+
+    int gamesIn(int block) {
+        return blockGames[block];
+    }
+
+    MappedByteBuffer mapBlock(int block) throws IOException {
+        MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, blockOffsets[block],
+                blockEnds[block] - blockOffsets[block]);
+        mapped.order(ORDER);
+        return mapped;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,139 @@
+package spw4.game2048.record;
+
+import spw4.game2048.Direction;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import static spw4.game2048.record.GameRecordFormat.*;
+
+/**
+ * Appends games to a record file, see {@link GameRecordFormat}. Moves go into reused buffers,
+ * so recording allocates nothing per move once the buffers have grown to the longest game.
+ */
+public class GameRecordWriter implements Closeable {
+    public static final int DEFAULT_GAMES_PER_BLOCK = 1024;
+
+    private final FileChannel channel;
+    private final int gamesPerBlock;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20).order(ORDER);
+
+    private long position;
+    private long games;
+    private long[] blockOffsets = new long[16];
+    private int blocks;
+
+    private boolean inGame;
+    private long initialBoard;
+    private int moves;
+    private byte[] directions = new byte[256];
+    private byte[] spawns = new byte[1024];
+
+    public GameRecordWriter(Path path) throws IOException {
+        this(path, DEFAULT_GAMES_PER_BLOCK);
+    }
+
+    public GameRecordWriter(Path path, int gamesPerBlock) throws IOException {
+        if (gamesPerBlock < 1)
+            throw new IllegalArgumentException("gamesPerBlock must be positive");
+        this.gamesPerBlock = gamesPerBlock;
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        buffer.putInt(MAGIC).putShort(VERSION).put((byte) 4).put((byte) 0).putInt(gamesPerBlock).putInt(0);
+    }
+
+    public void beginGame(long initialBoard) {
+        if (inGame)
+            throw new IllegalStateException("Previous game not ended");
+        inGame = true;
+        this.initialBoard = initialBoard;
+        moves = 0;
+    }
+
+    /**
+     * Records a move that changed the board and the tile spawned after it.
+     *
+     * @param spawnCell  cell {@code y * 4 + x} of the new tile
+     * @param spawnValue 2 or 4
+     */
+    public void recordMove(Direction direction, int spawnCell, int spawnValue) {
+        if (!inGame)
+            throw new IllegalStateException("No game started");
+        if (moves == spawns.length) {
+            spawns = Arrays.copyOf(spawns, moves * 2);
+            directions = Arrays.copyOf(directions, spawns.length / 4);
+        }
+        int shift = (moves & 3) * 2;
+        int index = moves >>> 2;
+        directions[index] = (byte) ((shift == 0 ? 0 : directions[index]) | direction.ordinal() << shift);
+        spawns[moves] = (byte) (spawnCell | (spawnValue == 4 ? SPAWN_FOUR : 0));
+        moves++;
+    }
+
+    public void endGame() throws IOException {
+        if (!inGame)
+            throw new IllegalStateException("No game started");
+        inGame = false;
+        if (games % gamesPerBlock == 0) {
+            if (blocks == blockOffsets.length)
+                blockOffsets = Arrays.copyOf(blockOffsets, blocks * 2);
+            blockOffsets[blocks++] = position + buffer.position();
+        }
+        ensureRoom(GAME_HEADER_BYTES);
+        buffer.putLong(initialBoard).putInt(moves);
+        write(directions, directionBytes(moves));
+        write(spawns, moves);
+        games++;
+    }
+
+    public long getGames() {
+        return games;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (inGame)
+            endGame();
+        long indexOffset = position + buffer.position();
+        ensureRoom(4);
+        buffer.putInt(blocks);
+        for (int block = 0; block < blocks; block++) {
+            long firstGame = (long) block * gamesPerBlock;
+            ensureRoom(INDEX_ENTRY_BYTES);
+            buffer.putLong(blockOffsets[block]).putLong(firstGame).putInt((int) Math.min(gamesPerBlock, games - firstGame));
+        }
+        ensureRoom(TRAILER_BYTES);
+        buffer.putLong(indexOffset).putInt(MAGIC);
+        flush();
+        channel.close();
+    }
+
+    private void write(byte[] bytes, int length) throws IOException {
+        int offset = 0;
+        while (offset < length) {
+            if (!buffer.hasRemaining())
+                flush();
+            int chunk = Math.min(length - offset, buffer.remaining());
+            buffer.put(bytes, offset, chunk);
+            offset += chunk;
+        }
+    }
+
+    private void ensureRoom(int bytes) throws IOException {
+        if (buffer.remaining() < bytes)
+            flush();
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
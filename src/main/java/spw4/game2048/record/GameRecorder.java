@@ -0,0 +1,67 @@
+package spw4.game2048.record;
+
+import spw4.game2048.Bitboards;
+import spw4.game2048.Direction;
+import spw4.game2048.Game;
+import spw4.game2048.TileSpawner;
+
+import java.io.IOException;
+
+/**
+ * Tile spawner that remembers its last spawn, so moves on a 4x4 game built with it can be written to a
+ * {@link GameRecordWriter} together with the tile that followed them.
+ */
+public class GameRecorder implements TileSpawner {
+    private final TileSpawner delegate;
+    private final GameRecordWriter writer;
+    private int lastCell;
+    private int lastValue;
+
+    public GameRecorder(TileSpawner delegate, GameRecordWriter writer) {
+        this.delegate = delegate;
+        this.writer = writer;
+    }
+
+    @Override
+    public int nextCell(long[] emptyCells, int emptyCount, int size) {
+        lastCell = delegate.nextCell(emptyCells, emptyCount, size);
+        return lastCell;
+    }
+
+    @Override
+    public int nextValue() {
+        lastValue = delegate.nextValue();
+        return lastValue;
+    }
+
+    @Override
+    public long saveState() {
+        return delegate.saveState();
+    }
+
+    @Override
+    public void restoreState(long state) {
+        delegate.restoreState(state);
+    }
+
+    /**
+     * Starts a new record with the current board of {@code game}; call after {@link Game#initialize()}.
+     */
+    public void begin(Game game) {
+        writer.beginGame(Bitboards.pack(game));
+    }
+
+    /**
+     * Moves {@code game} and records the move if it changed the board.
+     */
+    public void move(Game game, Direction direction) {
+        int moves = game.getMoves();
+        game.move(direction);
+        if (game.getMoves() != moves)
+            writer.recordMove(direction, lastCell, lastValue);
+    }
+
+    public void end() throws IOException {
+        writer.endGame();
+    }
+}
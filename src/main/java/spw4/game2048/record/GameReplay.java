@@ -0,0 +1,77 @@
+package spw4.game2048.record;
+
+import spw4.game2048.Direction;
+import spw4.game2048.Game;
+import spw4.game2048.GameSnapshot;
+import spw4.game2048.TileSpawner;
+import spw4.game2048.TileSpawners;
+
+import java.util.function.Function;
+
+/**
+ * Re-executes a move log on a game seeded with {@link TileSpawners#seeded(long)}. A snapshot is kept every
+ * {@code checkpointInterval} moves, so {@link #seek(int)} replays at most that many moves from the nearest one.
+ */
+public class GameReplay {
+    public static final int DEFAULT_CHECKPOINT_INTERVAL = 1024;
+
+    private final Game game;
+    private final Direction[] moves;
+    private final int checkpointInterval;
+    private final GameSnapshot[] checkpoints;
+    private int position;
+
+    public GameReplay(Function<TileSpawner, Game> gameFactory, long seed, Direction[] moves) {
+        this(gameFactory, seed, moves, DEFAULT_CHECKPOINT_INTERVAL);
+    }
+
+    public GameReplay(Function<TileSpawner, Game> gameFactory, long seed, Direction[] moves, int checkpointInterval) {
+        if (checkpointInterval < 1)
+            throw new IllegalArgumentException("checkpointInterval must be positive");
+        this.game = gameFactory.apply(TileSpawners.seeded(seed));
+        this.moves = moves.clone();
+        this.checkpointInterval = checkpointInterval;
+        checkpoints = new GameSnapshot[this.moves.length / checkpointInterval + 1];
+
+        game.initialize();
+        checkpoints[0] = game.snapshot();
+        while (position < this.moves.length) {
+            game.move(this.moves[position++]);
+            if (position % checkpointInterval == 0)
+                checkpoints[position / checkpointInterval] = game.snapshot();
+        }
+    }
+
+    public int length() {
+        return moves.length;
+    }
+
+    /**
+     * Number of log entries applied to {@link #getGame()}.
+     */
+    public int getPosition() {
+        return position;
+    }
+
+    public Game getGame() {
+        return game;
+    }
+
+    /**
+     * Brings the game to the state after the first {@code move} entries of the log and returns it.
+     * Entries that did not change the board count like any other.
+     */
+    public Game seek(int move) {
+        if (move < 0 || move > moves.length)
+            throw new IndexOutOfBoundsException("Move " + move + " of " + moves.length);
+        if (move < position || move - position >= checkpointInterval) {
+            int checkpoint = move / checkpointInterval;
+            game.restore(checkpoints[checkpoint]);
+            position = checkpoint * checkpointInterval;
+        }
+        while (position < move) {
+            game.move(moves[position++]);
+        }
+        return game;
+    }
+}
@@ -0,0 +1,127 @@
+package spw4.game2048.server;
+
+import spw4.game2048.Direction;
+import spw4.game2048.Game;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Binary protocol of the {@link GameServer}. Numbers are big-endian.
+ * <pre>
+ * requests   MOVE byte direction (ordinal of {@link Direction}) | STATE | RESTART
+ *            | MOVES byte count (1 to 255, unsigned), count bytes directions
+ * response   int score, int moves, byte moves consumed, byte flags, byte board size n,
+ *            n * n bytes tile exponents (0 = empty), row by row
+ * </pre>
+ * Every request is answered with exactly one response, in order, so clients may pipeline requests.
+ * The moves of a MOVES request are played back to back; when the game ends, the rest is skipped and the
+ * response tells how many were consumed.
+ */
+public final class GameProtocol {
+    public static final byte MOVE = 1;
+    public static final byte STATE = 2;
+    public static final byte RESTART = 3;
+    public static final byte MOVES = 4;
+
+    public static final int FLAG_OVER = 1;
+    public static final int FLAG_WON = 2;
+
+    public static final int MAX_BATCH = 255;
+    public static final int MAX_REQUEST_LENGTH = 2 + MAX_BATCH;
+    static final int RESPONSE_HEADER_LENGTH = 11;
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private GameProtocol() {
+    }
+
+    /**
+     * Returns the length of the request starting at {@code position} of {@code in}, or -1 if it is invalid.
+     * For a MOVES request whose count has not arrived yet, returns 2.
+     */
+    public static int requestLength(ByteBuffer in, int position) {
+        return switch (in.get(position)) {
+            case MOVE -> 2;
+            case STATE, RESTART -> 1;
+            case MOVES -> {
+                if (position + 1 >= in.limit())
+                    yield 2;
+                int count = Byte.toUnsignedInt(in.get(position + 1));
+                yield count == 0 ? -1 : 2 + count;
+            }
+            default -> -1;
+        };
+    }
+
+    public static int responseLength(int boardSize) {
+        return RESPONSE_HEADER_LENGTH + boardSize * boardSize;
+    }
+
+    public static void putMove(ByteBuffer out, Direction direction) {
+        out.put(MOVE).put((byte) direction.ordinal());
+    }
+
+    /**
+     * Writes a MOVES request for {@code count} directions of {@code directions}, starting at {@code offset}.
+     */
+    public static void putMoves(ByteBuffer out, Direction[] directions, int offset, int count) {
+        if (count < 1 || count > MAX_BATCH)
+            throw new IllegalArgumentException("A batch holds 1 to " + MAX_BATCH + " moves");
+        out.put(MOVES).put((byte) count);
+        for (int i = offset; i < offset + count; i++) {
+            out.put((byte) directions[i].ordinal());
+        }
+    }
+
+    static Direction direction(byte ordinal) {
+        if (ordinal < 0 || ordinal >= DIRECTIONS.length)
+            throw new IllegalArgumentException("Unknown direction " + ordinal);
+        return DIRECTIONS[ordinal];
+    }
+
+    public static void putState(ByteBuffer out, Game game, int consumed) {
+        int size = game.getBoardSize();
+        out.putInt(game.getScore())
+                .putInt(game.getMoves())
+                .put((byte) consumed)
+                .put((byte) ((game.isOver() ? FLAG_OVER : 0) | (game.isWon() ? FLAG_WON : 0)))
+                .put((byte) size);
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                out.put((byte) game.getExponentAt(x, y));
+            }
+        }
+    }
+
+    public static int score(ByteBuffer response) {
+        return response.getInt(0);
+    }
+
+    public static int moves(ByteBuffer response) {
+        return response.getInt(4);
+    }
+
+    /**
+     * Returns how many moves of the request were played: 1 for MOVE, up to the count for MOVES, otherwise 0.
+     */
+    public static int consumed(ByteBuffer response) {
+        return Byte.toUnsignedInt(response.get(8));
+    }
+
+    public static boolean isOver(ByteBuffer response) {
+        return (response.get(9) & FLAG_OVER) != 0;
+    }
+
+    public static boolean isWon(ByteBuffer response) {
+        return (response.get(9) & FLAG_WON) != 0;
+    }
+
+    public static int boardSize(ByteBuffer response) {
+        return response.get(10);
+    }
+
+    public static int valueAt(ByteBuffer response, int x, int y) {
+        int exponent = response.get(RESPONSE_HEADER_LENGTH + y * boardSize(response) + x);
+        return exponent == 0 ? 0 : 1 << exponent;
+    }
+}
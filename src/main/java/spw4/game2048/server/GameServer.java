@@ -0,0 +1,123 @@
+package spw4.game2048.server;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hosts one 2048 game per TCP connection, speaking the {@link GameProtocol}. An acceptor thread hands new
+ * connections round-robin to a fixed number of selector threads, each serving many sessions without blocking.
+ */
+public class GameServer implements Closeable {
+    private final ServerSocketChannel serverChannel;
+    private final Reactor[] reactors;
+    private final Thread[] threads;
+    private final Thread acceptor;
+    private final AtomicInteger sessions = new AtomicInteger();
+    private final LongAdder moves = new LongAdder();
+
+    public GameServer(InetSocketAddress address) throws IOException {
+        this(address, Runtime.getRuntime().availableProcessors(), new SplittableRandom().nextLong());
+    }
+
+    public GameServer(InetSocketAddress address, int reactorThreads, long seed) throws IOException {
+        if (reactorThreads < 1)
+            throw new IllegalArgumentException("Need at least one reactor thread");
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.setOption(StandardSocketOptions.SO_REUSEADDR, true);
+        serverChannel.bind(address, 4096);
+
+        var seeds = new SplittableRandom(seed);
+        reactors = new Reactor[reactorThreads];
+        threads = new Thread[reactorThreads];
+        for (int i = 0; i < reactorThreads; i++) {
+            reactors[i] = new Reactor(this, seeds.split());
+            threads[i] = new Thread(reactors[i], "game-server-reactor-" + i);
+            threads[i].start();
+        }
+        acceptor = new Thread(this::accept, "game-server-acceptor");
+        acceptor.start();
+    }
+
+    public int getPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    public int getSessions() {
+        return sessions.get();
+    }
+
+    /**
+     * Number of moves that changed a board, over all sessions since the start.
+     */
+    public long getMoves() {
+        return moves.sum();
+    }
+
+    void sessionOpened() {
+        sessions.incrementAndGet();
+    }
+
+    void sessionClosed() {
+        sessions.decrementAndGet();
+    }
+
+    void movesPlayed(long count) {
+        if (count != 0)
+            moves.add(count);
+    }
+
+    private void accept() {
+        int next = 0;
+        try {
+            while (true) {
+                SocketChannel channel = serverChannel.accept();
+                channel.configureBlocking(false);
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                reactors[next].register(channel);
+                next = (next + 1) % reactors.length;
+            }
+        } catch (ClosedChannelException e) {
+            // close() was called
+        } catch (IOException e) {
+            throw new IllegalStateException("Accepting connections failed", e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverChannel.close();
+        for (var reactor : reactors) {
+            reactor.stop();
+        }
+        try {
+            acceptor.join();
+            for (var thread : threads) {
+                thread.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 2048;
+        try (var server = new GameServer(new InetSocketAddress(port))) {
+            System.out.println("Listening on port " + server.getPort());
+            long lastMoves = 0;
+            while (true) {
+                Thread.sleep(1000);
+                long moves = server.getMoves();
+                System.out.printf("sessions: %d\tmoves/s: %d%n", server.getSessions(), moves - lastMoves);
+                lastMoves = moves;
+            }
+        }
+    }
+}
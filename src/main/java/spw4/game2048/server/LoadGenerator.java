@@ -0,0 +1,181 @@
+package spw4.game2048.server;
+
+import spw4.game2048.Direction;
+import spw4.game2048.GameImpl;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Benchmark client for a {@link GameServer}. Active connections each keep one request in flight and play random
+ * moves, one per request or batched into MOVES requests, restarting when their game is over; idle connections
+ * are only held open.
+ */
+public class LoadGenerator {
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private final InetSocketAddress address;
+    private final int activeConnections;
+    private final int idleConnections;
+    private final int threads;
+    private final int batch;
+
+    public LoadGenerator(InetSocketAddress address, int activeConnections, int idleConnections, int threads) {
+        this(address, activeConnections, idleConnections, threads, 1);
+    }
+
+    /**
+     * @param batch moves per request, 1 sends MOVE requests, more sends MOVES requests
+     */
+    public LoadGenerator(InetSocketAddress address, int activeConnections, int idleConnections, int threads, int batch) {
+        if (threads < 1 || activeConnections < 0 || idleConnections < 0 || batch < 1 || batch > GameProtocol.MAX_BATCH)
+            throw new IllegalArgumentException("Invalid load configuration");
+        this.batch = batch;
+        this.address = address;
+        this.activeConnections = activeConnections;
+        this.idleConnections = idleConnections;
+        this.threads = threads;
+    }
+
+    /**
+     * Opens all connections, plays for {@code durationNanos} and returns the number of moves the server consumed.
+     */
+    public long run(long durationNanos) throws IOException, InterruptedException {
+        var idle = new ArrayList<SocketChannel>(idleConnections);
+        var completed = new LongAdder();
+        try {
+            for (int i = 0; i < idleConnections; i++) {
+                idle.add(SocketChannel.open(address));
+            }
+            var workers = new ArrayList<Worker>();
+            for (int i = 0; i < threads; i++) {
+                int connections = activeConnections / threads + (i < activeConnections % threads ? 1 : 0);
+                workers.add(new Worker(connections, i, completed));
+            }
+            long deadline = System.nanoTime() + durationNanos;
+            var running = new ArrayList<Thread>();
+            for (var worker : workers) {
+                var thread = new Thread(() -> worker.play(deadline), "load-generator-" + running.size());
+                thread.start();
+                running.add(thread);
+            }
+            for (var thread : running) {
+                thread.join();
+            }
+            for (var worker : workers) {
+                worker.close();
+            }
+            for (var worker : workers) {
+                if (worker.failure != null)
+                    throw worker.failure;
+            }
+            return completed.sum();
+        } finally {
+            for (var channel : idle) {
+                channel.close();
+            }
+        }
+    }
+
+    private final class Worker {
+        private final Selector selector;
+        private final List<SocketChannel> channels = new ArrayList<>();
+        private final SplittableRandom random;
+        private final LongAdder completed;
+        private final ByteBuffer request = ByteBuffer.allocate(GameProtocol.MAX_REQUEST_LENGTH);
+        private final Direction[] moves = new Direction[batch];
+        private IOException failure;
+
+        Worker(int connections, long seed, LongAdder completed) throws IOException {
+            this.random = new SplittableRandom(seed);
+            this.completed = completed;
+            selector = Selector.open();
+            for (int i = 0; i < connections; i++) {
+                var channel = SocketChannel.open(address);
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                channel.configureBlocking(false);
+                channel.register(selector, SelectionKey.OP_READ,
+                        ByteBuffer.allocate(GameProtocol.responseLength(GameImpl.DEFAULT_SIZE)));
+                channels.add(channel);
+            }
+        }
+
+        void play(long deadline) {
+            try {
+                for (var channel : channels) {
+                    send(channel, false);
+                }
+                long consumed = 0;
+                while (System.nanoTime() < deadline) {
+                    selector.select(10);
+                    var keys = selector.selectedKeys();
+                    for (var key : keys) {
+                        var channel = (SocketChannel) key.channel();
+                        var response = (ByteBuffer) key.attachment();
+                        if (channel.read(response) < 0)
+                            throw new IOException("Server closed the connection");
+                        if (response.hasRemaining())
+                            continue;
+                        consumed += GameProtocol.consumed(response);
+                        boolean over = GameProtocol.isOver(response);
+                        response.clear();
+                        send(channel, over);
+                    }
+                    keys.clear();
+                }
+                completed.add(consumed);
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+
+        private void send(SocketChannel channel, boolean restart) throws IOException {
+            request.clear();
+            if (restart) {
+                request.put(GameProtocol.RESTART);
+            } else if (batch == 1) {
+                GameProtocol.putMove(request, DIRECTIONS[random.nextInt(DIRECTIONS.length)]);
+            } else {
+                for (int i = 0; i < batch; i++)
+                    moves[i] = DIRECTIONS[random.nextInt(DIRECTIONS.length)];
+                GameProtocol.putMoves(request, moves, 0, batch);
+            }
+            request.flip();
+            while (request.hasRemaining()) {
+                channel.write(request);
+            }
+        }
+
+        void close() throws IOException {
+            for (var channel : channels) {
+                channel.close();
+            }
+            selector.close();
+        }
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 2) {
+            System.out.println("usage: LoadGenerator host port [active connections] [idle connections] [seconds] [threads] [batch]");
+            return;
+        }
+        var address = new InetSocketAddress(args[0], Integer.parseInt(args[1]));
+        int active = args.length > 2 ? Integer.parseInt(args[2]) : 256;
+        int idle = args.length > 3 ? Integer.parseInt(args[3]) : 0;
+        int seconds = args.length > 4 ? Integer.parseInt(args[4]) : 10;
+        int threads = args.length > 5 ? Integer.parseInt(args[5]) : Runtime.getRuntime().availableProcessors();
+        int batch = args.length > 6 ? Integer.parseInt(args[6]) : 1;
+
+        long moves = new LoadGenerator(address, active, idle, threads, batch).run(seconds * 1_000_000_000L);
+        System.out.printf("%d moves in %d s, %.0f moves/s%n", moves, seconds, moves / (double) seconds);
+    }
+}
@@ -0,0 +1,211 @@
+package spw4.game2048.server;
+
+import spw4.game2048.GameImpl;
+import spw4.game2048.TileSpawners;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static spw4.game2048.server.GameProtocol.*;
+
+/**
+ * Serves the sessions of one selector on a single thread. Requests are decoded from and responses encoded into
+ * buffers shared by all its sessions; games are recycled through a pool owned by the thread.
+ */
+final class Reactor implements Runnable {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_POOLED_GAMES = 4096;
+
+    private final GameServer server;
+    private final Selector selector;
+    private final Queue<SocketChannel> incoming = new ConcurrentLinkedQueue<>();
+    private final ArrayDeque<GameImpl> pool = new ArrayDeque<>();
+    private final SplittableRandom seeds;
+    private final ByteBuffer in = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final ByteBuffer out = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final int maxReadLength = BUFFER_SIZE / responseLength(GameImpl.DEFAULT_SIZE);
+    private volatile boolean running = true;
+
+    Reactor(GameServer server, SplittableRandom seeds) throws IOException {
+        this.server = server;
+        this.seeds = seeds;
+        selector = Selector.open();
+    }
+
+    void register(SocketChannel channel) {
+        incoming.add(channel);
+        selector.wakeup();
+    }
+
+    void stop() {
+        running = false;
+        selector.wakeup();
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (running) {
+                selector.select();
+                registerIncoming();
+                var keys = selector.selectedKeys();
+                for (var key : keys) {
+                    var session = (Session) key.attachment();
+                    try {
+                        if (key.isValid() && key.isWritable())
+                            writePending(key, session);
+                        if (key.isValid() && key.isReadable())
+                            read(key, session);
+                    } catch (IOException | IllegalArgumentException e) {
+                        close(key, session);
+                    }
+                }
+                keys.clear();
+            }
+        } catch (IOException | ClosedSelectorException e) {
+            if (running)
+                throw new IllegalStateException("Reactor failed", e);
+        } finally {
+            for (var key : selector.keys()) {
+                if (key.isValid())
+                    close(key, (Session) key.attachment());
+            }
+            SocketChannel channel;
+            while ((channel = incoming.poll()) != null) {
+                try {
+                    channel.close();
+                } catch (IOException ignored) {
+                }
+            }
+            try {
+                selector.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    private void registerIncoming() throws IOException {
+        SocketChannel channel;
+        while ((channel = incoming.poll()) != null) {
+            channel.register(selector, SelectionKey.OP_READ, new Session(channel));
+            server.sessionOpened();
+        }
+    }
+
+    private void read(SelectionKey key, Session session) throws IOException {
+        in.clear();
+        if (session.partialLength > 0) {
+            in.put(session.partial, 0, session.partialLength);
+            session.partialLength = 0;
+        }
+        in.limit(maxReadLength);
+        if (session.channel.read(in) < 0) {
+            close(key, session);
+            return;
+        }
+        in.flip();
+
+        out.clear();
+        long moves = 0;
+        while (in.hasRemaining()) {
+            int start = in.position();
+            int length = requestLength(in, start);
+            if (length < 0)
+                throw new IllegalArgumentException("Invalid request " + in.get(start));
+            if (in.remaining() < length)
+                break;
+            moves += handle(session, start, length);
+            in.position(start + length);
+        }
+        server.movesPlayed(moves);
+        keepPartial(session);
+
+        out.flip();
+        session.channel.write(out);
+        if (out.hasRemaining()) {
+            session.pending = ByteBuffer.allocate(out.remaining()).put(out).flip();
+            key.interestOps(SelectionKey.OP_WRITE);
+        }
+    }
+
+    private int handle(Session session, int start, int length) {
+        var game = session.game;
+        if (game == null) {
+            game = acquire();
+            session.game = game;
+        }
+        int moves = game.getMoves();
+        int consumed = 0;
+        switch (in.get(start)) {
+            case MOVE -> {
+                game.move(direction(in.get(start + 1)));
+                consumed = 1;
+            }
+            case MOVES -> {
+                for (int i = start + 2; i < start + length && !game.isOver(); i++) {
+                    game.move(direction(in.get(i)));
+                    consumed++;
+                }
+            }
+            case RESTART -> {
+                game.reset();
+                game.initialize();
+                moves = 0;
+            }
+            default -> {
+            }
+        }
+        putState(out, game, consumed);
+        return game.getMoves() - moves;
+    }
+
+    private void keepPartial(Session session) {
+        int remaining = in.remaining();
+        if (remaining == 0)
+            return;
+        if (session.partial == null)
+            session.partial = new byte[MAX_REQUEST_LENGTH];
+        in.get(session.partial, 0, remaining);
+        session.partialLength = remaining;
+    }
+
+    private void writePending(SelectionKey key, Session session) throws IOException {
+        session.channel.write(session.pending);
+        if (!session.pending.hasRemaining()) {
+            session.pending = null;
+            key.interestOps(SelectionKey.OP_READ);
+        }
+    }
+
+    private GameImpl acquire() {
+        var game = pool.poll();
+        if (game == null)
+            game = new GameImpl(TileSpawners.seeded(seeds.nextLong()));
+        game.initialize();
+        return game;
+    }
+
+    private void close(SelectionKey key, Session session) {
+        key.cancel();
+        try {
+            session.channel.close();
+        } catch (IOException ignored) {
+        }
+        if (session.game != null) {
+            if (pool.size() < MAX_POOLED_GAMES) {
+                session.game.reset();
+                pool.push(session.game);
+            }
+            session.game = null;
+        }
+        server.sessionClosed();
+    }
+}
@@ -0,0 +1,22 @@
+package spw4.game2048.server;
+
+import spw4.game2048.GameImpl;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+
+/**
+ * Per-connection state. Kept small for idle connections: the game is taken from the pool on the first request,
+ * the buffers exist only while a request is split across reads or a response could not be written at once.
+ */
+final class Session {
+    final SocketChannel channel;
+    GameImpl game;
+    byte[] partial;
+    int partialLength;
+    ByteBuffer pending;
+
+    Session(SocketChannel channel) {
+        this.channel = channel;
+    }
+}
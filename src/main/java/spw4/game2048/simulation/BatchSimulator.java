@@ -0,0 +1,122 @@
+package spw4.game2048.simulation;
+
+import spw4.game2048.BitboardGame;
+import spw4.game2048.Game;
+import spw4.game2048.TileSpawner;
+import spw4.game2048.TileSpawners;
+import spw4.game2048.metrics.GameMetrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Plays many independent games on a fixed number of threads.
+ * <p>
+ * Game {@code i} draws its tiles from a {@link TileSpawners#seeded(long) seeded} spawner and its
+ * policy from a {@link SplittableRandom}, both derived from the master seed and {@code i}. The result for a given master seed is therefore the same
+ * whatever the thread count or scheduling.
+ * <p>
+ * Games and spawners go through {@link GameMetrics#instrument}, so they report to the global metrics when those
+ * are enabled. Outcomes can also be streamed into {@link LiveStats} to watch a long run while it progresses.
+ */
+public class BatchSimulator {
+    private static final int CHUNK = 64;
+    private static final int MAX_ATTEMPTS_WITHOUT_PROGRESS = 1000;
+
+    private final Function<TileSpawner, Game> gameFactory;
+    private final Supplier<Policy> policyFactory;
+    private final int threads;
+
+    /**
+     * @param gameFactory   creates a game that spawns its tiles with the given spawner
+     * @param policyFactory called once per worker thread
+     */
+    public BatchSimulator(Function<TileSpawner, Game> gameFactory, Supplier<Policy> policyFactory, int threads) {
+        if (threads < 1)
+            throw new IllegalArgumentException("threads must be positive");
+        this.gameFactory = gameFactory;
+        this.policyFactory = policyFactory;
+        this.threads = threads;
+    }
+
+    public BatchSimulator(Supplier<Policy> policyFactory, int threads) {
+        this(BitboardGame::new, policyFactory, threads);
+    }
+
+    public SimulationResult run(long games, long masterSeed) {
+        return run(games, masterSeed, null);
+    }
+
+    /**
+     * Also adds every finished game to {@code stats} unless it is {@code null}.
+     */
+    public SimulationResult run(long games, long masterSeed, LiveStats stats) {
+        var nextGame = new AtomicLong();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<SimulationResult>> workers = new ArrayList<>(threads);
+            for (int i = 0; i < threads; i++) {
+                workers.add(executor.submit(() -> work(nextGame, games, masterSeed, stats)));
+            }
+            var result = new SimulationResult();
+            for (Future<SimulationResult> worker : workers) {
+                result.merge(worker.get());
+            }
+            return result;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Simulation interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Simulation failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private SimulationResult work(AtomicLong nextGame, long games, long masterSeed, LiveStats stats) {
+        Policy policy = policyFactory.get();
+        LiveStats.Accumulator accumulator = stats == null ? null : stats.newAccumulator();
+        var result = new SimulationResult();
+        long start;
+        while ((start = nextGame.getAndAdd(CHUNK)) < games) {
+            long end = Math.min(start + CHUNK, games);
+            for (long index = start; index < end; index++) {
+                playOne(policy, gameSeed(masterSeed, index), result, accumulator);
+            }
+        }
+        return result;
+    }
+
+    private void playOne(Policy policy, long seed, SimulationResult result, LiveStats.Accumulator accumulator) {
+        var random = new SplittableRandom(seed);
+        var decisions = random.split();
+        var tiles = TileSpawners.seeded(random.nextLong());
+        Game game = GameMetrics.instrument(gameFactory.apply(GameMetrics.instrument(tiles)));
+        game.initialize();
+
+        int attempts = 0;
+        while (!game.isOver() && attempts < MAX_ATTEMPTS_WITHOUT_PROGRESS) {
+            int moves = game.getMoves();
+            game.move(policy.choose(game, decisions));
+            attempts = game.getMoves() == moves ? attempts + 1 : 0;
+        }
+        result.add(game, attempts == MAX_ATTEMPTS_WITHOUT_PROGRESS);
+        if (accumulator != null)
+            accumulator.add(game);
+    }
+
+    static long gameSeed(long masterSeed, long index) {
+        long z = masterSeed + (index + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
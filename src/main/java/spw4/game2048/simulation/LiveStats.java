@@ -0,0 +1,73 @@
+package spw4.game2048.simulation;
+
+import spw4.game2048.Game;
+
+import java.io.PrintStream;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link StreamingStats} fed by many threads and readable while they run. Every thread records into its own
+ * {@link Accumulator}, whose lock is only ever contended by a {@link #snapshot()}; a snapshot merges copies of
+ * all accumulators, so it never stops the recording threads for longer than one copy.
+ */
+public class LiveStats {
+    private final List<Accumulator> accumulators = new CopyOnWriteArrayList<>();
+
+    /**
+     * Returns a new accumulator for the calling thread.
+     */
+    public Accumulator newAccumulator() {
+        var accumulator = new Accumulator();
+        accumulators.add(accumulator);
+        return accumulator;
+    }
+
+    public StreamingStats snapshot() {
+        var result = new StreamingStats();
+        for (Accumulator accumulator : accumulators) {
+            result.merge(accumulator.copy());
+        }
+        return result;
+    }
+
+    /**
+     * Prints a {@link #snapshot()} at a fixed period on a daemon thread until the returned reporter is closed.
+     */
+    public Reporter startReporter(PrintStream out, long period, TimeUnit unit) {
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            var thread = new Thread(runnable, "live-stats-reporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleAtFixedRate(() -> out.println(snapshot()), period, period, unit);
+        return executor::shutdownNow;
+    }
+
+    public interface Reporter extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    public static final class Accumulator {
+        private final StreamingStats stats = new StreamingStats();
+
+        private Accumulator() {
+        }
+
+        public synchronized void add(Game game) {
+            stats.add(game);
+        }
+
+        public synchronized void add(int score, int moves, boolean won, int maxTile) {
+            stats.add(score, moves, won, maxTile);
+        }
+
+        synchronized StreamingStats copy() {
+            return stats.copy();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package spw4.game2048.simulation;
+
+import spw4.game2048.Direction;
+import spw4.game2048.solver.CachingHeuristic;
+import spw4.game2048.solver.EvaluationCache;
+import spw4.game2048.solver.ExpectimaxSolver;
+import spw4.game2048.solver.Heuristics;
+import spw4.game2048.solver.TranspositionTable;
+import spw4.game2048.tablebase.Tablebase;
+
+import java.util.function.Supplier;
+
+/**
+ * Ready-made {@link Policy} factories for {@link BatchSimulator}. Each worker thread calls the
+ * factory once, so stateful policies are never shared between threads.
+ */
+public final class Policies {
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private Policies() {
+    }
+
+    public static Supplier<Policy> random() {
+        return () -> (game, random) -> DIRECTIONS[random.nextInt(DIRECTIONS.length)];
+    }
+
+    public static Supplier<Policy> expectimax(int depth) {
+        return () -> {
+            var solver = new ExpectimaxSolver();
+            return (game, random) -> solver.bestMove(game, depth);
+        };
+    }
+
+    /**
+     * Expectimax policies whose heuristic evaluations all go through one {@code cache} shared by the worker threads.
+     */
+    public static Supplier<Policy> expectimax(int depth, EvaluationCache cache) {
+        return () -> {
+            var solver = new ExpectimaxSolver(new CachingHeuristic(Heuristics.standard(), cache),
+                    new TranspositionTable(1 << 20));
+            return (game, random) -> solver.bestMove(game, depth);
+        };
+    }
+
+    /**
+     * Plays the move stored in {@code tablebase} for positions it covers and asks {@code fallback} for all others.
+     */
+    public static Supplier<Policy> withTablebase(Tablebase tablebase, Supplier<Policy> fallback) {
+        return () -> {
+            Policy policy = fallback.get();
+            return (game, random) -> {
+                Direction move = tablebase.bestMove(game);
+                return move != null ? move : policy.choose(game, random);
+            };
+        };
+    }
+}
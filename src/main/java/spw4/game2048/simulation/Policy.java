@@ -0,0 +1,15 @@
+package spw4.game2048.simulation;
+
+import spw4.game2048.Direction;
+import spw4.game2048.Game;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Chooses the next move of a simulated game. {@code random} is the game's own policy stream;
+ * a policy must not use any other source of randomness if runs are to be reproducible.
+ */
+@FunctionalInterface
+public interface Policy {
+    Direction choose(Game game, RandomGenerator random);
+}
@@ -0,0 +1,155 @@
+package spw4.game2048.simulation;
+
+import spw4.game2048.Game;
+
+import java.util.Arrays;
+
+/**
+ * Aggregated outcome of a batch of games. Workers fill one instance each and {@link #merge} them at the end;
+ * all counters are integral, so the merged result does not depend on the order of merging.
+ */
+public class SimulationResult {
+    private static final int BUCKETS = 32;
+
+    private long games;
+    private long wins;
+    private long stalled;
+    private long totalScore;
+    private long totalMoves;
+    private int minMoves = Integer.MAX_VALUE;
+    private int maxMoves;
+    private final long[] scoreHistogram = new long[BUCKETS];
+    private final long[] maxTileHistogram = new long[BUCKETS];
+
+    void add(Game game, boolean stalledGame) {
+        games++;
+        if (game.isWon())
+            wins++;
+        if (stalledGame)
+            stalled++;
+        int score = game.getScore();
+        int moves = game.getMoves();
+        totalScore += score;
+        totalMoves += moves;
+        minMoves = Math.min(minMoves, moves);
+        maxMoves = Math.max(maxMoves, moves);
+        scoreHistogram[score == 0 ? 0 : 32 - Integer.numberOfLeadingZeros(score)]++;
+        int maxTile = maxTile(game);
+        maxTileHistogram[maxTile == 0 ? 0 : Integer.numberOfTrailingZeros(maxTile)]++;
+    }
+
+    void merge(SimulationResult other) {
+        games += other.games;
+        wins += other.wins;
+        stalled += other.stalled;
+        totalScore += other.totalScore;
+        totalMoves += other.totalMoves;
+        minMoves = Math.min(minMoves, other.minMoves);
+        maxMoves = Math.max(maxMoves, other.maxMoves);
+        for (int i = 0; i < BUCKETS; i++) {
+            scoreHistogram[i] += other.scoreHistogram[i];
+            maxTileHistogram[i] += other.maxTileHistogram[i];
+        }
+    }
+
+    public long getGames() {
+        return games;
+    }
+
+    public long getWins() {
+        return wins;
+    }
+
+    public double getWinRate() {
+        return games == 0 ? 0 : (double) wins / games;
+    }
+
+    /**
+     * Games abandoned because the policy kept choosing moves that did not change the board.
+     */
+    public long getStalled() {
+        return stalled;
+    }
+
+    public long getTotalScore() {
+        return totalScore;
+    }
+
+    public double getMeanScore() {
+        return games == 0 ? 0 : (double) totalScore / games;
+    }
+
+    public long getTotalMoves() {
+        return totalMoves;
+    }
+
+    public double getMeanMoves() {
+        return games == 0 ? 0 : (double) totalMoves / games;
+    }
+
+    public int getMinMoves() {
+        return games == 0 ? 0 : minMoves;
+    }
+
+    public int getMaxMoves() {
+        return maxMoves;
+    }
+
+    /**
+     * Index {@code k} counts games with a score in {@code [2^(k-1), 2^k)}; index 0 counts games that scored 0.
+     */
+    public long[] getScoreHistogram() {
+        return scoreHistogram.clone();
+    }
+
+    /**
+     * Index {@code k} counts games whose largest tile was {@code 2^k}.
+     */
+    public long[] getMaxTileHistogram() {
+        return maxTileHistogram.clone();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder(String.format(
+                "Games: %d\t\tWin rate: %.4f\t\tMean score: %.1f\t\tMoves: %.1f (%d..%d)\n",
+                games, getWinRate(), getMeanScore(), getMeanMoves(), getMinMoves(), maxMoves));
+        result.append("Max tile:");
+        for (int i = 1; i < BUCKETS; i++) {
+            if (maxTileHistogram[i] != 0)
+                result.append(String.format(" %d=%d", 1 << i, maxTileHistogram[i]));
+        }
+        return result.toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (!(o instanceof SimulationResult other))
+            return false;
+        return games == other.games && wins == other.wins && stalled == other.stalled
+                && totalScore == other.totalScore && totalMoves == other.totalMoves
+                && getMinMoves() == other.getMinMoves() && maxMoves == other.maxMoves
+                && Arrays.equals(scoreHistogram, other.scoreHistogram)
+                && Arrays.equals(maxTileHistogram, other.maxTileHistogram);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(totalScore) * 31 + Long.hashCode(totalMoves);
+    }
+
+    /**
+     * Returns the largest tile on the board of {@code game}.
+     */
+    static int maxTile(Game game) {
+        int max = 0;
+        for (int y = 0; y < game.getBoardSize(); y++) {
+            for (int x = 0; x < game.getBoardSize(); x++) {
+                max = Math.max(max, game.getValueAt(x, y));
+            }
+        }
+        return max;
+    }
+}
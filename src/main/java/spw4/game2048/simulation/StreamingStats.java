@@ -0,0 +1,125 @@
+package spw4.game2048.simulation;
+
+import spw4.game2048.Game;
+
+/**
+ * Constant-memory summary of any number of game outcomes: running mean and variance and quantile sketches of
+ * score and moves, and per largest tile a count and a score histogram with power-of-two buckets.
+ * <p>
+ * Not thread-safe; give every thread its own instance and {@link #merge} them, or use {@link LiveStats}.
+ */
+public class StreamingStats {
+    private static final int BUCKETS = 32;
+
+    private long games;
+    private long wins;
+    private final RunningStats score = new RunningStats();
+    private final RunningStats moves = new RunningStats();
+    private final QuantileSketch scoreQuantiles = new QuantileSketch();
+    private final QuantileSketch movesQuantiles = new QuantileSketch();
+    private final long[] maxTileCounts = new long[BUCKETS];
+    private final long[][] scoreHistogramByMaxTile = new long[BUCKETS][BUCKETS];
+
+    public void add(Game game) {
+        add(game.getScore(), game.getMoves(), game.isWon(), SimulationResult.maxTile(game));
+    }
+
+    /**
+     * @param maxTile value of the largest tile on the final board, 0 for an empty board
+     */
+    public void add(int score, int moves, boolean won, int maxTile) {
+        games++;
+        if (won)
+            wins++;
+        this.score.add(score);
+        this.moves.add(moves);
+        scoreQuantiles.add(score);
+        movesQuantiles.add(moves);
+        int tile = maxTile == 0 ? 0 : Integer.numberOfTrailingZeros(maxTile);
+        maxTileCounts[tile]++;
+        scoreHistogramByMaxTile[tile][score == 0 ? 0 : 32 - Integer.numberOfLeadingZeros(score)]++;
+    }
+
+    public void merge(StreamingStats other) {
+        games += other.games;
+        wins += other.wins;
+        score.merge(other.score);
+        moves.merge(other.moves);
+        scoreQuantiles.merge(other.scoreQuantiles);
+        movesQuantiles.merge(other.movesQuantiles);
+        for (int i = 0; i < BUCKETS; i++) {
+            maxTileCounts[i] += other.maxTileCounts[i];
+            for (int k = 0; k < BUCKETS; k++) {
+                scoreHistogramByMaxTile[i][k] += other.scoreHistogramByMaxTile[i][k];
+            }
+        }
+    }
+
+    public StreamingStats copy() {
+        var copy = new StreamingStats();
+        copy.merge(this);
+        return copy;
+    }
+
+    public long getGames() {
+        return games;
+    }
+
+    public long getWins() {
+        return wins;
+    }
+
+    public double getWinRate() {
+        return games == 0 ? 0 : (double) wins / games;
+    }
+
+    public RunningStats getScore() {
+        return score.copy();
+    }
+
+    public RunningStats getMoves() {
+        return moves.copy();
+    }
+
+    public int getScoreAtQuantile(double quantile) {
+        return scoreQuantiles.getValueAtQuantile(quantile);
+    }
+
+    public int getMovesAtQuantile(double quantile) {
+        return movesQuantiles.getValueAtQuantile(quantile);
+    }
+
+    /**
+     * Number of games whose largest tile was {@code 2^exponent}.
+     */
+    public long getMaxTileCount(int exponent) {
+        return maxTileCounts[exponent];
+    }
+
+    /**
+     * Index {@code k} counts games with largest tile {@code 2^exponent} and a score in {@code [2^(k-1), 2^k)};
+     * index 0 counts those that scored 0.
+     */
+    public long[] getScoreHistogram(int exponent) {
+        return scoreHistogramByMaxTile[exponent].clone();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder(String.format(
+                "Games: %d\t\tWin rate: %.4f\n"
+                        + "Score: mean %.1f sd %.1f\tp50 %d p90 %d p99 %d max %.0f\n"
+                        + "Moves: mean %.1f sd %.1f\tp50 %d p90 %d p99 %d max %.0f\n",
+                games, getWinRate(),
+                score.getMean(), score.getStandardDeviation(), getScoreAtQuantile(0.5), getScoreAtQuantile(0.9),
+                getScoreAtQuantile(0.99), games == 0 ? 0 : score.getMax(),
+                moves.getMean(), moves.getStandardDeviation(), getMovesAtQuantile(0.5), getMovesAtQuantile(0.9),
+                getMovesAtQuantile(0.99), games == 0 ? 0 : moves.getMax()));
+        result.append("Max tile:");
+        for (int i = 1; i < BUCKETS; i++) {
+            if (maxTileCounts[i] != 0)
+                result.append(String.format(" %d=%d", 1 << i, maxTileCounts[i]));
+        }
+        return result.toString();
+    }
+}
@@ -0,0 +1,47 @@
+package spw4.game2048.solver;
+
+import spw4.game2048.Symmetries;
+
+/**
+ * Looks boards up in an {@link EvaluationCache} before evaluating them with another heuristic.
+ * Several solvers, also on different threads, can share one cache.
+ */
+public class CachingHeuristic implements Heuristic {
+    private final Heuristic heuristic;
+    private final EvaluationCache cache;
+    private final boolean canonicalKeys;
+
+    public CachingHeuristic(Heuristic heuristic, EvaluationCache cache) {
+        this(heuristic, cache, false);
+    }
+
+    private CachingHeuristic(Heuristic heuristic, EvaluationCache cache, boolean canonicalKeys) {
+        this.heuristic = heuristic;
+        this.cache = cache;
+        this.canonicalKeys = canonicalKeys;
+    }
+
+    /**
+     * Caches under {@link Symmetries#canonical(long)}, so all 8 symmetric boards share one entry.
+     * Only correct for heuristics that score symmetric boards equally, like {@link Heuristics#standard()}
+     * (up to float rounding, as it adds up the row and column scores in a different order).
+     */
+    public static CachingHeuristic symmetric(Heuristic heuristic, EvaluationCache cache) {
+        return new CachingHeuristic(heuristic, cache, true);
+    }
+
+    public EvaluationCache getCache() {
+        return cache;
+    }
+
+    @Override
+    public double evaluate(long board) {
+        long key = canonicalKeys ? Symmetries.canonical(board) : board;
+        double value = cache.get(key);
+        if (Double.isNaN(value)) {
+            value = heuristic.evaluate(board);
+            cache.put(key, value);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,180 @@
+package spw4.game2048.solver;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Fixed-size heuristic value cache keyed on packed boards, safe to share between threads.
+ * <p>
+ * Entries live in buckets of {@value #WAYS} slots. Each bucket evicts with the Clock algorithm: a hit sets the
+ * slot's reference bit, and an insert into a full bucket advances the bucket's hand, clearing reference bits,
+ * until it finds a slot that was not used since the hand last passed. Buckets are guarded by a fixed number of
+ * striped {@link StampedLock}s; lookups read optimistically and only lock when they raced with a writer.
+ */
+public class EvaluationCache {
+    public static final int MAX_CAPACITY = 1 << 30;
+    static final int WAYS = 8;
+    private static final int MAX_STRIPES = 1024;
+    private static final int BYTES_PER_ENTRY = Long.BYTES + Double.BYTES + 1;
+
+    private final long[] keys;
+    private final double[] values;
+    private final byte[] referenced;
+    private final byte[] hands;
+    private final StampedLock[] locks;
+    private final int bucketMask;
+    private final int stripeMask;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param capacity maximum number of entries, rounded up to a power of two of at least {@value #WAYS};
+     *                 at most {@value #MAX_CAPACITY}
+     */
+    public EvaluationCache(int capacity) {
+        if (capacity < 1)
+            throw new IllegalArgumentException("capacity must be positive");
+        if (capacity > MAX_CAPACITY)
+            throw new IllegalArgumentException("capacity must not exceed " + MAX_CAPACITY);
+        int slots = Math.max(WAYS, Integer.highestOneBit(capacity - 1) << 1);
+        keys = new long[slots];
+        values = new double[slots];
+        referenced = new byte[slots];
+        int buckets = slots / WAYS;
+        hands = new byte[buckets];
+        bucketMask = buckets - 1;
+        locks = new StampedLock[Math.min(buckets, MAX_STRIPES)];
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new StampedLock();
+        }
+        stripeMask = locks.length - 1;
+    }
+
+    /**
+     * Creates the largest cache whose entries fit in {@code bytes}.
+     */
+    public static EvaluationCache withMemoryBudget(long bytes) {
+        long entries = Math.min(bytes / BYTES_PER_ENTRY, MAX_CAPACITY);
+        return new EvaluationCache((int) Math.max(WAYS, Long.highestOneBit(entries)));
+    }
+
+    public int capacity() {
+        return keys.length;
+    }
+
+    /**
+     * Returns the cached value of {@code board}, or {@code NaN} if there is none.
+     */
+    public double get(long board) {
+        if (board == 0) {
+            misses.increment();
+            return Double.NaN;
+        }
+        int bucket = bucketOf(board);
+        var lock = locks[bucket & stripeMask];
+        long stamp = lock.tryOptimisticRead();
+        int slot = find(bucket, board);
+        double value = slot < 0 ? Double.NaN : values[slot];
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                slot = find(bucket, board);
+                value = slot < 0 ? Double.NaN : values[slot];
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        if (slot < 0) {
+            misses.increment();
+            return Double.NaN;
+        }
+        referenced[slot] = 1;
+        hits.increment();
+        return value;
+    }
+
+    public void put(long board, double value) {
+        if (board == 0)
+            return;
+        int bucket = bucketOf(board);
+        var lock = locks[bucket & stripeMask];
+        long stamp = lock.writeLock();
+        try {
+            int slot = find(bucket, board);
+            if (slot < 0)
+                slot = findFree(bucket);
+            if (slot < 0) {
+                slot = evict(bucket);
+                evictions.increment();
+            }
+            keys[slot] = board;
+            values[slot] = value;
+            referenced[slot] = 0;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public void clear() {
+        for (var lock : locks) {
+            lock.writeLock();
+        }
+        try {
+            Arrays.fill(keys, 0);
+        } finally {
+            for (var lock : locks) {
+                lock.tryUnlockWrite();
+            }
+        }
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    public double getHitRate() {
+        long hit = hits.sum();
+        long total = hit + misses.sum();
+        return total == 0 ? 0 : hit / (double) total;
+    }
+
+    private int find(int bucket, long board) {
+        int start = bucket * WAYS;
+        for (int slot = start; slot < start + WAYS; slot++) {
+            if (keys[slot] == board)
+                return slot;
+        }
+        return -1;
+    }
+
+    private int findFree(int bucket) {
+        return find(bucket, 0);
+    }
+
+    private int evict(int bucket) {
+        int start = bucket * WAYS;
+        int hand = hands[bucket];
+        while (referenced[start + hand] != 0) {
+            referenced[start + hand] = 0;
+            hand = (hand + 1) % WAYS;
+        }
+        hands[bucket] = (byte) ((hand + 1) % WAYS);
+        return start + hand;
+    }
+
+    private int bucketOf(long board) {
+        long hash = board * 0x9E3779B97F4A7C15L;
+        return (int) (hash >>> 32) & bucketMask;
+    }
+}
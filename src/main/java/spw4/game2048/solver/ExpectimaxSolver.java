@@ -0,0 +1,155 @@
+package spw4.game2048.solver;
+
+import spw4.game2048.Bitboards;
+import spw4.game2048.Direction;
+import spw4.game2048.Game;
+
+/**
+ * Expectimax search over packed boards: the player picks the best move, the game places a 2 (90%)
+ * or a 4 (10%) on a uniformly chosen empty cell. Chance nodes are cached in a {@link TranspositionTable}.
+ * <p>
+ * Not thread-safe; use one solver per thread.
+ */
+public class ExpectimaxSolver {
+    private static final Direction[] DIRECTIONS = Direction.values();
+    private static final double PROBABILITY_CUTOFF = 0.0001;
+    private static final int TIME_CHECK_INTERVAL = 1 << 12;
+    private static final int MAX_DEPTH = 32;
+
+    private final Heuristic heuristic;
+    private final TranspositionTable table;
+
+    private long nodes;
+    private int completedDepth;
+    private long deadline;
+    private boolean aborted;
+
+    public ExpectimaxSolver(Heuristic heuristic, TranspositionTable table) {
+        this.heuristic = heuristic;
+        this.table = table;
+    }
+
+    public ExpectimaxSolver() {
+        this(Heuristics.standard(), new TranspositionTable(1 << 20));
+    }
+
+    /**
+     * Total number of nodes visited since construction.
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Depth of the last fully completed search.
+     */
+    public int getCompletedDepth() {
+        return completedDepth;
+    }
+
+    public TranspositionTable getTable() {
+        return table;
+    }
+
+    public Direction bestMove(Game game, int depth) {
+        return bestMove(Bitboards.pack(game), depth);
+    }
+
+    public Direction bestMoveWithin(Game game, long budgetNanos) {
+        return bestMoveWithin(Bitboards.pack(game), budgetNanos);
+    }
+
+    /**
+     * Searches {@code depth} moves deep. Returns {@code null} if no move changes the board.
+     */
+    public Direction bestMove(long board, int depth) {
+        deadline = Long.MAX_VALUE;
+        aborted = false;
+        Direction best = searchRoot(board, depth);
+        completedDepth = depth;
+        return best;
+    }
+
+    /**
+     * Deepens the search one move at a time until {@code budgetNanos} are spent and returns the move
+     * of the deepest search that finished. At least depth 1 is always searched.
+     */
+    public Direction bestMoveWithin(long board, long budgetNanos) {
+        deadline = Long.MAX_VALUE;
+        aborted = false;
+        long start = System.nanoTime();
+        Direction best = searchRoot(board, 1);
+        completedDepth = 1;
+        if (best == null)
+            return null;
+
+        deadline = start + budgetNanos;
+        for (int depth = 2; depth <= MAX_DEPTH && System.nanoTime() < deadline; depth++) {
+            Direction candidate = searchRoot(board, depth);
+            if (aborted)
+                break;
+            best = candidate;
+            completedDepth = depth;
+        }
+        return best;
+    }
+
+    private Direction searchRoot(long board, int depth) {
+        Direction best = null;
+        double bestValue = -1;
+        for (Direction direction : DIRECTIONS) {
+            long moved = Bitboards.move(board, direction);
+            if (moved == board)
+                continue;
+            double value = chanceNode(moved, depth - 1, 1.0);
+            if (aborted)
+                return null;
+            if (value > bestValue) {
+                bestValue = value;
+                best = direction;
+            }
+        }
+        return best;
+    }
+
+    private double maxNode(long board, int depth, double probability) {
+        nodes++;
+        double best = 0;
+        for (Direction direction : DIRECTIONS) {
+            long moved = Bitboards.move(board, direction);
+            if (moved != board)
+                best = Math.max(best, chanceNode(moved, depth - 1, probability));
+        }
+        return best;
+    }
+
+    private double chanceNode(long board, int depth, double probability) {
+        nodes++;
+        if (depth <= 0 || probability < PROBABILITY_CUTOFF)
+            return heuristic.evaluate(board);
+        if ((nodes & (TIME_CHECK_INTERVAL - 1)) == 0 && System.nanoTime() > deadline)
+            aborted = true;
+        if (aborted)
+            return 0;
+
+        float cached = table.get(board, depth);
+        if (!Float.isNaN(cached))
+            return cached;
+
+        int empty = Bitboards.emptyCount(board);
+        double twoProbability = probability * 0.9 / empty;
+        double fourProbability = probability * 0.1 / empty;
+        double sum = 0;
+        for (int shift = 0; shift < 64; shift += 4) {
+            if (((board >>> shift) & 0xF) != 0)
+                continue;
+            sum += 0.9 * maxNode(board | (1L << shift), depth, twoProbability);
+            sum += 0.1 * maxNode(board | (2L << shift), depth, fourProbability);
+        }
+        double value = sum / empty;
+
+        if (!aborted)
+            table.put(board, depth, (float) value);
+        return value;
+    }
+}
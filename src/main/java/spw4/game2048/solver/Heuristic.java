@@ -0,0 +1,20 @@
+package spw4.game2048.solver;
+
+import spw4.game2048.Bitboards;
+import spw4.game2048.Game;
+
+/**
+ * Scores a packed board (see {@link spw4.game2048.Bitboards}) from the point of view of the player.
+ * Higher is better; values should not be negative because lost positions are scored 0.
+ */
+@FunctionalInterface
+public interface Heuristic {
+    double evaluate(long board);
+
+    /**
+     * Evaluates the current board of a 4x4 {@code game}.
+     */
+    default double evaluate(Game game) {
+        return evaluate(Bitboards.pack(game));
+    }
+}
@@ -0,0 +1,94 @@
+package spw4.game2048.solver;
+
+import spw4.game2048.Bitboards;
+
+/**
+ * Ready-made {@link Heuristic}s.
+ */
+public final class Heuristics {
+    private static final float LOST_PENALTY = 200000f;
+    private static final float MONOTONICITY_POWER = 4f;
+    private static final float MONOTONICITY_WEIGHT = 47f;
+    private static final float SUM_POWER = 3.5f;
+    private static final float SUM_WEIGHT = 11f;
+    private static final float MERGES_WEIGHT = 700f;
+    private static final float EMPTY_WEIGHT = 270f;
+
+    private static final float[] ROW_SCORES = new float[1 << 16];
+
+    static {
+        for (int row = 0; row < ROW_SCORES.length; row++) {
+            ROW_SCORES[row] = rowScore(row);
+        }
+    }
+
+    private Heuristics() {
+    }
+
+    /**
+     * Weighs empty cells, possible merges, monotonic rows/columns and large tiles,
+     * precomputed per row and summed over all rows and columns.
+     */
+    public static Heuristic standard() {
+        return Heuristics::standardScore;
+    }
+
+    public static Heuristic emptyCells() {
+        return Bitboards::emptyCount;
+    }
+
+    private static double standardScore(long board) {
+        long transposed = Bitboards.transpose(board);
+        return ROW_SCORES[(int) (board & 0xFFFF)]
+                + ROW_SCORES[(int) ((board >>> 16) & 0xFFFF)]
+                + ROW_SCORES[(int) ((board >>> 32) & 0xFFFF)]
+                + ROW_SCORES[(int) (board >>> 48)]
+                + ROW_SCORES[(int) (transposed & 0xFFFF)]
+                + ROW_SCORES[(int) ((transposed >>> 16) & 0xFFFF)]
+                + ROW_SCORES[(int) ((transposed >>> 32) & 0xFFFF)]
+                + ROW_SCORES[(int) (transposed >>> 48)];
+    }
+
+    private static float rowScore(int row) {
+        int[] line = new int[Bitboards.SIZE];
+        for (int i = 0; i < line.length; i++) {
+            line[i] = (row >>> (4 * i)) & 0xF;
+        }
+
+        float sum = 0;
+        int empty = 0;
+        int merges = 0;
+        int previous = 0;
+        int counter = 0;
+        for (int exponent : line) {
+            sum += (float) Math.pow(exponent, SUM_POWER);
+            if (exponent == 0) {
+                empty++;
+            } else {
+                if (previous == exponent) {
+                    counter++;
+                } else if (counter > 0) {
+                    merges += 1 + counter;
+                    counter = 0;
+                }
+                previous = exponent;
+            }
+        }
+        if (counter > 0)
+            merges += 1 + counter;
+
+        float monotonicityLeft = 0;
+        float monotonicityRight = 0;
+        for (int i = 1; i < line.length; i++) {
+            float left = (float) Math.pow(line[i - 1], MONOTONICITY_POWER);
+            float right = (float) Math.pow(line[i], MONOTONICITY_POWER);
+            if (line[i - 1] > line[i])
+                monotonicityLeft += left - right;
+            else
+                monotonicityRight += right - left;
+        }
+
+        return LOST_PENALTY + EMPTY_WEIGHT * empty + MERGES_WEIGHT * merges
+                - MONOTONICITY_WEIGHT * Math.min(monotonicityLeft, monotonicityRight) - SUM_WEIGHT * sum;
+    }
+}
@@ -0,0 +1,43 @@
+package spw4.game2048.solver;
+
+import spw4.game2048.Direction;
+import spw4.game2048.Game;
+
+/**
+ * Plays a {@link Game} to the end with an {@link ExpectimaxSolver}, spending a fixed time budget per move.
+ */
+public class SolverPlayer {
+    private final ExpectimaxSolver solver;
+    private final long budgetNanosPerMove;
+
+    private long elapsedNanos;
+    private long playedMoves;
+    private long searchedNodes;
+
+    public SolverPlayer(ExpectimaxSolver solver, long budgetNanosPerMove) {
+        this.solver = solver;
+        this.budgetNanosPerMove = budgetNanosPerMove;
+    }
+
+    public void play(Game game) {
+        long start = System.nanoTime();
+        long startNodes = solver.getNodes();
+        while (!game.isOver()) {
+            Direction direction = solver.bestMoveWithin(game, budgetNanosPerMove);
+            if (direction == null)
+                break;
+            game.move(direction);
+            playedMoves++;
+        }
+        elapsedNanos += System.nanoTime() - start;
+        searchedNodes += solver.getNodes() - startNodes;
+    }
+
+    public double getMovesPerSecond() {
+        return elapsedNanos == 0 ? 0 : playedMoves * 1e9 / elapsedNanos;
+    }
+
+    public double getNodesPerSecond() {
+        return elapsedNanos == 0 ? 0 : searchedNodes * 1e9 / elapsedNanos;
+    }
+}
@@ -0,0 +1,98 @@
+package spw4.game2048.solver;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size cache of search results keyed on packed boards.
+ * <p>
+ * Slots are grouped into buckets of two. A new entry replaces the bucket slot that was searched
+ * shallower, so the table never grows beyond the capacity given at construction.
+ */
+public class TranspositionTable {
+    public static final int MAX_CAPACITY = 1 << 30;
+    private static final int WAYS = 2;
+
+    private final long[] keys;
+    private final float[] values;
+    private final byte[] depths;
+    private final int bucketMask;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * @param capacity maximum number of entries, rounded up to a power of two; at most {@value #MAX_CAPACITY}
+     */
+    public TranspositionTable(int capacity) {
+        if (capacity < WAYS)
+            throw new IllegalArgumentException("capacity must be at least " + WAYS);
+        if (capacity > MAX_CAPACITY)
+            throw new IllegalArgumentException("capacity must not exceed " + MAX_CAPACITY);
+        int slots = Integer.highestOneBit(capacity - 1) << 1;
+        keys = new long[slots];
+        values = new float[slots];
+        depths = new byte[slots];
+        bucketMask = slots / WAYS - 1;
+    }
+
+    public int capacity() {
+        return keys.length;
+    }
+
+    /**
+     * Returns the stored value if {@code board} was searched at least {@code depth} deep, otherwise {@code NaN}.
+     */
+    public float get(long board, int depth) {
+        int slot = bucketOf(board);
+        for (int i = slot; i < slot + WAYS; i++) {
+            if (keys[i] == board && board != 0 && depths[i] >= depth) {
+                hits++;
+                return values[i];
+            }
+        }
+        misses++;
+        return Float.NaN;
+    }
+
+    public void put(long board, int depth, float value) {
+        if (board == 0)
+            return;
+        int slot = bucketOf(board);
+        int target = slot;
+        for (int i = slot; i < slot + WAYS; i++) {
+            if (keys[i] == board || keys[i] == 0) {
+                target = i;
+                break;
+            }
+            if (depths[i] < depths[target])
+                target = i;
+        }
+        if (keys[target] != 0 && keys[target] != board)
+            evictions++;
+        keys[target] = board;
+        values[target] = value;
+        depths[target] = (byte) depth;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, 0);
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    private int bucketOf(long board) {
+        long hash = board * 0x9E3779B97F4A7C15L;
+        return ((int) (hash >>> 32) & bucketMask) * WAYS;
+    }
+}
@@ -0,0 +1,22 @@
+package spw4.game2048.tablebase;
+
+import java.util.Arrays;
+
+/**
+ * Growable array of primitive {@code byte}s.
+ */
+final class ByteList {
+    private byte[] values = new byte[1024];
+    private int size;
+
+    void addAll(byte[] other) {
+        if (size + other.length > values.length)
+            values = Arrays.copyOf(values, Math.max(size + other.length, size * 2));
+        System.arraycopy(other, 0, values, size, other.length);
+        size += other.length;
+    }
+
+    byte[] toArray() {
+        return Arrays.copyOf(values, size);
+    }
+}
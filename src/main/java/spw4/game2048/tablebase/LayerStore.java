@@ -0,0 +1,109 @@
+package spw4.game2048.tablebase;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.stream.Stream;
+
+import static spw4.game2048.tablebase.TablebaseFormat.ORDER;
+
+/**
+ * Work directory of a generator: one file per finished layer and part ({@code <prefix>-<layer>.keys},
+ * {@code .values}, {@code .moves}) holding the raw little-endian array. Files appear atomically, so whatever
+ * exists after a crash is complete and a restarted generator continues from there.
+ */
+final class LayerStore {
+    static final String KEYS = "keys";
+    static final String VALUES = "values";
+    static final String MOVES = "moves";
+
+    private final Path directory;
+    private final String prefix;
+
+    LayerStore(Path directory, String prefix) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.prefix = prefix;
+    }
+
+    Path path(int layer, String part) {
+        return directory.resolve(prefix + "-" + layer + "." + part);
+    }
+
+    boolean has(int layer, String part) {
+        return Files.exists(path(layer, part));
+    }
+
+    /**
+     * Returns the layers that have a file of {@code part}, ascending.
+     */
+    int[] layers(String part) throws IOException {
+        String start = prefix + "-";
+        String end = "." + part;
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> file.getFileName().toString())
+                    .filter(name -> name.startsWith(start) && name.endsWith(end))
+                    .mapToInt(name -> Integer.parseInt(name.substring(start.length(), name.length() - end.length())))
+                    .sorted()
+                    .toArray();
+        }
+    }
+
+    long[] readKeys(int layer) throws IOException {
+        ByteBuffer buffer = map(layer, KEYS);
+        long[] keys = new long[buffer.remaining() / Long.BYTES];
+        buffer.asLongBuffer().get(keys);
+        return keys;
+    }
+
+    float[] readValues(int layer) throws IOException {
+        ByteBuffer buffer = map(layer, VALUES);
+        float[] values = new float[buffer.remaining() / Float.BYTES];
+        buffer.asFloatBuffer().get(values);
+        return values;
+    }
+
+    byte[] readMoves(int layer) throws IOException {
+        ByteBuffer buffer = map(layer, MOVES);
+        byte[] moves = new byte[buffer.remaining()];
+        buffer.get(moves);
+        return moves;
+    }
+
+    void writeKeys(int layer, long[] keys) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(keys.length * Long.BYTES).order(ORDER);
+        buffer.asLongBuffer().put(keys);
+        write(layer, KEYS, buffer);
+    }
+
+    void writeValues(int layer, float[] values) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(values.length * Float.BYTES).order(ORDER);
+        buffer.asFloatBuffer().put(values);
+        write(layer, VALUES, buffer);
+    }
+
+    void writeMoves(int layer, byte[] moves) throws IOException {
+        write(layer, MOVES, ByteBuffer.wrap(moves));
+    }
+
+    private ByteBuffer map(int layer, String part) throws IOException {
+        try (var channel = FileChannel.open(path(layer, part), StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()).order(ORDER);
+        }
+    }
+
+    private void write(int layer, String part, ByteBuffer buffer) throws IOException {
+        Path target = path(layer, part);
+        Path temporary = target.resolveSibling(target.getFileName() + ".tmp");
+        try (var channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE)) {
+            while (buffer.hasRemaining())
+                channel.write(buffer);
+            channel.force(false);
+        }
+        Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
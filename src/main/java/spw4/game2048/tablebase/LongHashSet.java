@@ -0,0 +1,69 @@
+package spw4.game2048.tablebase;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing set of primitive {@code long}s other than 0, which marks a free slot. Boards with tiles are
+ * never 0, so duplicates from many parents collapse on insertion instead of being sorted away later.
+ */
+final class LongHashSet {
+    private long[] slots = new long[1024];
+    private int size;
+
+    void add(long value) {
+        if (value == 0)
+            throw new IllegalArgumentException("0 cannot be stored");
+        if (2 * (size + 1) > slots.length)
+            grow();
+        if (insert(slots, value))
+            size++;
+    }
+
+    void addAll(LongHashSet other) {
+        for (long value : other.slots) {
+            if (value != 0)
+                add(value);
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    long[] toSortedArray() {
+        long[] values = new long[size];
+        int count = 0;
+        for (long value : slots) {
+            if (value != 0)
+                values[count++] = value;
+        }
+        Arrays.sort(values);
+        return values;
+    }
+
+    static int slot(long value, int mask) {
+        long hash = value * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    private static boolean insert(long[] slots, long value) {
+        int mask = slots.length - 1;
+        for (int slot = slot(value, mask); ; slot = (slot + 1) & mask) {
+            if (slots[slot] == value)
+                return false;
+            if (slots[slot] == 0) {
+                slots[slot] = value;
+                return true;
+            }
+        }
+    }
+
+    private void grow() {
+        long[] grown = new long[slots.length * 2];
+        for (long value : slots) {
+            if (value != 0)
+                insert(grown, value);
+        }
+        slots = grown;
+    }
+}
@@ -0,0 +1,26 @@
+package spw4.game2048.tablebase;
+
+import java.util.Arrays;
+
+/**
+ * Growable array of primitive {@code long}s.
+ */
+final class LongList {
+    private long[] values = new long[1024];
+    private int size;
+
+    void addAll(long[] other) {
+        if (size + other.length > values.length)
+            values = Arrays.copyOf(values, Math.max(size + other.length, size * 2));
+        System.arraycopy(other, 0, values, size, other.length);
+        size += other.length;
+    }
+
+    int size() {
+        return size;
+    }
+
+    long[] toArray() {
+        return Arrays.copyOf(values, size);
+    }
+}
@@ -0,0 +1,137 @@
+package spw4.game2048.tablebase;
+
+import spw4.game2048.Bitboards;
+import spw4.game2048.Direction;
+import spw4.game2048.Symmetries;
+import spw4.game2048.solver.ExpectimaxSolver;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static spw4.game2048.tablebase.TablebaseFormat.NO_MOVE;
+import static spw4.game2048.tablebase.TablebaseFormat.ANY_WINNING_EXPONENT;
+import static spw4.game2048.tablebase.TablebaseFormat.SYMMETRIC;
+
+/**
+ * Precomputes the best move of the 4x4 opening: every start position and, for a number of plies, every position
+ * that follows when the book's own move is played and any tile spawns. Moves come from an
+ * {@link ExpectimaxSolver} search per position, far deeper than a game can afford in the opening; the book stores
+ * no values. Positions are kept {@link Symmetries#canonical(long) canonical}, so each class of 8 symmetric boards
+ * is searched once.
+ * <p>
+ * Plies are searched in parallel, one solver per thread, and every finished ply is written to the work
+ * directory; a restarted generator continues with the first ply it does not find there.
+ */
+public class OpeningBookGenerator {
+    private static final int CELLS = Bitboards.SIZE * Bitboards.SIZE;
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private final int plies;
+    private final int depth;
+    private final int threads;
+    private final LayerStore store;
+
+    /**
+     * @param plies number of own moves covered, 1 for the start positions only
+     * @param depth expectimax search depth per position
+     */
+    public OpeningBookGenerator(int plies, int depth, int threads, Path workDirectory) throws IOException {
+        if (plies < 1 || depth < 1 || threads < 1)
+            throw new IllegalArgumentException("plies, depth and threads must be positive");
+        this.plies = plies;
+        this.depth = depth;
+        this.threads = threads;
+        this.store = new LayerStore(workDirectory, "ply");
+    }
+
+    public void generate(Path output) throws IOException {
+        var keys = new LongList();
+        var moves = new ByteList();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            long[] plyKeys = null;
+            byte[] plyMoves = null;
+            for (int ply = 0; ply < plies; ply++) {
+                if (store.has(ply, LayerStore.MOVES)) {
+                    plyKeys = store.readKeys(ply);
+                    plyMoves = store.readMoves(ply);
+                } else {
+                    plyKeys = ply == 0 ? startPositions() : successors(plyKeys, plyMoves);
+                    plyMoves = search(executor, plyKeys);
+                    store.writeKeys(ply, plyKeys);
+                    store.writeMoves(ply, plyMoves);
+                }
+                keys.addAll(plyKeys);
+                moves.addAll(plyMoves);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        float[] values = new float[keys.size()];
+        Arrays.fill(values, Float.NaN);
+        TablebaseWriter.write(output, Bitboards.SIZE, SYMMETRIC, ANY_WINNING_EXPONENT, keys.toArray(), values,
+                moves.toArray());
+    }
+
+    /**
+     * Arguments: output file, plies, search depth, work directory, threads.
+     */
+    public static void main(String[] args) throws IOException {
+        Path output = Path.of(args[0]);
+        int plies = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+        int depth = args.length > 2 ? Integer.parseInt(args[2]) : 4;
+        Path work = Path.of(args.length > 3 ? args[3] : output + ".work");
+        int threads = args.length > 4 ? Integer.parseInt(args[4]) : Runtime.getRuntime().availableProcessors();
+
+        long start = System.nanoTime();
+        new OpeningBookGenerator(plies, depth, threads, work).generate(output);
+        System.out.printf("%d positions in %.1f s%n", Tablebase.open(output).getEntries(), (System.nanoTime() - start) / 1e9);
+    }
+
+    private static long[] startPositions() {
+        var positions = new LongHashSet();
+        for (int first = 0; first < CELLS; first++) {
+            for (int second = first + 1; second < CELLS; second++) {
+                for (long a = 1; a <= 2; a++) {
+                    for (long b = 1; b <= 2; b++) {
+                        positions.add(Symmetries.canonical(a << (4 * first) | b << (4 * second)));
+                    }
+                }
+            }
+        }
+        return positions.toSortedArray();
+    }
+
+    private static long[] successors(long[] boards, byte[] moves) {
+        var positions = new LongHashSet();
+        for (int i = 0; i < boards.length; i++) {
+            if (moves[i] == NO_MOVE)
+                continue;
+            long moved = Bitboards.move(boards[i], DIRECTIONS[moves[i]]);
+            for (int cell = 0; cell < CELLS; cell++) {
+                if ((moved >>> (4 * cell) & 0xF) != 0)
+                    continue;
+                positions.add(Symmetries.canonical(moved | 1L << (4 * cell)));
+                positions.add(Symmetries.canonical(moved | 2L << (4 * cell)));
+            }
+        }
+        return positions.toSortedArray();
+    }
+
+    private byte[] search(ExecutorService executor, long[] boards) {
+        byte[] moves = new byte[boards.length];
+        var solvers = new ExpectimaxSolver[threads];
+        ParallelRange.run(executor, threads, boards.length, (worker, start, end) -> {
+            if (solvers[worker] == null)
+                solvers[worker] = new ExpectimaxSolver();
+            for (int i = start; i < end; i++) {
+                Direction best = solvers[worker].bestMove(boards[i], depth);
+                moves[i] = best == null ? NO_MOVE : (byte) best.ordinal();
+            }
+        });
+        return moves;
+    }
+}
@@ -0,0 +1,47 @@
+package spw4.game2048.tablebase;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Splits {@code [0, count)} into chunks that a fixed number of workers claim one after the other.
+ */
+final class ParallelRange {
+    private static final int CHUNK = 4096;
+
+    @FunctionalInterface
+    interface Body {
+        void run(int worker, int start, int end);
+    }
+
+    private ParallelRange() {
+    }
+
+    static void run(ExecutorService executor, int workers, int count, Body body) {
+        var next = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>(workers);
+        for (int i = 0; i < workers; i++) {
+            int worker = i;
+            futures.add(executor.submit(() -> {
+                int start;
+                while ((start = next.getAndAdd(CHUNK)) < count) {
+                    body.run(worker, start, Math.min(start + CHUNK, count));
+                }
+            }));
+        }
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Generation interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Generation failed", e.getCause());
+        }
+    }
+}
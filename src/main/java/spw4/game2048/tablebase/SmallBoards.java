@@ -0,0 +1,143 @@
+package spw4.game2048.tablebase;
+
+import spw4.game2048.Direction;
+
+/**
+ * {@link spw4.game2048.GameImpl}'s rules on boards of size 2 to 4 packed like {@link spw4.game2048.Bitboards}
+ * boards, one exponent per nibble, but with cell {@code (x, y)} at nibble {@code y * size + x}. Rows are moved by
+ * lookups in per-size tables, columns by transposing first.
+ */
+final class SmallBoards {
+    static final int MAX_SIZE = 4;
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+    private static final char[][] LEFT = new char[MAX_SIZE + 1][];
+    private static final char[][] RIGHT = new char[MAX_SIZE + 1][];
+    private static final int[][] LEFT_SCORE = new int[MAX_SIZE + 1][];
+    private static final int[][] RIGHT_SCORE = new int[MAX_SIZE + 1][];
+
+    static {
+        for (int size = 2; size <= MAX_SIZE; size++) {
+            int rows = 1 << (4 * size);
+            LEFT[size] = new char[rows];
+            RIGHT[size] = new char[rows];
+            LEFT_SCORE[size] = new int[rows];
+            RIGHT_SCORE[size] = new int[rows];
+            for (int row = 0; row < rows; row++) {
+                long left = slide(row, size);
+                long right = slide(reverse(row, size), size);
+                LEFT[size][row] = (char) left;
+                LEFT_SCORE[size][row] = (int) (left >>> 16);
+                RIGHT[size][row] = (char) reverse((int) right & 0xFFFF, size);
+                RIGHT_SCORE[size][row] = (int) (right >>> 16);
+            }
+        }
+    }
+
+    private SmallBoards() {
+    }
+
+    static long move(long board, Direction direction, int size) {
+        return switch (direction) {
+            case left -> moveRows(board, LEFT[size], size);
+            case right -> moveRows(board, RIGHT[size], size);
+            case up -> transpose(moveRows(transpose(board, size), LEFT[size], size), size);
+            case down -> transpose(moveRows(transpose(board, size), RIGHT[size], size), size);
+        };
+    }
+
+    static int score(long board, Direction direction, int size) {
+        return switch (direction) {
+            case left -> scoreRows(board, LEFT_SCORE[size], size);
+            case right -> scoreRows(board, RIGHT_SCORE[size], size);
+            case up -> scoreRows(transpose(board, size), LEFT_SCORE[size], size);
+            case down -> scoreRows(transpose(board, size), RIGHT_SCORE[size], size);
+        };
+    }
+
+    static int maxExponent(long board) {
+        int max = 0;
+        for (int shift = 0; shift < 64; shift += 4) {
+            max = Math.max(max, (int) (board >>> shift) & 0xF);
+        }
+        return max;
+    }
+
+    static int tileSum(long board) {
+        int sum = 0;
+        for (int shift = 0; shift < 64; shift += 4) {
+            int exponent = (int) (board >>> shift) & 0xF;
+            if (exponent != 0)
+                sum += 1 << exponent;
+        }
+        return sum;
+    }
+
+    /**
+     * Slides and merges the {@code length} exponents of {@code row} towards nibble 0, each tile merging at most once.
+     * Returns the new row in the low 16 bits and the score gained above them.
+     */
+    static long slide(int row, int length) {
+        int result = 0;
+        int out = 0;
+        int score = 0;
+        int pending = 0;
+        for (int i = 0; i < length; i++) {
+            int exponent = (row >>> (4 * i)) & 0xF;
+            if (exponent == 0)
+                continue;
+            if (pending == 0) {
+                pending = exponent;
+            } else if (pending == exponent) {
+                int merged = Math.min(exponent + 1, 15);
+                result |= merged << (4 * out++);
+                score += 1 << (exponent + 1);
+                pending = 0;
+            } else {
+                result |= pending << (4 * out++);
+                pending = exponent;
+            }
+        }
+        if (pending != 0)
+            result |= pending << (4 * out);
+        return (long) score << 16 | result;
+    }
+
+    static long transpose(long board, int size) {
+        long transposed = 0;
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                transposed |= (board >>> (4 * (y * size + x)) & 0xF) << (4 * (x * size + y));
+            }
+        }
+        return transposed;
+    }
+
+    private static long moveRows(long board, char[] table, int size) {
+        int bits = 4 * size;
+        int mask = (1 << bits) - 1;
+        long result = 0;
+        for (int y = 0; y < size; y++) {
+            result |= (long) table[(int) (board >>> (bits * y)) & mask] << (bits * y);
+        }
+        return result;
+    }
+
+    private static int scoreRows(long board, int[] table, int size) {
+        int bits = 4 * size;
+        int mask = (1 << bits) - 1;
+        int score = 0;
+        for (int y = 0; y < size; y++) {
+            score += table[(int) (board >>> (bits * y)) & mask];
+        }
+        return score;
+    }
+
+    private static int reverse(int row, int length) {
+        int reversed = 0;
+        for (int i = 0; i < length; i++) {
+            reversed |= ((row >>> (4 * i)) & 0xF) << (4 * (length - 1 - i));
+        }
+        return reversed;
+    }
+}
@@ -0,0 +1,198 @@
+package spw4.game2048.tablebase;
+
+import spw4.game2048.Bitboards;
+import spw4.game2048.Direction;
+import spw4.game2048.Game;
+import spw4.game2048.Symmetries;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import static spw4.game2048.tablebase.TablebaseFormat.*;
+
+/**
+ * Memory-mapped table of solved positions written by {@link TablebaseGenerator} or {@link OpeningBookGenerator}.
+ * Boards are packed one exponent per nibble, cell {@code (x, y)} at nibble {@code y * size + x}; for 4x4 boards that
+ * is the {@link spw4.game2048.Bitboards} layout.
+ * <p>
+ * Lookups binary search the mapped keys of the board's tile sum layer and never allocate. Safe to share between
+ * threads.
+ */
+public final class Tablebase {
+    /**
+     * {@link #getWinningTile()} of a table whose moves hold whatever tile wins, such as an opening book.
+     */
+    public static final int ANY_WINNING_TILE = -1;
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private final int boardSize;
+    private final int winningTile;
+    private final boolean symmetric;
+    private final long entries;
+    private final int[] sums;
+    private final int[] firsts;
+    private final int[] counts;
+    private final LongBuffer keys;
+    private final FloatBuffer values;
+    private final ByteBuffer moves;
+
+    private Tablebase(int boardSize, int winningTile, boolean symmetric, int[] sums, int[] firsts, int[] counts,
+                      LongBuffer keys, FloatBuffer values, ByteBuffer moves) {
+        this.boardSize = boardSize;
+        this.winningTile = winningTile;
+        this.symmetric = symmetric;
+        this.entries = keys.capacity();
+        this.sums = sums;
+        this.firsts = firsts;
+        this.counts = counts;
+        this.keys = keys;
+        this.values = values;
+        this.moves = moves;
+    }
+
+    public static Tablebase open(Path path) throws IOException {
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES)
+                throw new IOException("Not a tablebase: too short");
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES).order(ORDER);
+            if (header.getInt() != MAGIC)
+                throw new IOException("Not a tablebase: bad magic");
+            short version = header.getShort();
+            if (version != VERSION)
+                throw new IOException("Unsupported tablebase version " + version);
+            int boardSize = header.get();
+            int flags = header.get();
+            int layers = header.getInt();
+            int winningExponent = header.getInt();
+            long entries = header.getLong();
+            long keysOffset = keysOffset(layers);
+            boolean validWinning = winningExponent == ANY_WINNING_EXPONENT || winningExponent == 0
+                    || (winningExponent >= 2 && winningExponent <= Bitboards.MAX_EXPONENT);
+            if (boardSize < 2 || boardSize > SmallBoards.MAX_SIZE || !validWinning || layers < 0 || entries < 0
+                    || entries > Integer.MAX_VALUE / Long.BYTES || keysOffset + 13 * entries != size)
+                throw new IOException("Corrupt tablebase header");
+
+            ByteBuffer directory = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES, keysOffset - HEADER_BYTES)
+                    .order(ORDER);
+            int[] sums = new int[layers];
+            int[] firsts = new int[layers];
+            int[] counts = new int[layers];
+            for (int i = 0; i < layers; i++) {
+                sums[i] = directory.getInt();
+                directory.getInt();
+                firsts[i] = (int) directory.getLong();
+                counts[i] = (int) directory.getLong();
+                if ((i > 0 && sums[i] <= sums[i - 1]) || firsts[i] < 0 || counts[i] < 0
+                        || (long) firsts[i] + counts[i] > entries)
+                    throw new IOException("Corrupt tablebase layer " + i);
+            }
+
+            LongBuffer keys = channel.map(FileChannel.MapMode.READ_ONLY, keysOffset, Long.BYTES * entries)
+                    .order(ORDER).asLongBuffer();
+            FloatBuffer values = channel.map(FileChannel.MapMode.READ_ONLY, keysOffset + Long.BYTES * entries,
+                    Float.BYTES * entries).order(ORDER).asFloatBuffer();
+            ByteBuffer moves = channel.map(FileChannel.MapMode.READ_ONLY, keysOffset + 12 * entries, entries);
+            int winningTile = switch (winningExponent) {
+                case ANY_WINNING_EXPONENT -> ANY_WINNING_TILE;
+                case 0 -> Game.NO_WINNING_TILE;
+                default -> 1 << winningExponent;
+            };
+            return new Tablebase(boardSize, winningTile, (flags & SYMMETRIC) != 0, sums, firsts, counts, keys, values,
+                    moves);
+        }
+    }
+
+    /**
+     * Packs the board of {@code game} the way the table keys are packed, which is {@link Game#packBoard()}.
+     */
+    public static long pack(Game game) {
+        return game.packBoard();
+    }
+
+    public int getBoardSize() {
+        return boardSize;
+    }
+
+    /**
+     * Returns the tile that ended the solved games, {@link Game#NO_WINNING_TILE} if they went on until no move
+     * was left, or {@link #ANY_WINNING_TILE}.
+     */
+    public int getWinningTile() {
+        return winningTile;
+    }
+
+    public long getEntries() {
+        return entries;
+    }
+
+    public boolean contains(long board) {
+        return indexOf(key(board)) >= 0;
+    }
+
+    /**
+     * Returns the expected score still to be gained from {@code board} with best play, or NaN if the board is
+     * not in the table or has no value.
+     */
+    public float value(long board) {
+        int index = indexOf(key(board));
+        return index < 0 ? Float.NaN : values.get(index);
+    }
+
+    /**
+     * Returns the best move on {@code board}, or {@code null} if the board is not in the table or the game is over.
+     */
+    public Direction bestMove(long board) {
+        long key = key(board);
+        int index = indexOf(key);
+        if (index < 0)
+            return null;
+        int move = moves.get(index);
+        if (move == NO_MOVE)
+            return null;
+        Direction direction = DIRECTIONS[move];
+        return symmetric ? Symmetries.unmapDirection(direction, Symmetries.canonicalTransform(board)) : direction;
+    }
+
+    /**
+     * Looks up the current board of {@code game}, see {@link #bestMove(long)}. Returns {@code null} as well if the
+     * table was solved for another board size or winning tile than the game plays with.
+     */
+    public Direction bestMove(Game game) {
+        if (game.getBoardSize() != boardSize)
+            return null;
+        if (winningTile != ANY_WINNING_TILE && winningTile != game.getWinningTile())
+            return null;
+        return bestMove(game.packBoard());
+    }
+
+    private long key(long board) {
+        return symmetric ? Symmetries.canonical(board) : board;
+    }
+
+    private int indexOf(long key) {
+        int layer = Arrays.binarySearch(sums, SmallBoards.tileSum(key));
+        if (layer < 0)
+            return -1;
+        int low = firsts[layer];
+        int high = low + counts[layer] - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            long candidate = keys.get(middle);
+            if (candidate < key)
+                low = middle + 1;
+            else if (candidate > key)
+                high = middle - 1;
+            else
+                return middle;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,37 @@
+package spw4.game2048.tablebase;
+
+import java.nio.ByteOrder;
+
+/**
+ * Layout of a tablebase file. All numbers are little-endian.
+ * <pre>
+ * header   int magic, short version, byte board size, byte flags, int layer count, int winning exponent, long entries
+ * layers   per layer, by ascending tile sum: int tile sum, int reserved, long first entry, long entries
+ * keys     long per entry: the packed board (see SmallBoards), ascending within each layer
+ * values   float per entry: expected score still to be gained, NaN if unknown
+ * moves    byte per entry: ordinal of the best Direction, or NO_MOVE if the game is over
+ * </pre>
+ * Every move adds 2 or 4 to the tile sum, so a generator can finish one layer after the other, and a lookup
+ * only binary searches the layer of its board's sum. With {@link #SYMMETRIC} set, keys are
+ * {@link spw4.game2048.Symmetries#canonical(long) canonical} 4x4 boards and moves refer to those.
+ * <p>
+ * The winning exponent is that of the tile that ended the solved games, 0 if they went on until no move was left,
+ * or {@link #ANY_WINNING_EXPONENT} if the moves hold whatever the winning tile.
+ */
+final class TablebaseFormat {
+    static final int MAGIC = 0x32544231;
+    static final short VERSION = 2;
+    static final int HEADER_BYTES = 24;
+    static final int LAYER_BYTES = 24;
+    static final int SYMMETRIC = 1;
+    static final byte NO_MOVE = -1;
+    static final int ANY_WINNING_EXPONENT = -1;
+    static final ByteOrder ORDER = ByteOrder.LITTLE_ENDIAN;
+
+    private TablebaseFormat() {
+    }
+
+    static long keysOffset(int layers) {
+        return HEADER_BYTES + (long) LAYER_BYTES * layers;
+    }
+}
@@ -0,0 +1,242 @@
+package spw4.game2048.tablebase;
+
+import spw4.game2048.Direction;
+import spw4.game2048.GameImpl;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static spw4.game2048.tablebase.TablebaseFormat.NO_MOVE;
+
+/**
+ * Solves 2x2 and 3x3 games under {@link GameImpl}'s rules exactly: for every reachable position the expected score
+ * still to be gained with best play and the move that achieves it. Tiles spawn as in
+ * {@link spw4.game2048.solver.ExpectimaxSolver}, a 2 (90%) or a 4 (10%) on a uniformly chosen empty cell.
+ * <p>
+ * Moves keep the tile sum and spawns raise it by 2 or 4, so positions fall into layers by tile sum. A forward
+ * pass enumerates the layers in ascending order, a backward pass values them in descending order, each layer
+ * in parallel. Every finished layer is written to the work directory, and a restarted generator continues
+ * after the last one found there.
+ */
+public class TablebaseGenerator {
+    private static final Direction[] DIRECTIONS = Direction.values();
+    private static final int NO_WINNING_EXPONENT = 16;
+
+    private final int size;
+    private final int cells;
+    private final int winningExponent;
+    private final int threads;
+    private final LayerStore store;
+
+    /**
+     * @param winningTile tile that ends the game, or {@link GameImpl#NO_WINNING_TILE} to play until no move is left
+     */
+    public TablebaseGenerator(int size, int winningTile, int threads, Path workDirectory) throws IOException {
+        if (size < 2 || size > 3)
+            throw new IllegalArgumentException("Only 2x2 and 3x3 boards can be solved exactly");
+        if (winningTile != GameImpl.NO_WINNING_TILE && (winningTile < 4 || Integer.bitCount(winningTile) != 1))
+            throw new IllegalArgumentException("Winning tile must be a power of two of at least 4");
+        if (threads < 1)
+            throw new IllegalArgumentException("threads must be positive");
+        this.size = size;
+        this.cells = size * size;
+        this.winningExponent = winningTile == GameImpl.NO_WINNING_TILE
+                ? NO_WINNING_EXPONENT : Integer.numberOfTrailingZeros(winningTile);
+        this.threads = threads;
+        this.store = new LayerStore(workDirectory, "sum");
+    }
+
+    public void generate(Path output) throws IOException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            enumerate(executor);
+            int[] sums = store.layers(LayerStore.KEYS);
+            solve(executor, sums);
+            int storedExponent = winningExponent == NO_WINNING_EXPONENT ? 0 : winningExponent;
+            TablebaseWriter.assemble(store, sums, output, size, 0, storedExponent);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Arguments: board size, winning tile (0 for none), output file, work directory, threads.
+     */
+    public static void main(String[] args) throws IOException {
+        int size = Integer.parseInt(args[0]);
+        int winningTile = Integer.parseInt(args[1]);
+        Path output = Path.of(args[2]);
+        Path work = Path.of(args.length > 3 ? args[3] : output + ".work");
+        int threads = args.length > 4 ? Integer.parseInt(args[4]) : Runtime.getRuntime().availableProcessors();
+
+        long start = System.nanoTime();
+        new TablebaseGenerator(size, winningTile, threads, work).generate(output);
+        System.out.printf("%d positions in %.1f s%n", Tablebase.open(output).getEntries(), (System.nanoTime() - start) / 1e9);
+    }
+
+    private void enumerate(ExecutorService executor) throws IOException {
+        int[] done = store.layers(LayerStore.KEYS);
+        int last = done.length == 0 ? 0 : done[done.length - 1];
+        TreeMap<Integer, LongHashSet> pending = new TreeMap<>();
+        for (int first = 0; first < cells; first++) {
+            for (int second = first + 1; second < cells; second++) {
+                for (int a = 1; a <= 2; a++) {
+                    for (int b = 1; b <= 2; b++) {
+                        long board = (long) a << (4 * first) | (long) b << (4 * second);
+                        if (SmallBoards.tileSum(board) > last)
+                            pending.computeIfAbsent(SmallBoards.tileSum(board), sum -> new LongHashSet()).add(board);
+                    }
+                }
+            }
+        }
+        for (int sum : new int[]{last - 2, last}) {
+            if (sum > 0 && store.has(sum, LayerStore.KEYS))
+                expand(executor, store.readKeys(sum), sum, pending);
+        }
+        pending.headMap(last, true).clear();
+
+        while (!pending.isEmpty()) {
+            var next = pending.pollFirstEntry();
+            long[] layer = next.getValue().toSortedArray();
+            store.writeKeys(next.getKey(), layer);
+            expand(executor, layer, next.getKey(), pending);
+        }
+    }
+
+    private void expand(ExecutorService executor, long[] layer, int sum, TreeMap<Integer, LongHashSet> pending) {
+        LongHashSet[] twos = new LongHashSet[threads];
+        LongHashSet[] fours = new LongHashSet[threads];
+        for (int i = 0; i < threads; i++) {
+            twos[i] = new LongHashSet();
+            fours[i] = new LongHashSet();
+        }
+        ParallelRange.run(executor, threads, layer.length, (worker, start, end) -> {
+            for (int i = start; i < end; i++) {
+                long board = layer[i];
+                if (SmallBoards.maxExponent(board) >= winningExponent)
+                    continue;
+                for (Direction direction : DIRECTIONS) {
+                    long moved = SmallBoards.move(board, direction, size);
+                    if (moved == board)
+                        continue;
+                    for (int cell = 0; cell < cells; cell++) {
+                        if ((moved >>> (4 * cell) & 0xF) != 0)
+                            continue;
+                        twos[worker].add(moved | 1L << (4 * cell));
+                        fours[worker].add(moved | 2L << (4 * cell));
+                    }
+                }
+            }
+        });
+        for (int i = 0; i < threads; i++) {
+            if (twos[i].size() > 0)
+                pending.computeIfAbsent(sum + 2, key -> new LongHashSet()).addAll(twos[i]);
+            if (fours[i].size() > 0)
+                pending.computeIfAbsent(sum + 4, key -> new LongHashSet()).addAll(fours[i]);
+        }
+    }
+
+    private void solve(ExecutorService executor, int[] sums) throws IOException {
+        Map<Integer, Layer> solved = new HashMap<>();
+        for (int i = sums.length - 1; i >= 0; i--) {
+            int sum = sums[i];
+            if (store.has(sum, LayerStore.VALUES))
+                continue;
+            Layer twos = load(solved, sum + 2);
+            Layer fours = load(solved, sum + 4);
+            long[] keys = store.readKeys(sum);
+            float[] values = new float[keys.length];
+            byte[] moves = new byte[keys.length];
+            ParallelRange.run(executor, threads, keys.length, (worker, start, end) -> {
+                for (int k = start; k < end; k++) {
+                    solve(keys[k], twos, fours, values, moves, k);
+                }
+            });
+            store.writeMoves(sum, moves);
+            store.writeValues(sum, values);
+            solved.keySet().removeIf(key -> key > sum + 2);
+            solved.put(sum, new Layer(keys, values));
+        }
+    }
+
+    private void solve(long board, Layer twos, Layer fours, float[] values, byte[] moves, int index) {
+        double best = 0;
+        byte bestMove = NO_MOVE;
+        if (SmallBoards.maxExponent(board) < winningExponent) {
+            for (Direction direction : DIRECTIONS) {
+                long moved = SmallBoards.move(board, direction, size);
+                if (moved == board)
+                    continue;
+                double value = SmallBoards.score(board, direction, size) + spawnValue(moved, twos, fours);
+                if (bestMove == NO_MOVE || value > best) {
+                    best = value;
+                    bestMove = (byte) direction.ordinal();
+                }
+            }
+        }
+        values[index] = (float) best;
+        moves[index] = bestMove;
+    }
+
+    private double spawnValue(long board, Layer twos, Layer fours) {
+        double sum = 0;
+        int empty = 0;
+        for (int cell = 0; cell < cells; cell++) {
+            if ((board >>> (4 * cell) & 0xF) != 0)
+                continue;
+            empty++;
+            sum += 0.9 * twos.value(board | 1L << (4 * cell)) + 0.1 * fours.value(board | 2L << (4 * cell));
+        }
+        return sum / empty;
+    }
+
+    private Layer load(Map<Integer, Layer> solved, int sum) throws IOException {
+        Layer layer = solved.get(sum);
+        if (layer == null) {
+            layer = store.has(sum, LayerStore.VALUES)
+                    ? new Layer(store.readKeys(sum), store.readValues(sum))
+                    : new Layer(new long[0], new float[0]);
+            solved.put(sum, layer);
+        }
+        return layer;
+    }
+
+    /**
+     * A solved layer with an open-addressing index from board to position, as the backward pass looks up
+     * several children per board.
+     */
+    private static final class Layer {
+        private final long[] keys;
+        private final float[] values;
+        private final int[] index;
+
+        Layer(long[] keys, float[] values) {
+            this.keys = keys;
+            this.values = values;
+            index = new int[Math.max(2, Integer.highestOneBit(Math.max(1, keys.length)) * 4)];
+            Arrays.fill(index, -1);
+            int mask = index.length - 1;
+            for (int i = 0; i < keys.length; i++) {
+                int slot = LongHashSet.slot(keys[i], mask);
+                while (index[slot] >= 0)
+                    slot = (slot + 1) & mask;
+                index[slot] = i;
+            }
+        }
+
+        float value(long board) {
+            int mask = index.length - 1;
+            for (int slot = LongHashSet.slot(board, mask); index[slot] >= 0; slot = (slot + 1) & mask) {
+                if (keys[index[slot]] == board)
+                    return values[index[slot]];
+            }
+            throw new IllegalStateException("Board " + Long.toHexString(board) + " was not enumerated");
+        }
+    }
+}
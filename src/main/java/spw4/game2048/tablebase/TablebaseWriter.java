@@ -0,0 +1,115 @@
+package spw4.game2048.tablebase;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.IntStream;
+
+import static spw4.game2048.tablebase.TablebaseFormat.*;
+
+/**
+ * Writes tablebase files, see {@link TablebaseFormat}. Output goes to a temporary file first and is moved into
+ * place, so an existing table is never seen half written.
+ */
+final class TablebaseWriter {
+    private TablebaseWriter() {
+    }
+
+    /**
+     * Concatenates the finished layers {@code sums} (ascending) of {@code store} into {@code output}.
+     */
+    static void assemble(LayerStore store, int[] sums, Path output, int boardSize, int flags, int winningExponent)
+            throws IOException {
+        long[] counts = new long[sums.length];
+        for (int i = 0; i < sums.length; i++) {
+            counts[i] = Files.size(store.path(sums[i], LayerStore.KEYS)) / Long.BYTES;
+        }
+        Path temporary = output.resolveSibling(output.getFileName() + ".tmp");
+        try (var channel = open(temporary)) {
+            writeDirectory(channel, boardSize, flags, winningExponent, sums, counts);
+            for (String part : new String[]{LayerStore.KEYS, LayerStore.VALUES, LayerStore.MOVES}) {
+                for (int sum : sums) {
+                    try (var source = FileChannel.open(store.path(sum, part), StandardOpenOption.READ)) {
+                        long position = 0;
+                        while (position < source.size())
+                            position += source.transferTo(position, source.size() - position, channel);
+                    }
+                }
+            }
+            channel.force(false);
+        }
+        Files.move(temporary, output, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Writes the given entries grouped by tile sum; of repeated keys the first one is kept.
+     */
+    static void write(Path output, int boardSize, int flags, int winningExponent, long[] keys, float[] values,
+                      byte[] moves) throws IOException {
+        int[] order = IntStream.range(0, keys.length).boxed()
+                .sorted(Comparator.<Integer>comparingInt(i -> SmallBoards.tileSum(keys[i])).thenComparingLong(i -> keys[i]))
+                .mapToInt(Integer::intValue)
+                .toArray();
+        int unique = 0;
+        for (int i = 0; i < order.length; i++) {
+            if (unique == 0 || keys[order[unique - 1]] != keys[order[i]])
+                order[unique++] = order[i];
+        }
+        order = Arrays.copyOf(order, unique);
+
+        int[] sums = IntStream.of(order).map(i -> SmallBoards.tileSum(keys[i])).distinct().toArray();
+        long[] counts = new long[sums.length];
+        for (int i = 0, layer = 0; i < order.length; i++) {
+            while (SmallBoards.tileSum(keys[order[i]]) != sums[layer])
+                layer++;
+            counts[layer]++;
+        }
+
+        ByteBuffer keyBytes = ByteBuffer.allocate(order.length * Long.BYTES).order(ORDER);
+        ByteBuffer valueBytes = ByteBuffer.allocate(order.length * Float.BYTES).order(ORDER);
+        ByteBuffer moveBytes = ByteBuffer.allocate(order.length);
+        for (int i : order) {
+            keyBytes.putLong(keys[i]);
+            valueBytes.putFloat(values[i]);
+            moveBytes.put(moves[i]);
+        }
+
+        Path temporary = output.resolveSibling(output.getFileName() + ".tmp");
+        try (var channel = open(temporary)) {
+            writeDirectory(channel, boardSize, flags, winningExponent, sums, counts);
+            for (ByteBuffer buffer : new ByteBuffer[]{keyBytes.flip(), valueBytes.flip(), moveBytes.flip()}) {
+                while (buffer.hasRemaining())
+                    channel.write(buffer);
+            }
+            channel.force(false);
+        }
+        Files.move(temporary, output, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static FileChannel open(Path path) throws IOException {
+        return FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE);
+    }
+
+    private static void writeDirectory(FileChannel channel, int boardSize, int flags, int winningExponent, int[] sums,
+                                       long[] counts) throws IOException {
+        long entries = Arrays.stream(counts).sum();
+        ByteBuffer directory = ByteBuffer.allocate((int) keysOffset(sums.length)).order(ORDER);
+        directory.putInt(MAGIC).putShort(VERSION).put((byte) boardSize).put((byte) flags)
+                .putInt(sums.length).putInt(winningExponent).putLong(entries);
+        long first = 0;
+        for (int i = 0; i < sums.length; i++) {
+            directory.putInt(sums[i]).putInt(0).putLong(first).putLong(counts[i]);
+            first += counts[i];
+        }
+        directory.flip();
+        while (directory.hasRemaining())
+            channel.write(directory);
+    }
+}
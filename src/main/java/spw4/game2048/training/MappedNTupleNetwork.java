@@ -0,0 +1,38 @@
+package spw4.game2048.training;
+
+import spw4.game2048.Symmetries;
+import spw4.game2048.solver.Heuristic;
+
+import java.nio.FloatBuffer;
+
+/**
+ * Read-only {@link NTupleNetwork} evaluating straight from a memory-mapped {@link WeightFile}. Safe to share
+ * between threads; pages are loaded on first use, so opening even a large file is immediate.
+ */
+public final class MappedNTupleNetwork implements Heuristic {
+    private final int[][] tuples;
+    private final int[] offsets;
+    private final FloatBuffer weights;
+
+    MappedNTupleNetwork(int[][] tuples, FloatBuffer weights) {
+        this.tuples = tuples;
+        this.offsets = NTupleNetwork.offsets(tuples);
+        this.weights = weights;
+    }
+
+    public int[][] getTuples() {
+        return NTupleNetwork.copyOf(tuples);
+    }
+
+    @Override
+    public double evaluate(long board) {
+        float sum = 0;
+        for (int t = 0; t < Symmetries.COUNT; t++) {
+            long image = Symmetries.apply(board, t);
+            for (int k = 0; k < tuples.length; k++) {
+                sum += weights.get(offsets[k] + NTupleNetwork.feature(image, tuples[k]));
+            }
+        }
+        return sum;
+    }
+}
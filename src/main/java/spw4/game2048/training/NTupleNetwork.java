@@ -0,0 +1,124 @@
+package spw4.game2048.training;
+
+import spw4.game2048.Symmetries;
+import spw4.game2048.solver.Heuristic;
+
+/**
+ * Evaluation function made of n-tuples. A tuple looks at a few fixed cells of a packed board (see
+ * {@link spw4.game2048.Bitboards}); the exponents found there index a table of weights. A board is scored by summing
+ * the weight of every tuple on each of its 8 {@link Symmetries symmetric images}, so one weight learns from all of them.
+ * <p>
+ * All weights live in one {@code float[]}. {@link #update} is deliberately unsynchronized so training threads can
+ * share a network Hogwild-style: racing updates to the same weight may lose an increment, which TD learning tolerates.
+ */
+public class NTupleNetwork implements Heuristic {
+    /**
+     * Two straight and two rectangular 6-tuples, {@code 4 * 16^6} weights (256 MB).
+     */
+    static final int[][] STANDARD_TUPLES = {
+            {0, 1, 2, 3, 4, 5},
+            {4, 5, 6, 7, 8, 9},
+            {0, 1, 2, 4, 5, 6},
+            {4, 5, 6, 8, 9, 10}
+    };
+    static final int MAX_TUPLE_LENGTH = 7;
+    static final int MAX_WEIGHTS = 1 << 28;
+
+    private final int[][] tuples;
+    private final int[] offsets;
+    private final float[] weights;
+
+    public NTupleNetwork(int[][] tuples) {
+        this.tuples = copyOf(tuples);
+        offsets = offsets(this.tuples);
+        weights = new float[weightCount(this.tuples)];
+    }
+
+    public static NTupleNetwork standard() {
+        return new NTupleNetwork(STANDARD_TUPLES);
+    }
+
+    public int[][] getTuples() {
+        return copyOf(tuples);
+    }
+
+    /**
+     * Number of weights summed up by one {@link #evaluate(long)}.
+     */
+    public int getFeatureCount() {
+        return Symmetries.COUNT * tuples.length;
+    }
+
+    @Override
+    public double evaluate(long board) {
+        float sum = 0;
+        for (int t = 0; t < Symmetries.COUNT; t++) {
+            long image = Symmetries.apply(board, t);
+            for (int k = 0; k < tuples.length; k++) {
+                sum += weights[offsets[k] + feature(image, tuples[k])];
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Adds {@code delta} to every weight {@link #evaluate(long)} sums up for {@code board}.
+     */
+    public void update(long board, float delta) {
+        for (int t = 0; t < Symmetries.COUNT; t++) {
+            long image = Symmetries.apply(board, t);
+            for (int k = 0; k < tuples.length; k++) {
+                weights[offsets[k] + feature(image, tuples[k])] += delta;
+            }
+        }
+    }
+
+    float[] weights() {
+        return weights;
+    }
+
+    static int feature(long board, int[] cells) {
+        int index = 0;
+        for (int cell : cells) {
+            index = (index << 4) | ((int) (board >>> (4 * cell)) & 0xF);
+        }
+        return index;
+    }
+
+    static int[] offsets(int[][] tuples) {
+        int[] offsets = new int[tuples.length];
+        for (int k = 1; k < tuples.length; k++) {
+            offsets[k] = offsets[k - 1] + (1 << (4 * tuples[k - 1].length));
+        }
+        return offsets;
+    }
+
+    static int weightCount(int[][] tuples) {
+        long count = 0;
+        for (int[] tuple : tuples) {
+            count += 1L << (4 * tuple.length);
+        }
+        if (count > MAX_WEIGHTS)
+            throw new IllegalArgumentException("Tuples need " + count + " weights, at most " + MAX_WEIGHTS + " are supported");
+        return (int) count;
+    }
+
+    static int[][] copyOf(int[][] tuples) {
+        if (tuples.length == 0)
+            throw new IllegalArgumentException("At least one tuple is required");
+        int[][] copy = new int[tuples.length][];
+        for (int k = 0; k < tuples.length; k++) {
+            int[] tuple = tuples[k];
+            if (tuple.length == 0 || tuple.length > MAX_TUPLE_LENGTH)
+                throw new IllegalArgumentException("Tuple " + k + " must have 1 to " + MAX_TUPLE_LENGTH + " cells");
+            int seen = 0;
+            for (int cell : tuple) {
+                if (cell < 0 || cell >= 16 || (seen & (1 << cell)) != 0)
+                    throw new IllegalArgumentException("Invalid or repeated cell " + cell + " in tuple " + k);
+                seen |= 1 << cell;
+            }
+            copy[k] = tuple.clone();
+        }
+        return copy;
+    }
+}
@@ -0,0 +1,153 @@
+package spw4.game2048.training;
+
+import spw4.game2048.BitboardGame;
+import spw4.game2048.Bitboards;
+import spw4.game2048.Direction;
+import spw4.game2048.TileSpawners;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Trains an {@link NTupleNetwork} by self-play with TD(0) on afterstates: the network values the board right after
+ * a move and before the spawn. Every move is chosen greedily by reward plus value of its afterstate, and the value
+ * of the previous afterstate is moved towards that same sum; the last afterstate of a game is moved towards 0.
+ * <p>
+ * Worker threads play their own games but update the one shared network without locking (see
+ * {@link NTupleNetwork#update}). With one thread a run is reproducible for a given master seed.
+ */
+public class TDTrainer {
+    private static final Direction[] DIRECTIONS = Direction.values();
+    private static final int CHUNK = 16;
+
+    private final NTupleNetwork network;
+    private final float step;
+    private final int threads;
+
+    /**
+     * @param learningRate how far one update moves the value of a board towards its target, spread evenly over
+     *                     the network's {@link NTupleNetwork#getFeatureCount() features}
+     */
+    public TDTrainer(NTupleNetwork network, float learningRate, int threads) {
+        if (threads < 1)
+            throw new IllegalArgumentException("threads must be positive");
+        if (!(learningRate > 0))
+            throw new IllegalArgumentException("learningRate must be positive");
+        this.network = network;
+        this.step = learningRate / network.getFeatureCount();
+        this.threads = threads;
+    }
+
+    public NTupleNetwork getNetwork() {
+        return network;
+    }
+
+    public TrainingResult train(long games, long masterSeed) {
+        var nextGame = new AtomicLong();
+        long start = System.nanoTime();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<TrainingResult>> workers = new ArrayList<>(threads);
+            for (int i = 0; i < threads; i++) {
+                workers.add(executor.submit(() -> work(nextGame, games, masterSeed)));
+            }
+            var result = new TrainingResult();
+            for (Future<TrainingResult> worker : workers) {
+                result.merge(worker.get());
+            }
+            result.setElapsedNanos(System.nanoTime() - start);
+            return result;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Training interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Training failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private TrainingResult work(AtomicLong nextGame, long games, long masterSeed) {
+        var result = new TrainingResult();
+        long start;
+        while ((start = nextGame.getAndAdd(CHUNK)) < games) {
+            long end = Math.min(start + CHUNK, games);
+            for (long index = start; index < end; index++) {
+                result.add(playOne(gameSeed(masterSeed, index)));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Plays past 2048 until no move is left, learning from every move.
+     */
+    private BitboardGame playOne(long seed) {
+        var game = new BitboardGame(TileSpawners.seeded(seed));
+        game.initialize();
+
+        long previous = 0;
+        boolean hasPrevious = false;
+        int legal;
+        while ((legal = Bitboards.legalMoves(game.getBoard())) != 0) {
+            long board = game.getBoard();
+            Direction best = null;
+            long bestAfterstate = 0;
+            double bestValue = Double.NEGATIVE_INFINITY;
+            for (Direction direction : DIRECTIONS) {
+                if ((legal & direction.mask()) == 0)
+                    continue;
+                long afterstate = Bitboards.move(board, direction);
+                double value = Bitboards.score(board, direction) + network.evaluate(afterstate);
+                if (value > bestValue) {
+                    best = direction;
+                    bestAfterstate = afterstate;
+                    bestValue = value;
+                }
+            }
+            if (hasPrevious)
+                network.update(previous, step * (float) (bestValue - network.evaluate(previous)));
+            previous = bestAfterstate;
+            hasPrevious = true;
+            game.move(best);
+        }
+        if (hasPrevious)
+            network.update(previous, -step * (float) network.evaluate(previous));
+        return game;
+    }
+
+    private static long gameSeed(long masterSeed, long index) {
+        long z = masterSeed + (index + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Trains the standard network in rounds and checkpoints it after each one.
+     * Arguments: weight file (resumed if it exists), games per round, rounds, threads.
+     */
+    public static void main(String[] args) throws IOException {
+        Path path = Path.of(args.length > 0 ? args[0] : "ntuple.weights");
+        long gamesPerRound = args.length > 1 ? Long.parseLong(args[1]) : 10_000;
+        int rounds = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+
+        NTupleNetwork network = Files.exists(path) ? WeightFile.load(path) : NTupleNetwork.standard();
+        var trainer = new TDTrainer(network, 0.1f, threads);
+        long seed = System.nanoTime();
+        for (int round = 1; round <= rounds; round++) {
+            TrainingResult result = trainer.train(gamesPerRound, seed + round);
+            WeightFile.write(network, path);
+            System.out.printf("Round %d%n%s%n", round, result);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package spw4.game2048.training;
+
+import spw4.game2048.BitboardGame;
+import spw4.game2048.Bitboards;
+
+/**
+ * Outcome of a {@link TDTrainer#train} run: the self-play games it played and how long that took.
+ */
+public class TrainingResult {
+    private static final int BUCKETS = Bitboards.MAX_EXPONENT + 1;
+
+    private long games;
+    private long totalScore;
+    private long totalMoves;
+    private long elapsedNanos;
+    private final long[] maxTileHistogram = new long[BUCKETS];
+
+    void add(BitboardGame game) {
+        games++;
+        totalScore += game.getScore();
+        totalMoves += game.getMoves();
+        maxTileHistogram[Bitboards.maxExponent(game.getBoard())]++;
+    }
+
+    void merge(TrainingResult other) {
+        games += other.games;
+        totalScore += other.totalScore;
+        totalMoves += other.totalMoves;
+        for (int i = 0; i < BUCKETS; i++) {
+            maxTileHistogram[i] += other.maxTileHistogram[i];
+        }
+    }
+
+    void setElapsedNanos(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public long getGames() {
+        return games;
+    }
+
+    public long getTotalMoves() {
+        return totalMoves;
+    }
+
+    public double getMeanScore() {
+        return games == 0 ? 0 : (double) totalScore / games;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public double getGamesPerHour() {
+        return elapsedNanos == 0 ? 0 : games * 3600e9 / elapsedNanos;
+    }
+
+    /**
+     * Index {@code k} counts games whose largest tile was {@code 2^k}.
+     */
+    public long[] getMaxTileHistogram() {
+        return maxTileHistogram.clone();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder(String.format(
+                "Games: %d\t\tMean score: %.1f\t\tGames/hour: %.0f\t\tMoves/s: %.0f\n",
+                games, getMeanScore(), getGamesPerHour(), elapsedNanos == 0 ? 0 : totalMoves * 1e9 / elapsedNanos));
+        result.append("Max tile:");
+        for (int i = 1; i < BUCKETS; i++) {
+            if (maxTileHistogram[i] != 0)
+                result.append(String.format(" %d=%d", 1 << i, maxTileHistogram[i]));
+        }
+        return result.toString();
+    }
+}
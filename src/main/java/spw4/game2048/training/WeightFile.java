@@ -0,0 +1,130 @@
+package spw4.game2048.training;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Checkpoint file of an {@link NTupleNetwork}. All numbers are little-endian.
+ * <pre>
+ * header   int magic, short version, short tuple count, int weights offset, int reserved
+ * tuples   per tuple: byte cell count, one byte per cell (y * 4 + x)
+ * weights  one float per weight, tuple after tuple, from the 64-byte aligned weights offset to the end
+ * </pre>
+ * The weights are the raw table, so {@link #open} maps them instead of reading anything.
+ */
+public final class WeightFile {
+    static final int MAGIC = 0x4E545550;
+    static final short VERSION = 1;
+    static final int HEADER_BYTES = 16;
+    static final int ALIGNMENT = 64;
+    static final ByteOrder ORDER = ByteOrder.LITTLE_ENDIAN;
+
+    private WeightFile() {
+    }
+
+    /**
+     * Writes {@code network} to a temporary file next to {@code path} and moves it into place, so readers
+     * never see a partial checkpoint. The network may keep training meanwhile; the file then holds a mix of
+     * older and newer weights, as any Hogwild snapshot does.
+     */
+    public static void write(NTupleNetwork network, Path path) throws IOException {
+        int[][] tuples = network.getTuples();
+        float[] weights = network.weights();
+        long weightsOffset = weightsOffset(tuples);
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+
+        try (var channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, weightsOffset + 4L * weights.length);
+            ByteBuffer header = mapped.duplicate().order(ORDER);
+            header.putInt(MAGIC).putShort(VERSION).putShort((short) tuples.length)
+                    .putInt((int) weightsOffset).putInt(0);
+            for (int[] tuple : tuples) {
+                header.put((byte) tuple.length);
+                for (int cell : tuple) {
+                    header.put((byte) cell);
+                }
+            }
+            mapped.position((int) weightsOffset);
+            mapped.slice().order(ORDER).asFloatBuffer().put(weights);
+            mapped.force();
+        }
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Maps the weights in {@code path} read-only for evaluation.
+     */
+    public static MappedNTupleNetwork open(Path path) throws IOException {
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            int[][] tuples = readTuples(channel);
+            long weightsOffset = weightsOffset(tuples);
+            FloatBuffer weights = channel.map(FileChannel.MapMode.READ_ONLY, weightsOffset, channel.size() - weightsOffset)
+                    .order(ORDER).asFloatBuffer();
+            return new MappedNTupleNetwork(tuples, weights);
+        }
+    }
+
+    /**
+     * Reads the network in {@code path} into memory, for example to resume training.
+     */
+    public static NTupleNetwork load(Path path) throws IOException {
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            int[][] tuples = readTuples(channel);
+            long weightsOffset = weightsOffset(tuples);
+            var network = new NTupleNetwork(tuples);
+            channel.map(FileChannel.MapMode.READ_ONLY, weightsOffset, channel.size() - weightsOffset)
+                    .order(ORDER).asFloatBuffer().get(network.weights());
+            return network;
+        }
+    }
+
+    private static int[][] readTuples(FileChannel channel) throws IOException {
+        long size = channel.size();
+        if (size < HEADER_BYTES)
+            throw new IOException("Not a weight file: too short");
+        ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES).order(ORDER);
+        if (header.getInt() != MAGIC)
+            throw new IOException("Not a weight file: bad magic");
+        short version = header.getShort();
+        if (version != VERSION)
+            throw new IOException("Unsupported weight file version " + version);
+        short tupleCount = header.getShort();
+        int weightsOffset = header.getInt();
+        if (tupleCount <= 0 || weightsOffset < HEADER_BYTES || weightsOffset > size)
+            throw new IOException("Corrupt weight file header");
+        ByteBuffer cells = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES, weightsOffset - HEADER_BYTES);
+        int[][] tuples = new int[tupleCount][];
+        try {
+            for (int k = 0; k < tuples.length; k++) {
+                tuples[k] = new int[cells.get()];
+                for (int i = 0; i < tuples[k].length; i++) {
+                    tuples[k][i] = cells.get();
+                }
+            }
+            tuples = NTupleNetwork.copyOf(tuples);
+        } catch (RuntimeException e) {
+            throw new IOException("Corrupt weight file header", e);
+        }
+        if (weightsOffset != weightsOffset(tuples)
+                || size - weightsOffset != 4L * NTupleNetwork.weightCount(tuples))
+            throw new IOException("Weight file size does not match its tuples");
+        return tuples;
+    }
+
+    private static long weightsOffset(int[][] tuples) {
+        long bytes = HEADER_BYTES;
+        for (int[] tuple : tuples) {
+            bytes += 1 + tuple.length;
+        }
+        return (bytes + ALIGNMENT - 1) / ALIGNMENT * ALIGNMENT;
+    }
+}
@@ -0,0 +1,217 @@
+package spw4.game2048;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.params.provider.Arguments.arguments;
+
+class BitboardGameTest {
+    static Stream<Arguments> gameTestScenarios() {
+        return Stream.of(
+                arguments(new int[]{1, 1, 0, 1, 2, 1, 0, 0, 0}, 0, new Direction[]{Direction.right}),
+                arguments(new int[]{1, 1, 0, 1, 2, 1, 0, 0, 0}, 0, new Direction[]{Direction.left}),
+                arguments(new int[]{1, 1, 0, 1, 2, 1, 0, 0, 0}, 0, new Direction[]{Direction.up}),
+                arguments(new int[]{1, 1, 0, 1, 2, 1, 0, 0, 0}, 0, new Direction[]{Direction.down}),
+                arguments(new int[]{1, 0, 1, 1, 1, 1, 1, 2, 1, 1, 3, 1}, 0, new Direction[]{Direction.down}),
+                arguments(new int[]{0, 1, 1, 1, 1, 1, 3, 1, 0, 0, 0, 0}, 0, new Direction[]{Direction.down}),
+                arguments(new int[]{0, 1, 1, 1, 1, 1, 0, 0, 0}, 0, new Direction[]{Direction.up, Direction.up}),
+                arguments(new int[]{0, 1, 1, 1, 1, 1, 2, 1, 0, 0, 0, 0}, 0, new Direction[]{Direction.down, Direction.up}),
+                arguments(new int[]{0, 0, 1, 1, 0, 0}, 0, new Direction[]{Direction.up}),
+                arguments(new int[]{1, 1, 1, 1, 2, 1, 0, 0, 0}, 0, new Direction[]{Direction.left}),
+                arguments(new int[]{1, 1, 1, 1, 2, 1, 0, 0, 0}, 0, new Direction[]{Direction.right}),
+                arguments(new int[]{1, 2, 1, 1, 3, 1, 0, 0, 0}, 0, new Direction[]{Direction.right}),
+                arguments(new int[]{1, 2, 1, 1, 3, 1, 0, 0, 0}, 0, new Direction[]{Direction.left}),
+                arguments(new int[]{1, 0, 1, 1, 1, 1, 0, 0, 0}, 0, new Direction[]{Direction.left}),
+                arguments(new int[]{1, 0, 1, 1, 1, 1, 1, 2, 1, 1, 3, 1, 0, 0, 0}, 2, new Direction[]{Direction.left}),
+                arguments(new int[]{1, 0, 1, 1, 1, 1, 1, 2, 0, 0, 0, 0}, 1, new Direction[]{Direction.left}),
+                arguments(new int[]{0, 1, 1, 1, 1, 1, 3, 1, 0, 0, 0, 0}, 1, new Direction[]{Direction.up}),
+                arguments(new int[]{0, 1, 1, 1, 1, 1, 3, 1, 0, 0, 0, 0}, 1, new Direction[]{Direction.down}),
+                arguments(new int[]{0, 1, 1, 1, 1, 1, 0, 0, 0}, 0, new Direction[]{Direction.down}),
+                arguments(new int[]{0, 1, 1, 1, 1, 1, 3, 2, 0, 0, 0, 0}, 0, new Direction[]{Direction.down, Direction.left}),
+                arguments(new int[]{0, 0, 0, 2, 2, 1, 1, 1, 0, 0, 0, 0}, 0, new Direction[]{Direction.down})
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("gameTestScenarios")
+    void scenarioFromGameTestMatchesGameImpl(int[] randomValues, int extraTiles, Direction[] directions) {
+        var expected = new GameImpl(TileSpawners.rejectionSampling(new GameTest.RandomStub(randomValues)));
+        expected.initialize();
+        for (int i = 0; i < extraTiles; i++)
+            expected.placeRandomTile();
+        for (Direction direction : directions)
+            expected.move(direction);
+
+        var sut = new BitboardGame(TileSpawners.rejectionSampling(new GameTest.RandomStub(randomValues)));
+        sut.initialize();
+        for (int i = 0; i < extraTiles; i++)
+            sut.placeRandomTile();
+        for (Direction direction : directions)
+            sut.move(direction);
+
+        assertSameState(expected, sut);
+    }
+
+    @Test
+    void randomGamesMatchGameImpl() {
+        var directions = Direction.values();
+        for (long seed = 0; seed < 50; seed++) {
+            var moveRandom = new Random(seed);
+            var expected = new GameImpl(TileSpawners.seeded(seed));
+            var sut = new BitboardGame(TileSpawners.seeded(seed));
+            expected.initialize();
+            sut.initialize();
+
+            while (!expected.isOver()) {
+                var direction = directions[moveRandom.nextInt(directions.length)];
+                expected.move(direction);
+                sut.move(direction);
+
+                assertSameState(expected, sut);
+            }
+            assertTrue(sut.isOver());
+        }
+    }
+
+    @Test
+    void listenerEventsMatchGameImpl() {
+        var directions = Direction.values();
+        for (long seed = 0; seed < 20; seed++) {
+            var moveRandom = new Random(seed);
+            var expected = new RecordingListener();
+            var actual = new RecordingListener();
+            var gameImpl = new GameImpl(TileSpawners.seeded(seed));
+            var sut = new BitboardGame(TileSpawners.seeded(seed));
+            gameImpl.addListener(expected);
+            sut.addListener(actual);
+            gameImpl.initialize();
+            sut.initialize();
+
+            while (!gameImpl.isOver()) {
+                var direction = directions[moveRandom.nextInt(directions.length)];
+                gameImpl.move(direction);
+                sut.move(direction);
+            }
+
+            assertEquals(expected.events, actual.events);
+        }
+    }
+
+    @Test
+    void reachingWinningTileReportsWon() {
+        var listener = new RecordingListener();
+        var sut = new BitboardGame(TileSpawners.seeded(1));
+        sut.placeTile(0, 0, 1024);
+        sut.placeTile(1, 0, 1024);
+        sut.addListener(listener);
+
+        sut.move(Direction.left);
+
+        assertEquals("merged 1->0 2048", listener.events.get(0));
+        assertEquals("won", listener.events.get(listener.events.size() - 1));
+    }
+
+    @Test
+    void isOverWithFullBoardNoMovesLeftReturnsTrue() {
+        var sut = new BitboardGame();
+        for (int i = 0; i < sut.getBoardSize(); i++) {
+            for (int k = 0; k < sut.getBoardSize(); k++) {
+                sut.placeTile(i, k, ((i + k) % 2 == 0) ? 4 : 2);
+            }
+        }
+
+        assertTrue(sut.isOver());
+    }
+
+    @Test
+    void isOverWithFullBoardOneMoveLeftReturnsFalse() {
+        var sut = new BitboardGame();
+        for (int i = 0; i < sut.getBoardSize(); i++) {
+            for (int k = 0; k < sut.getBoardSize(); k++) {
+                sut.placeTile(i, k, ((i + k) % 2 == 0) ? 4 : 2);
+            }
+        }
+        sut.placeTile(0, 0, 2);
+
+        assertFalse(sut.isOver());
+    }
+
+    @Test
+    void isWonWithSingle2048ReturnsTrue() {
+        var sut = new BitboardGame();
+        sut.placeTile(0, 0, 2048);
+
+        assertTrue(sut.isWon());
+        assertTrue(sut.isOver());
+    }
+
+    @Test
+    void toStringOnInitializedFieldWithBigNumber() {
+        var sut = new BitboardGame(TileSpawners.rejectionSampling(new GameTest.RandomStub()));
+        sut.initialize();
+        sut.placeTile(0, 0, 2048);
+        var expected = """
+                Moves: 0\t\tScore: 0
+                2048 .    .    .
+                .    4    2    .
+                .    .    .    .
+                .    .    .    .""";
+
+        assertEquals(expected, sut.toString());
+    }
+
+    @Test
+    void moveUpMergesEachTileOnlyOnce() {
+        var sut = new BitboardGame();
+        sut.placeTile(0, 0, 16);
+        sut.placeTile(0, 1, 8);
+        sut.placeTile(0, 2, 8);
+        sut.placeTile(0, 3, 2);
+
+        sut.move(Direction.up);
+
+        assertEquals(16, sut.getValueAt(0, 0));
+        assertEquals(16, sut.getValueAt(0, 1));
+        assertEquals(2, sut.getValueAt(0, 2));
+        assertEquals(16, sut.getScore());
+    }
+
+    @Test
+    void transposeMirrorsCellsAlongDiagonal() {
+        long board = 0;
+        for (int y = 0; y < Bitboards.SIZE; y++) {
+            for (int x = 0; x < Bitboards.SIZE; x++) {
+                board = Bitboards.withExponent(board, x, y, y * Bitboards.SIZE + x);
+            }
+        }
+
+        long transposed = Bitboards.transpose(board);
+
+        for (int y = 0; y < Bitboards.SIZE; y++) {
+            for (int x = 0; x < Bitboards.SIZE; x++) {
+                assertEquals(Bitboards.exponentAt(board, x, y), Bitboards.exponentAt(transposed, y, x));
+            }
+        }
+    }
+
+    private static void assertSameState(GameImpl expected, BitboardGame actual) {
+        assertEquals(expected.toString(), actual.toString());
+        assertEquals(expected.legalMoves(), actual.legalMoves());
+        var expectedPreview = new int[16];
+        var actualPreview = new int[16];
+        for (var direction : Direction.values()) {
+            assertEquals(expected.previewMove(direction, expectedPreview), actual.previewMove(direction, actualPreview));
+            assertArrayEquals(expectedPreview, actualPreview);
+        }
+        assertEquals(expected.getMoves(), actual.getMoves());
+        assertEquals(expected.getScore(), actual.getScore());
+        assertEquals(expected.isWon(), actual.isWon());
+        assertEquals(expected.isOver(), actual.isOver());
+    }
+}
@@ -0,0 +1,39 @@
+package spw4.game2048;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoardTest {
+    @Test
+    void withMoveReturnsNewBoardAndKeepsOriginal() {
+        var sut = Board.EMPTY.withTile(0, 0, 2).withTile(3, 0, 2);
+
+        var moved = sut.withMove(Direction.left);
+
+        assertEquals(4, moved.getValueAt(0, 0));
+        assertEquals(0, moved.getValueAt(3, 0));
+        assertEquals(2, sut.getValueAt(3, 0));
+        assertEquals(4, sut.moveScore(Direction.left));
+    }
+
+    @Test
+    void withMoveThatChangesNothingReturnsSameBoard() {
+        var sut = Board.EMPTY.withTile(0, 0, 2);
+
+        assertSame(sut, sut.withMove(Direction.up));
+        assertEquals(Direction.down.mask() | Direction.right.mask(), sut.legalMoves());
+    }
+
+    @Test
+    void boardsWithSameTilesAreEqual() {
+        var game = new BitboardGame(TileSpawners.seeded(1));
+        game.initialize();
+
+        var sut = Board.of(game);
+
+        assertEquals(Board.of(game.getBoard()), sut);
+        assertEquals(Board.of(game.getBoard()).hashCode(), sut.hashCode());
+        assertEquals(14, sut.emptyCount());
+    }
+}
@@ -0,0 +1,54 @@
+package spw4.game2048;
+
+/**
+ * Deterministic spawner for tests: always places {@code value} on the first or the last empty cell.
+ */
+public class EmptyCellSpawner implements TileSpawner {
+    private final boolean fromEnd;
+    private final int value;
+    private int lastCell = -1;
+
+    private EmptyCellSpawner(boolean fromEnd, int value) {
+        this.fromEnd = fromEnd;
+        this.value = value;
+    }
+
+    public static EmptyCellSpawner first(int value) {
+        return new EmptyCellSpawner(false, value);
+    }
+
+    public static EmptyCellSpawner last(int value) {
+        return new EmptyCellSpawner(true, value);
+    }
+
+    @Override
+    public int nextCell(long[] emptyCells, int emptyCount, int size) {
+        int cell = fromEnd ? size * size - 1 : 0;
+        while (!TileSpawners.isEmpty(emptyCells, cell)) {
+            cell += fromEnd ? -1 : 1;
+        }
+        lastCell = cell;
+        return cell;
+    }
+
+    @Override
+    public int nextValue() {
+        return value;
+    }
+
+    @Override
+    public long saveState() {
+        return 0;
+    }
+
+    @Override
+    public void restoreState(long state) {
+    }
+
+    /**
+     * Returns the cell of the last tile placed, or -1 before the first.
+     */
+    public int getLastCell() {
+        return lastCell;
+    }
+}
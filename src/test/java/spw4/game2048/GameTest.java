@@ -1,18 +1,17 @@
 package spw4.game2048;
 
-import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
-import java.util.Random;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 class GameTest {
-    static class RandomStub extends Random {
+    static class RandomStub implements ReplayableRandom {
         public RandomStub(int[] returnVals) {
             this.returnVals = returnVals;
         }
@@ -27,11 +26,21 @@ class GameTest {
         public int nextInt(int bound) {
             return returnVals[counter++];
         }
-    }
 
-    @BeforeEach
-    void setupTest() {
-        GameImpl.random = new Random();
+        @Override
+        public long nextLong() {
+            return returnVals[counter++];
+        }
+
+        @Override
+        public long saveState() {
+            return counter;
+        }
+
+        @Override
+        public void restoreState(long state) {
+            counter = (int) state;
+        }
     }
 
     @DisplayName("Init")
@@ -60,13 +69,14 @@ class GameTest {
         }
 
         @Test
-        void createBoardUsesRandom() {
-            GameImpl.random = spy(Random.class);
-            var sut = new GameImpl();
+        void createBoardUsesTileSpawner() {
+            var spawner = spy(TileSpawners.seeded(1));
+            var sut = new GameImpl(spawner);
 
             sut.initialize();
 
-            verify(GameImpl.random);
+            verify(spawner, times(2)).nextCell(any(), anyInt(), eq(4));
+            verify(spawner, times(2)).nextValue();
         }
 
         /**
@@ -79,8 +89,7 @@ class GameTest {
          */
         @Test
         void createBoardUsingRandomStubReturnsBoardWithOne4One2() {
-            GameImpl.random = new RandomStub();
-            var sut = new GameImpl();
+            var sut = new GameImpl(TileSpawners.rejectionSampling(new RandomStub()));
             sut.initialize();
             var expectedSum = 6;
             var expectedFirst = 4;
@@ -93,8 +102,7 @@ class GameTest {
 
         @Test
         void createBoardReturnsNotWonYet() {
-            GameImpl.random = new RandomStub();
-            var sut = new GameImpl();
+            var sut = new GameImpl(TileSpawners.rejectionSampling(new RandomStub()));
             sut.initialize();
             var expected = false;
 
@@ -103,8 +111,7 @@ class GameTest {
 
         @Test
         void createBoardReturnsNotGameOverYet() {
-            GameImpl.random = new RandomStub();
-            var sut = new GameImpl();
+            var sut = new GameImpl(TileSpawners.rejectionSampling(new RandomStub()));
             sut.initialize();
             var expected = false;
 
@@ -113,8 +120,7 @@ class GameTest {
 
         @Test
         void isOverWithFullBoardNoMovesLeftReturnsTrue() {
-            GameImpl.random = new RandomStub();
-            var sut = new GameImpl();
+            var sut = new GameImpl(TileSpawners.rejectionSampling(new RandomStub()));
             for (int i = 0; i < sut.getBoardSize(); i++) {
                 for (int k = 0; k < sut.getBoardSize(); k++) {
                         sut.placeTile(i, k, ((i + k) % 2 == 0) ? 4 : 2);
@@ -127,8 +133,7 @@ class GameTest {
 
         @Test
         void isOverWithFullBoardOneMoveLeftReturnsFalse() {
-            GameImpl.random = new RandomStub();
-            var sut = new GameImpl();
+            var sut = new GameImpl(TileSpawners.rejectionSampling(new RandomStub()));
             for (int i = 0; i < sut.getBoardSize(); i++) {
                 for (int k = 0; k < sut.getBoardSize(); k++) {
                     sut.placeTile(i, k, ((i + k) % 2 == 0) ? 4 : 2);
@@ -140,10 +145,25 @@ class GameTest {
             assertEquals(expected, sut.isOver());
         }
 
+        @Test
+        void isOverAfterOverwritingLastMergeablePairReturnsTrue() {
+            var sut = new GameImpl(TileSpawners.seeded(1));
+            for (int i = 0; i < sut.getBoardSize(); i++) {
+                for (int k = 0; k < sut.getBoardSize(); k++) {
+                    sut.placeTile(i, k, ((i + k) % 2 == 0) ? 4 : 2);
+                }
+            }
+            sut.placeTile(0, 0, 2);
+            assertFalse(sut.isOver());
+
+            sut.placeTile(0, 0, 8);
+
+            assertTrue(sut.isOver());
+        }
+
         @Test
         void isWonWithSingle2048ReturnsTrue() {
-            GameImpl.random = new RandomStub();
-            var sut = new GameImpl();
+            var sut = new GameImpl(TileSpawners.rejectionSampling(new RandomStub()));
             sut.placeTile(0, 0, 2048);
             var expected = true;
 
@@ -152,14 +172,58 @@ class GameTest {
 
         @Test
         void isOverWithSingle2048ReturnsTrue() {
-            GameImpl.random = new RandomStub();
-            var sut = new GameImpl();
+            var sut = new GameImpl(TileSpawners.rejectionSampling(new RandomStub()));
             sut.placeTile(0, 0, 2048);
             var expected = true;
 
             assertEquals(expected, sut.isOver());
         }
 
+        @Test
+        void createBoardWithSize8Returns8By8Field() {
+            var sut = new GameImpl(8, GameImpl.DEFAULT_WINNING_TILE, TileSpawners.seeded(1));
+            sut.initialize();
+            var expectedSize = 8;
+
+            assertEquals(expectedSize, sut.getBoardSize());
+            assertThat(new int[]{4, 6, 8}).contains(getBoardSum(sut));
+        }
+
+        @Test
+        void isWonWithCustomWinningTileReturnsTrueOnlyForThatTile() {
+            var sut = new GameImpl(5, 1 << 17, TileSpawners.seeded(1));
+            sut.placeTile(4, 4, 2048);
+
+            assertFalse(sut.isWon());
+
+            sut.placeTile(4, 4, 1 << 17);
+
+            assertTrue(sut.isWon());
+        }
+
+        @Test
+        void isWonWithWinningTileDisabledReturnsFalse() {
+            var sut = new GameImpl(4, GameImpl.NO_WINNING_TILE, TileSpawners.seeded(1));
+            sut.placeTile(0, 0, 2048);
+
+            assertFalse(sut.isWon());
+            assertFalse(sut.isOver());
+        }
+
+        @Test
+        void isWonAfterOverwritingWinningTileReturnsFalse() {
+            var sut = new GameImpl(TileSpawners.seeded(1));
+            sut.placeTile(0, 0, 2048);
+            sut.placeTile(0, 0, 2);
+
+            assertFalse(sut.isWon());
+        }
+
+        @Test
+        void createBoardWithInvalidWinningTileThrows() {
+            assertThrows(IllegalArgumentException.class, () -> new GameImpl(4, 1000, TileSpawners.seeded(1)));
+        }
+
         private int getBoardSum(GameImpl sut) {
             int sum = 0;
             for (int i = 0; i < sut.getBoardSize(); i++) {
@@ -177,8 +241,7 @@ class GameTest {
     class MoveTests {
         @Test
         void moveRightMovesTilesToRight() {
-            GameImpl.random = new RandomStub();
-            var sut = new GameImpl();
+            var sut = new GameImpl(TileSpawners.rejectionSampling(new RandomStub()));
             sut.initialize();
             var expectedFirst = 4;
             var expectedSecond = 2;
@@ -191,8 +254,7 @@ class GameTest {
 
         @Test
         void moveLeftMovesTilesToLeft() {
-            GameImpl.random = new RandomStub();
-            var sut = new GameImpl();
+            var sut = new GameImpl(TileSpawners.rejectionSampling(new RandomStub()));
             sut.initialize();
             var expectedFirst = 4;
             var expectedSecond = 2;
@@ -205,8 +267,7 @@ class GameTest {
 
         @Test
         void moveUpMovesTilesUp() {
-            GameImpl.random = new RandomStub();
-            var sut = new GameImpl();
+            var sut = new GameImpl(TileSpawners.rejectionSampling(new RandomStub()));
             sut.initialize();
             var expectedFirst = 4;
             var expectedSecond = 2;
@@ -219,8 +280,7 @@ class GameTest {
 
         @Test
         void moveDownMovesTilesDown() {
-            GameImpl.random = new RandomStub();
-            var sut = new GameImpl();
+            var sut = new GameImpl(TileSpawners.rejectionSampling(new RandomStub()));
             sut.initialize();
             var expectedFirst = 4;
             var expectedSecond = 2;
@@ -233,8 +293,7 @@ class GameTest {
 
         @Test
         void moveCreatesRandomTile() {
-            GameImpl.random = new RandomStub(new int[]{1, 0, 1, 1, 1, 1, 1, 2, 1, 1, 3, 1});
-            var sut = spy(GameImpl.class);
+            var sut = spy(new GameImpl(TileSpawners.rejectionSampling(new RandomStub(new int[]{1, 0, 1, 1, 1, 1, 1, 2, 1, 1, 3, 1}))));
             sut.initialize();
 
             sut.move(Direction.down);
@@ -244,8 +303,7 @@ class GameTest {
 
         @Test
         void moveOnceGetMovesReturnsCount(){
-            GameImpl.random = new RandomStub(new int[]{0, 1, 1, 1, 1, 1, 3, 1, 0, 0, 0, 0});
-            var sut = new GameImpl();
+            var sut = new GameImpl(TileSpawners.rejectionSampling(new RandomStub(new int[]{0, 1, 1, 1, 1, 1, 3, 1, 0, 0, 0, 0})));
             sut.initialize();
             var expected = 1;
 
@@ -256,8 +314,7 @@ class GameTest {
 
         @Test
         void moveTwiceSameDirectionGetMovesReturnsCount(){
-            GameImpl.random = new RandomStub(new int[]{0, 1, 1, 1, 1, 1, 0, 0, 0});
-            var sut = new GameImpl();
+            var sut = new GameImpl(TileSpawners.rejectionSampling(new RandomStub(new int[]{0, 1, 1, 1, 1, 1, 0, 0, 0})));
             sut.initialize();
             var expected = 1;
 
@@ -269,8 +326,7 @@ class GameTest {
 
         @Test
         void moveTwiceDifferentDirectionsGetMovesReturnsCount(){
-            GameImpl.random = new RandomStub(new int[]{0, 1, 1, 1, 1, 1, 2, 1, 0, 0, 0, 0});
-            var sut = new GameImpl();
+            var sut = new GameImpl(TileSpawners.rejectionSampling(new RandomStub(new int[]{0, 1, 1, 1, 1, 1, 2, 1, 0, 0, 0, 0})));
             sut.initialize();
             var expected = 2;
 
@@ -282,8 +338,7 @@ class GameTest {
 
         @Test
         void moveOnceNoTileMovedGetMovesReturnsCount(){
-            GameImpl.random = new RandomStub(new int[]{0, 0, 1, 1, 0, 0});
-            var sut = new GameImpl();
+            var sut = new GameImpl(TileSpawners.rejectionSampling(new RandomStub(new int[]{0, 0, 1, 1, 0, 0})));
             sut.initialize();
             var expected = 0;
 
@@ -306,6 +361,38 @@ class GameTest {
             assertEquals(expectedMoves, sut.getMoves());
         }
 
+        @Test
+        void moveUpMergesEachTileOnlyOnce() {
+            var sut = new GameImpl(TileSpawners.seeded(1));
+            sut.placeTile(0, 0, 16);
+            sut.placeTile(0, 1, 8);
+            sut.placeTile(0, 2, 8);
+            sut.placeTile(0, 3, 2);
+            sut.placeTile(3, 3, 2);
+
+            sut.move(Direction.up);
+
+            assertEquals(16, sut.getValueAt(0, 0));
+            assertEquals(16, sut.getValueAt(0, 1));
+            assertEquals(2, sut.getValueAt(0, 2));
+            assertEquals(16, sut.getScore());
+        }
+
+        @Test
+        void moveLeftOnLargeBoardMergesWholeRow() {
+            var sut = new GameImpl(8, GameImpl.NO_WINNING_TILE, TileSpawners.seeded(1));
+            for (int x = 0; x < sut.getBoardSize(); x++) {
+                sut.placeTile(x, 0, 2);
+            }
+
+            sut.move(Direction.left);
+
+            for (int x = 0; x < 4; x++) {
+                assertEquals(4, sut.getValueAt(x, 0));
+            }
+            assertEquals(16, sut.getScore());
+        }
+
         @Test
         void moveOnFullBoardDoesNothing(){
             var sut = new GameImpl();
@@ -327,8 +414,7 @@ class GameTest {
     class AddTests {
         @Test
         void moveLeftTwo2InMiddleAddsTilesTogether() {
-            GameImpl.random = new RandomStub(new int[]{1, 1, 1, 1, 2, 1, 0, 0, 0});
-            var sut = new GameImpl();
+            var sut = new GameImpl(TileSpawners.rejectionSampling(new RandomStub(new int[]{1, 1, 1, 1, 2, 1, 0, 0, 0})));
             sut.initialize();
             var expected = 4;
 
@@ -339,8 +425,7 @@ class GameTest {
 
         @Test
         void moveRightTwo2InMiddleAddsTilesTogether() {
-            GameImpl.random = new RandomStub(new int[]{1, 1, 1, 1, 2, 1, 0, 0, 0});
-            var sut = new GameImpl();
+            var sut = new GameImpl(TileSpawners.rejectionSampling(new RandomStub(new int[]{1, 1, 1, 1, 2, 1, 0, 0, 0})));
             sut.initialize();
             var expected = 4;
 
@@ -351,8 +436,7 @@ class GameTest {
 
         @Test
         void moveRightTwo2OnRightAddsTilesTogether() {
-            GameImpl.random = new RandomStub(new int[]{1, 2, 1, 1, 3, 1, 0, 0, 0});
-            var sut = new GameImpl();
+            var sut = new GameImpl(TileSpawners.rejectionSampling(new RandomStub(new int[]{1, 2, 1, 1, 3, 1, 0, 0, 0})));
             sut.initialize();
             var expected = 4;
 
@@ -363,8 +447,7 @@ class GameTest {
 
         @Test
         void moveLeftTwo2OnRightAddsTilesTogether() {
-            GameImpl.random = new RandomStub(new int[]{1, 2, 1, 1, 3, 1, 0, 0, 0});
-            var sut = new GameImpl();
+            var sut = new GameImpl(TileSpawners.rejectionSampling(new RandomStub(new int[]{1, 2, 1, 1, 3, 1, 0, 0, 0})));
             sut.initialize();
             var expected = 4;
 
@@ -375,8 +458,7 @@ class GameTest {
 
         @Test
         void moveLeftTwo2OnLeftAddsTilesTogether() {
-            GameImpl.random = new RandomStub(new int[]{1, 0, 1, 1, 1, 1, 0, 0, 0});
-            var sut = new GameImpl();
+            var sut = new GameImpl(TileSpawners.rejectionSampling(new RandomStub(new int[]{1, 0, 1, 1, 1, 1, 0, 0, 0})));
             sut.initialize();
             var expected = 4;
 
@@ -387,8 +469,7 @@ class GameTest {
 
         @Test
         void moveLeft4TwosAddsTilesTogether() {
-            GameImpl.random = new RandomStub(new int[]{1, 0, 1, 1, 1, 1, 1, 2, 1, 1, 3, 1, 0, 0, 0});
-            var sut = new GameImpl();
+            var sut = new GameImpl(TileSpawners.rejectionSampling(new RandomStub(new int[]{1, 0, 1, 1, 1, 1, 1, 2, 1, 1, 3, 1, 0, 0, 0})));
             sut.initialize();
             var expectedFirst = 4;
             var expectedSecond = 4;
@@ -403,8 +484,7 @@ class GameTest {
 
         @Test
         void moveLeft2TwosOne4AddsTilesTogether() {
-            GameImpl.random = new RandomStub(new int[]{1, 0, 1, 1, 1, 1, 1, 2, 0, 0, 0, 0});
-            var sut = new GameImpl();
+            var sut = new GameImpl(TileSpawners.rejectionSampling(new RandomStub(new int[]{1, 0, 1, 1, 1, 1, 1, 2, 0, 0, 0, 0})));
             sut.initialize();
             var expectedFirst = 4;
             var expectedSecond = 4;
@@ -418,8 +498,7 @@ class GameTest {
 
         @Test
         void moveUp2TwosOne4AddsTilesTogether() {
-            GameImpl.random = new RandomStub(new int[]{0, 1, 1, 1, 1, 1, 3, 1, 0, 0, 0, 0});
-            var sut = new GameImpl();
+            var sut = new GameImpl(TileSpawners.rejectionSampling(new RandomStub(new int[]{0, 1, 1, 1, 1, 1, 3, 1, 0, 0, 0, 0})));
             sut.initialize();
             var expectedFirst = 4;
             var expectedSecond = 4;
@@ -433,8 +512,7 @@ class GameTest {
 
         @Test
         void moveDown2TwosOne4AddsTilesTogether() {
-            GameImpl.random = new RandomStub(new int[]{0, 1, 1, 1, 1, 1, 3, 1, 0, 0, 0, 0});
-            var sut = new GameImpl();
+            var sut = new GameImpl(TileSpawners.rejectionSampling(new RandomStub(new int[]{0, 1, 1, 1, 1, 1, 3, 1, 0, 0, 0, 0})));
             sut.initialize();
             var expectedFirst = 4;
             var expectedSecond = 4;
@@ -452,8 +530,7 @@ class GameTest {
     class ScoreTests {
         @Test
         void moveDown2TwosOne4AddsTilesTogether() {
-            GameImpl.random = new RandomStub(new int[]{0, 1, 1, 1, 1, 1, 0, 0, 0});
-            var sut = new GameImpl();
+            var sut = new GameImpl(TileSpawners.rejectionSampling(new RandomStub(new int[]{0, 1, 1, 1, 1, 1, 0, 0, 0})));
             sut.initialize();
             var expectedScore = 4;
 
@@ -464,8 +541,7 @@ class GameTest {
 
         @Test
         void moveMultipleTimesAddsToScore() {
-            GameImpl.random = new RandomStub(new int[]{0, 1, 1, 1, 1, 1, 3, 2, 0, 0, 0, 0});
-            var sut = new GameImpl();
+            var sut = new GameImpl(TileSpawners.rejectionSampling(new RandomStub(new int[]{0, 1, 1, 1, 1, 1, 3, 2, 0, 0, 0, 0})));
             sut.initialize();
             var expectedScore = 12;
 
@@ -491,8 +567,7 @@ class GameTest {
 
     @Test
     void toStringOnInitializedField(){
-        GameImpl.random = new RandomStub();
-        var sut = new GameImpl();
+        var sut = new GameImpl(TileSpawners.rejectionSampling(new RandomStub()));
         sut.initialize();
         var expected = """
                 Moves: 0\t\tScore: 0
@@ -506,8 +581,7 @@ class GameTest {
 
     @Test
     void toStringOnInitializedFieldWithBigNumber(){
-        GameImpl.random = new RandomStub();
-        var sut = new GameImpl();
+        var sut = new GameImpl(TileSpawners.rejectionSampling(new RandomStub()));
         sut.initialize();
         sut.placeTile(0,0,2048);
         var expected = """
@@ -522,8 +596,7 @@ class GameTest {
 
     @Test
     void toStringAfterOneMove(){
-        GameImpl.random = new RandomStub(new int[]{0,0,0 , 2,2,1, 1,1,0, 0,0,0});
-        var sut = new GameImpl();
+        var sut = new GameImpl(TileSpawners.rejectionSampling(new RandomStub(new int[]{0,0,0 , 2,2,1, 1,1,0, 0,0,0})));
         sut.initialize();
         var expected = """
                 Moves: 0\t\tScore: 0
@@ -546,4 +619,407 @@ class GameTest {
 
         assertEquals(expected, sut.toString());
     }
-}
\ No newline at end of file
+
+    @DisplayName("Snapshot")
+    @Nested
+    class SnapshotTests {
+        @Test
+        void restoreReturnsToSnapshotAndRepeatsSpawns() {
+            var sut = new GameImpl(TileSpawners.seeded(5));
+            sut.initialize();
+            sut.move(Direction.left);
+            var snapshot = sut.snapshot();
+            sut.move(Direction.up);
+            var expected = sut.snapshot();
+            sut.move(Direction.right);
+
+            sut.restore(snapshot);
+            sut.move(Direction.up);
+
+            assertEquals(expected, sut.snapshot());
+        }
+
+        @Test
+        void restoreOnOtherBoardSizeThrows() {
+            var snapshot = new GameImpl(TileSpawners.seeded(1)).snapshot();
+            var sut = new GameImpl(8, GameImpl.DEFAULT_WINNING_TILE, TileSpawners.seeded(1));
+
+            assertThrows(IllegalArgumentException.class, () -> sut.restore(snapshot));
+        }
+
+        @Test
+        void restoreOnDefaultGameRepeatsSpawns() {
+            var sut = new GameImpl();
+            sut.initialize();
+            var snapshot = sut.snapshot();
+            sut.move(Direction.up);
+            sut.move(Direction.left);
+            var expected = sut.snapshot();
+
+            sut.restore(snapshot);
+            sut.move(Direction.up);
+            sut.move(Direction.left);
+
+            assertEquals(expected, sut.snapshot());
+        }
+
+        @Test
+        void restoreWithRejectionSamplingRepeatsSpawns() {
+            var sut = new GameImpl(TileSpawners.rejectionSampling(new RandomStub(new int[]{0, 0, 1, 1, 2, 2, 3, 3, 0})));
+            sut.placeRandomTile();
+            var snapshot = sut.snapshot();
+            sut.placeRandomTile();
+            var expected = sut.snapshot();
+
+            sut.restore(snapshot);
+            sut.placeRandomTile();
+
+            assertEquals(expected, sut.snapshot());
+        }
+    }
+
+    @DisplayName("Preview")
+    @Nested
+    class PreviewTests {
+        @Test
+        void legalMovesOnSingleTileInCornerReturnsTwoDirections() {
+            var sut = new GameImpl(TileSpawners.seeded(1));
+            sut.placeTile(0, 0, 2);
+            var expected = Direction.down.mask() | Direction.right.mask();
+
+            assertEquals(expected, sut.legalMoves());
+        }
+
+        @Test
+        void legalMovesOnFullBoardDependOnMergeablePairs() {
+            var sut = new GameImpl(TileSpawners.seeded(1));
+            for (int x = 0; x < sut.getBoardSize(); x++) {
+                for (int y = 0; y < sut.getBoardSize(); y++) {
+                    sut.placeTile(x, y, ((x + y) % 2 == 0) ? 4 : 2);
+                }
+            }
+            sut.placeTile(0, 0, 2);
+            var expected = Direction.left.mask() | Direction.right.mask() | Direction.up.mask() | Direction.down.mask();
+
+            assertEquals(expected, sut.legalMoves());
+            sut.placeTile(0, 0, 8);
+            assertEquals(0, sut.legalMoves());
+            assertTrue(sut.isOver());
+        }
+
+        @Test
+        void previewMoveDoesNotChangeGame() {
+            var sut = new GameImpl(TileSpawners.rejectionSampling(new RandomStub(new int[]{1, 1, 1, 1, 2, 1, 0, 0, 0})));
+            sut.initialize();
+            var before = sut.toString();
+            var target = new int[16];
+
+            var gained = sut.previewMove(Direction.left, target);
+
+            assertEquals(4, gained);
+            assertEquals(4, target[4]);
+            assertEquals(0, target[5]);
+            assertEquals(before, sut.toString());
+            assertEquals(0, sut.getMoves());
+        }
+    }
+
+    @DisplayName("Undo")
+    @Nested
+    class UndoTests {
+        @Test
+        void undoRestoresPositionBeforeMove() {
+            var sut = new GameImpl(TileSpawners.seeded(4));
+            sut.setUndoLimit(10);
+            sut.initialize();
+            var expected = sut.toString();
+
+            sut.move(Direction.left);
+            sut.move(Direction.up);
+            sut.undo();
+            sut.undo();
+
+            assertEquals(expected, sut.toString());
+            assertFalse(sut.canUndo());
+        }
+
+        @Test
+        void redoRepeatsUndoneMoves() {
+            var sut = new GameImpl(TileSpawners.seeded(4));
+            sut.setUndoLimit(10);
+            sut.initialize();
+            sut.move(Direction.left);
+            sut.move(Direction.up);
+            var expected = sut.toString();
+
+            sut.undo();
+            sut.undo();
+            sut.redo();
+            sut.redo();
+
+            assertEquals(expected, sut.toString());
+            assertFalse(sut.canRedo());
+        }
+
+        @Test
+        void moveAfterUndoClearsRedo() {
+            var sut = new GameImpl(TileSpawners.seeded(4));
+            sut.setUndoLimit(10);
+            sut.initialize();
+            sut.move(Direction.left);
+            sut.undo();
+
+            sut.move(Direction.right);
+
+            assertFalse(sut.canRedo());
+            assertTrue(sut.canUndo());
+        }
+
+        @Test
+        void undoLimitDropsOldestSteps() {
+            var sut = new GameImpl(TileSpawners.seeded(4));
+            sut.setUndoLimit(2);
+            sut.initialize();
+            var directions = Direction.values();
+            for (int i = 0; sut.getMoves() < 5; i++)
+                sut.move(directions[i % directions.length]);
+
+            sut.undo();
+            sut.undo();
+
+            assertEquals(3, sut.getMoves());
+            assertFalse(sut.canUndo());
+        }
+
+        @Test
+        void undoWithoutLimitThrows() {
+            var sut = new GameImpl(TileSpawners.seeded(4));
+            sut.initialize();
+            sut.move(Direction.left);
+
+            assertThrows(IllegalStateException.class, sut::undo);
+        }
+    }
+
+    @DisplayName("Listener")
+    @Nested
+    class ListenerTests {
+        private final RecordingListener recorder = new RecordingListener();
+        private final List<String> events = recorder.events;
+
+        @Test
+        void moveReportsSlidesMergesScoreAndSpawn() {
+            var sut = new GameImpl(EmptyCellSpawner.first(2));
+            sut.placeTile(0, 0, 2);
+            sut.placeTile(1, 0, 2);
+            sut.placeTile(3, 0, 4);
+            sut.addListener(recorder);
+            var expected = List.of("merged 1->0 4", "moved 3->1 4", "left +4", "spawned 2 2");
+
+            sut.move(Direction.left);
+
+            assertEquals(expected, events);
+        }
+
+        @Test
+        void moveThatChangesNothingReportsNothing() {
+            var sut = new GameImpl(EmptyCellSpawner.first(2));
+            sut.placeTile(0, 0, 2);
+            sut.addListener(recorder);
+
+            sut.move(Direction.left);
+
+            assertEquals(List.of(), events);
+        }
+
+        @Test
+        void reachingWinningTileReportsWonOnce() {
+            var sut = new GameImpl(4, 8, EmptyCellSpawner.first(2));
+            sut.placeTile(0, 0, 4);
+            sut.placeTile(1, 0, 4);
+            sut.addListener(recorder);
+
+            sut.move(Direction.left);
+            sut.move(Direction.right);
+
+            assertEquals(1, events.stream().filter("won"::equals).count());
+            assertEquals("won", events.get(3));
+        }
+
+        @Test
+        void lastMoveReportsLost() {
+            var sut = new GameImpl(2, GameImpl.NO_WINNING_TILE, EmptyCellSpawner.first(4));
+            sut.placeTile(0, 0, 2);
+            sut.placeTile(1, 0, 4);
+            sut.placeTile(0, 1, 8);
+            sut.addListener(recorder);
+            var expected = List.of("moved 2->3 8", "right +0", "spawned 2 4", "lost");
+
+            sut.move(Direction.right);
+
+            assertEquals(expected, events);
+            assertTrue(sut.isOver());
+        }
+
+        @Test
+        void eventsKeepMirroredBoardInSync() {
+            var sut = new GameImpl(TileSpawners.seeded(9));
+            sut.setUndoLimit(4);
+            int[] mirror = new int[16];
+            int[] score = new int[1];
+            sut.addListener(new GameListener() {
+                @Override
+                public void tileMoved(int from, int to, int value) {
+                    mirror[to] = value;
+                    mirror[from] = 0;
+                }
+
+                @Override
+                public void tilesMerged(int from, int to, int value) {
+                    mirror[to] = value;
+                    mirror[from] = 0;
+                }
+
+                @Override
+                public void tileSpawned(int cell, int value) {
+                    mirror[cell] = value;
+                }
+
+                @Override
+                public void moved(Direction direction, int scoreDelta) {
+                    score[0] += scoreDelta;
+                }
+
+                @Override
+                public void boardChanged() {
+                    for (int cell = 0; cell < mirror.length; cell++)
+                        mirror[cell] = sut.getValueAt(cell % 4, cell / 4);
+                    score[0] = sut.getScore();
+                }
+            });
+            sut.initialize();
+            var directions = Direction.values();
+
+            for (int i = 0; !sut.isOver(); i++) {
+                sut.move(directions[i % 3 == 2 ? 3 : i % 2]);
+                if (i % 50 == 49 && sut.canUndo())
+                    sut.undo();
+                for (int cell = 0; cell < mirror.length; cell++)
+                    assertEquals(sut.getValueAt(cell % 4, cell / 4), mirror[cell]);
+                assertEquals(sut.getScore(), score[0]);
+            }
+        }
+
+        @Test
+        void removedListenerIsNotCalled() {
+            var sut = new GameImpl(EmptyCellSpawner.first(2));
+            sut.addListener(recorder);
+            sut.removeListener(recorder);
+
+            sut.initialize();
+            sut.move(Direction.right);
+
+            assertEquals(List.of(), events);
+        }
+    }
+
+    @DisplayName("Bulk board")
+    @Nested
+    class BulkBoardTests {
+        @Test
+        void copyBoardMatchesGetValueAt() {
+            var sut = new GameImpl(TileSpawners.seeded(3));
+            sut.initialize();
+            for (int i = 0; i < 30; i++)
+                sut.move(Direction.values()[i % 4]);
+            int[] values = new int[16];
+            byte[] exponents = new byte[16];
+
+            sut.copyBoard(values);
+            sut.copyExponents(exponents);
+
+            for (int cell = 0; cell < values.length; cell++) {
+                assertEquals(sut.getValueAt(cell % 4, cell / 4), values[cell]);
+                assertEquals(sut.getExponentAt(cell % 4, cell / 4), exponents[cell]);
+            }
+        }
+
+        @Test
+        void loadBoardReplacesTilesAndKeepsScore() {
+            var sut = new GameImpl(TileSpawners.seeded(1));
+            sut.placeTile(0, 0, 2);
+            sut.move(Direction.right);
+            int[] values = {
+                    4, 4, 0, 0,
+                    0, 8, 0, 0,
+                    0, 0, 0, 0,
+                    0, 0, 0, 2048};
+            int[] actual = new int[16];
+
+            sut.loadBoard(values);
+
+            sut.copyBoard(actual);
+            assertArrayEquals(values, actual);
+            assertEquals(1, sut.getMoves());
+            assertTrue(sut.isWon());
+            assertEquals(Direction.left.mask() | Direction.right.mask() | Direction.up.mask() | Direction.down.mask(),
+                    sut.legalMoves());
+        }
+
+        @Test
+        void undoAfterLoadBoardIsNotPossible() {
+            var sut = new GameImpl(TileSpawners.seeded(1));
+            sut.setUndoLimit(2);
+            sut.placeTile(0, 0, 2);
+            sut.move(Direction.right);
+            int[] values = new int[16];
+            values[5] = 8;
+
+            sut.loadBoard(values);
+
+            assertFalse(sut.canUndo());
+            assertThrows(IllegalStateException.class, sut::undo);
+            assertEquals(8, sut.getValueAt(1, 1));
+        }
+
+        @Test
+        void packedBoardRoundTripsBetweenImplementations() {
+            var source = new GameImpl(TileSpawners.seeded(5));
+            source.initialize();
+            for (int i = 0; i < 40; i++)
+                source.move(Direction.values()[i % 4]);
+            var sut = new BitboardGame();
+
+            sut.loadBoard(source.packBoard());
+
+            assertEquals(source.packBoard(), sut.packBoard());
+            assertEquals(Bitboards.pack(source), sut.getBoard());
+        }
+
+        @Test
+        void packedSmallBoardUsesRowMajorNibbles() {
+            var sut = new GameImpl(3, GameImpl.NO_WINNING_TILE, TileSpawners.seeded(1));
+            sut.placeTile(2, 1, 4);
+
+            assertEquals(2L << (4 * 5), sut.packBoard());
+        }
+
+        @Test
+        void loadBoardWithInvalidValueThrowsAndKeepsBoard() {
+            var sut = new GameImpl(TileSpawners.seeded(1));
+            sut.placeTile(1, 1, 8);
+            int[] values = new int[16];
+            values[3] = 6;
+
+            assertThrows(IllegalArgumentException.class, () -> sut.loadBoard(values));
+            assertEquals(8, sut.getValueAt(1, 1));
+        }
+
+        @Test
+        void packBoardOnLargeBoardThrows() {
+            var sut = new GameImpl(5, GameImpl.DEFAULT_WINNING_TILE, TileSpawners.seeded(1));
+
+            assertThrows(UnsupportedOperationException.class, sut::packBoard);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package spw4.game2048;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeyMovesTest {
+    @Test
+    void playAppliesAllMovesInOrder() {
+        var expected = new GameImpl(TileSpawners.seeded(3));
+        expected.initialize();
+        for (var direction : new Direction[]{Direction.up, Direction.up, Direction.left, Direction.down, Direction.right})
+            expected.move(direction);
+        var sut = new GameImpl(TileSpawners.seeded(3));
+        sut.initialize();
+
+        int consumed = KeyMoves.play(sut, "wwasd");
+
+        assertEquals(5, consumed);
+        assertEquals(expected.snapshot(), sut.snapshot());
+    }
+
+    @Test
+    void playStopsWhenGameIsOver() {
+        var sut = new GameImpl(TileSpawners.seeded(1));
+        sut.placeTile(0, 0, 1024);
+        sut.placeTile(1, 0, 1024);
+
+        int consumed = KeyMoves.play(sut, "aaaa");
+
+        assertEquals(1, consumed);
+        assertTrue(sut.isWon());
+    }
+
+    @Test
+    void playWithOtherKeysThrows() {
+        var sut = new GameImpl(TileSpawners.seeded(1));
+
+        assertFalse(KeyMoves.isMoveSequence("wxd"));
+        assertThrows(IllegalArgumentException.class, () -> KeyMoves.play(sut, "wxd"));
+    }
+}
@@ -0,0 +1,20 @@
+package spw4.game2048;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Random packed 4x4 boards for tests, see {@link Bitboards}: about two thirds of the cells hold a tile up to 2048.
+ */
+public final class RandomBoards {
+    private RandomBoards() {
+    }
+
+    public static long next(RandomGenerator random) {
+        long board = 0;
+        for (int cell = 0; cell < 16; cell++) {
+            if (random.nextInt(3) != 0)
+                board |= (long) (1 + random.nextInt(11)) << (4 * cell);
+        }
+        return board;
+    }
+}
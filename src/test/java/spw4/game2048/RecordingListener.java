@@ -0,0 +1,46 @@
+package spw4.game2048;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes every event it receives to {@link #events} as a short line of text.
+ */
+class RecordingListener implements GameListener {
+    final List<String> events = new ArrayList<>();
+
+    @Override
+    public void tileMoved(int from, int to, int value) {
+        events.add("moved " + from + "->" + to + " " + value);
+    }
+
+    @Override
+    public void tilesMerged(int from, int to, int value) {
+        events.add("merged " + from + "->" + to + " " + value);
+    }
+
+    @Override
+    public void tileSpawned(int cell, int value) {
+        events.add("spawned " + cell + " " + value);
+    }
+
+    @Override
+    public void moved(Direction direction, int scoreDelta) {
+        events.add(direction + " +" + scoreDelta);
+    }
+
+    @Override
+    public void gameWon() {
+        events.add("won");
+    }
+
+    @Override
+    public void gameLost() {
+        events.add("lost");
+    }
+
+    @Override
+    public void boardChanged() {
+        events.add("board");
+    }
+}
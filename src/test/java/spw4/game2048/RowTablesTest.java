@@ -0,0 +1,71 @@
+package spw4.game2048;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RowTablesTest {
+    /**
+     * A 5x5 {@link GameImpl} moves its lines without the tables, so it serves as the reference. A row of four
+     * placed next to an empty fifth cell slides exactly like the same row on a 4x4 board.
+     */
+    @Test
+    void everyEntryMatchesGameImpl() {
+        var reference = new GameImpl(5, GameImpl.NO_WINNING_TILE, EmptyCellSpawner.last(2));
+        for (int row = 0; row < RowTables.ROWS; row++) {
+            for (var direction : new Direction[]{Direction.left, Direction.right}) {
+                int offset = direction == Direction.left ? 0 : 1;
+                reference.reset();
+                for (int i = 0; i < 4; i++) {
+                    int exponent = (row >>> (4 * i)) & 0xF;
+                    reference.placeTile(offset + i, 0, exponent == 0 ? 0 : 1 << exponent);
+                }
+
+                reference.move(direction);
+
+                long actual = Bitboards.move(row, direction);
+                for (int i = 0; i < 4; i++) {
+                    int expected = Bitboards.toExponent(Math.min(reference.getValueAt(offset + i, 0), 1 << 15));
+                    assertEquals(expected, Bitboards.exponentAt(actual, i, 0), "row " + Integer.toHexString(row));
+                }
+                assertEquals(reference.getScore(), Bitboards.score(row, direction), "row " + Integer.toHexString(row));
+                assertEquals(reference.getMoves() == 1, actual != row);
+            }
+        }
+    }
+
+    @Test
+    void loadedTablesMatchComputedTables() throws IOException {
+        try (var resource = RowTables.class.getResourceAsStream(RowTables.RESOURCE)) {
+            assertNotNull(resource, "build should generate " + RowTables.RESOURCE);
+        }
+        var expected = RowTables.compute();
+
+        var actual = RowTables.load();
+
+        assertArrayEquals(expected.left, actual.left);
+        assertArrayEquals(expected.right, actual.right);
+        assertArrayEquals(expected.score, actual.score);
+    }
+
+    @Test
+    void writtenTablesReadBack() throws IOException {
+        var expected = RowTables.compute();
+        var out = new ByteArrayOutputStream();
+        expected.write(out);
+
+        var actual = RowTables.read(new ByteArrayInputStream(out.toByteArray()));
+
+        assertArrayEquals(expected.score, actual.score);
+        assertArrayEquals(expected.left, actual.left);
+    }
+
+    @Test
+    void truncatedResourceIsRejected() {
+        assertThrows(IOException.class, () -> RowTables.read(new ByteArrayInputStream(new byte[100])));
+    }
+}
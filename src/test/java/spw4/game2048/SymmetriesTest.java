@@ -0,0 +1,71 @@
+package spw4.game2048;
+
+import org.junit.jupiter.api.Test;
+import spw4.game2048.solver.Heuristics;
+
+import java.util.HashSet;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SymmetriesTest {
+    private static final SplittableRandom RANDOM = new SplittableRandom(7);
+
+    @Test
+    void transformsProduceEightDistinctBoards() {
+        long board = 0x0123_4567_89AB_CDEFL;
+        var boards = new HashSet<Long>();
+
+        for (int t = 0; t < Symmetries.COUNT; t++)
+            boards.add(Symmetries.apply(board, t));
+
+        assertEquals(8, boards.size());
+    }
+
+    @Test
+    void invertUndoesApply() {
+        for (int i = 0; i < 100; i++) {
+            long board = RandomBoards.next(RANDOM);
+            for (int t = 0; t < Symmetries.COUNT; t++)
+                assertEquals(board, Symmetries.invert(Symmetries.apply(board, t), t));
+        }
+    }
+
+    @Test
+    void symmetricBoardsShareCanonicalBoard() {
+        for (int i = 0; i < 100; i++) {
+            long board = RandomBoards.next(RANDOM);
+            long expected = Symmetries.canonical(board);
+            for (int t = 0; t < Symmetries.COUNT; t++)
+                assertEquals(expected, Symmetries.canonical(Symmetries.apply(board, t)));
+            assertEquals(expected, Symmetries.apply(board, Symmetries.canonicalTransform(board)));
+        }
+    }
+
+    @Test
+    void mappedDirectionsCommuteWithMoves() {
+        for (int i = 0; i < 100; i++) {
+            long board = RandomBoards.next(RANDOM);
+            for (int t = 0; t < Symmetries.COUNT; t++) {
+                for (var direction : Direction.values()) {
+                    long expected = Symmetries.apply(Bitboards.move(board, direction), t);
+                    var mapped = Symmetries.mapDirection(direction, t);
+
+                    assertEquals(expected, Bitboards.move(Symmetries.apply(board, t), mapped));
+                    assertEquals(direction, Symmetries.unmapDirection(mapped, t));
+                }
+            }
+        }
+    }
+
+    @Test
+    void standardHeuristicScoresSymmetricBoardsEqually() {
+        var heuristic = Heuristics.standard();
+        for (int i = 0; i < 100; i++) {
+            long board = RandomBoards.next(RANDOM);
+            double expected = heuristic.evaluate(board);
+            for (int t = 0; t < Symmetries.COUNT; t++)
+                assertEquals(expected, heuristic.evaluate(Symmetries.apply(board, t)), 1.0);
+        }
+    }
+}
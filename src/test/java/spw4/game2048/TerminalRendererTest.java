@@ -0,0 +1,75 @@
+package spw4.game2048;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TerminalRendererTest {
+    private static final String ESC = "\u001B";
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    private long now;
+
+    @Test
+    void firstFrameClearsScreenAndDrawsEveryCell() {
+        var sut = new TerminalRenderer(out, 0, () -> now);
+        var game = new BitboardGame();
+        game.placeTile(1, 2, 16);
+
+        sut.render(game);
+
+        var frame = frame();
+        assertTrue(frame.contains(ESC + "[1;1H" + ESC + "[J"));
+        assertTrue(frame.contains("Moves: 0   Score: 0"));
+        assertTrue(frame.contains(ESC + "[4;8H16     "));
+        assertEquals(15, frame.split("\\.      ", -1).length - 1);
+    }
+
+    @Test
+    void laterFramesOnlyContainChangedCells() {
+        var sut = new TerminalRenderer(out, 0, () -> now);
+        var game = new BitboardGame();
+        game.placeTile(0, 0, 2);
+        sut.render(game);
+        out.reset();
+
+        game.placeTile(3, 3, 2048);
+        sut.render(game);
+
+        var expected = ESC + "7" + ESC + "[5;22H2048   " + ESC + "8";
+        assertEquals(expected, frame());
+    }
+
+    @Test
+    void renderWithinIntervalIsSkipped() {
+        var sut = new TerminalRenderer(out, 1_000, () -> now);
+        var game = new BitboardGame();
+        sut.render(game);
+        game.placeTile(0, 0, 4);
+
+        now = 999;
+        assertFalse(sut.render(game));
+        now = 1_000;
+        assertTrue(sut.render(game));
+    }
+
+    @Test
+    void invalidateRedrawsEverything() {
+        var sut = new TerminalRenderer(out, 0, () -> now);
+        var game = new BitboardGame();
+        sut.render(game);
+        out.reset();
+
+        sut.invalidate();
+        sut.renderNow(game);
+
+        assertTrue(frame().contains("Moves: 0"));
+    }
+
+    private String frame() {
+        return out.toString(StandardCharsets.US_ASCII);
+    }
+}
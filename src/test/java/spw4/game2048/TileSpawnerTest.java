@@ -0,0 +1,120 @@
+package spw4.game2048;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TileSpawnerTest {
+    @Test
+    void selectReturnsPositionOfRankedSetBit() {
+        long word = (1L << 3) | (1L << 17) | (1L << 40) | (1L << 63);
+
+        assertEquals(3, UniformTileSpawner.select(word, 0));
+        assertEquals(17, UniformTileSpawner.select(word, 1));
+        assertEquals(40, UniformTileSpawner.select(word, 2));
+        assertEquals(63, UniformTileSpawner.select(word, 3));
+    }
+
+    @Test
+    void uniformSpawnerOnlyPicksEmptyCells() {
+        var sut = TileSpawners.seeded(1);
+        long[] emptyCells = new long[]{(1L << 5) | (1L << 12)};
+        var seen = new boolean[16];
+
+        for (int i = 0; i < 100; i++) {
+            seen[sut.nextCell(emptyCells, 2, 4)] = true;
+        }
+
+        for (int cell = 0; cell < 16; cell++) {
+            assertEquals(cell == 5 || cell == 12, seen[cell]);
+        }
+    }
+
+    @Test
+    void uniformSpawnerPicksFromSecondWordOnLargeBoards() {
+        var sut = TileSpawners.seeded(2);
+        long[] emptyCells = new long[]{0, 1L << 36};
+
+        assertEquals(100, sut.nextCell(emptyCells, 1, 10));
+    }
+
+    @Test
+    void nextValueReturnsTwoOrFour() {
+        var sut = TileSpawners.seeded(3);
+        int fours = 0;
+
+        for (int i = 0; i < 10_000; i++) {
+            int value = sut.nextValue();
+            assertTrue(value == 2 || value == 4);
+            if (value == 4)
+                fours++;
+        }
+
+        assertTrue(fours > 800 && fours < 1200);
+    }
+
+    @Test
+    void seededSpawnersWithSameSeedPlaySameGame() {
+        var first = new GameImpl(TileSpawners.seeded(42));
+        var second = new GameImpl(TileSpawners.seeded(42));
+
+        first.initialize();
+        second.initialize();
+        first.move(Direction.left);
+        second.move(Direction.left);
+
+        assertEquals(first.toString(), second.toString());
+    }
+
+    @Test
+    void rejectionSamplingSpawnerRetriesUntilCellIsEmpty() {
+        var sut = TileSpawners.rejectionSampling(new GameTest.RandomStub(new int[]{0, 0, 1, 1}));
+        long[] emptyCells = new long[]{1L << 5};
+
+        assertEquals(5, sut.nextCell(emptyCells, 1, 4));
+    }
+
+    @Test
+    void replayOfRecordingReproducesGame() {
+        var recorder = new RecordingTileSpawner(TileSpawners.seeded(7));
+        var original = new GameImpl(recorder);
+        original.initialize();
+        var directions = Direction.values();
+        var moves = new Random(8);
+        for (int i = 0; i < 50; i++) {
+            original.move(directions[moves.nextInt(directions.length)]);
+        }
+
+        var sut = new GameImpl(recorder.replay());
+        sut.initialize();
+        moves = new Random(8);
+        for (int i = 0; i < 50; i++) {
+            sut.move(directions[moves.nextInt(directions.length)]);
+        }
+
+        assertEquals(original.toString(), sut.toString());
+        assertEquals(original.getMoves() + 2, recorder.getSpawnCount());
+    }
+
+    @Test
+    void replayOnDivergedGameThrows() {
+        var sut = new GameImpl(new ReplayTileSpawner(new int[]{0}, new int[]{2}));
+        sut.placeTile(0, 0, 4);
+
+        assertThrows(IllegalStateException.class, sut::placeRandomTile);
+    }
+
+    @Test
+    void placeRandomTileOnFullBoardThrows() {
+        var sut = new BitboardGame();
+        for (int x = 0; x < sut.getBoardSize(); x++) {
+            for (int y = 0; y < sut.getBoardSize(); y++) {
+                sut.placeTile(x, y, 2);
+            }
+        }
+
+        assertThrows(IllegalStateException.class, sut::placeRandomTile);
+    }
+}
@@ -0,0 +1,91 @@
+package spw4.game2048.batch;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.api.Test;
+import spw4.game2048.Direction;
+import spw4.game2048.EmptyCellSpawner;
+import spw4.game2048.GameImpl;
+
+import java.util.SplittableRandom;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.params.provider.Arguments.arguments;
+
+class BoardBatchTest {
+    static Stream<Arguments> kernelsAndDirections() {
+        var builder = Stream.<Arguments>builder();
+        for (Direction direction : Direction.values()) {
+            builder.add(arguments(new ScalarMoveKernel(), direction));
+            if (BoardBatch.isVectorized())
+                builder.add(arguments(new VectorMoveKernel(), direction));
+        }
+        return builder.build();
+    }
+
+    @ParameterizedTest
+    @MethodSource("kernelsAndDirections")
+    void moveAllMatchesGameImplMove(MoveKernel kernel, Direction direction) {
+        int count = 1003;
+        var random = new SplittableRandom(direction.ordinal());
+        var sut = new BoardBatch(count, kernel);
+        var values = new int[count][BoardBatch.SIZE * BoardBatch.SIZE];
+        for (int board = 0; board < count; board++) {
+            for (int cell = 0; cell < values[board].length; cell++) {
+                int exponent = random.nextInt(3) == 0 ? 0 : random.nextInt(1, 6);
+                values[board][cell] = exponent == 0 ? 0 : 1 << exponent;
+                sut.setValueAt(board, cell % BoardBatch.SIZE, cell / BoardBatch.SIZE, values[board][cell]);
+            }
+        }
+
+        sut.moveAll(direction);
+
+        for (int board = 0; board < count; board++) {
+            var spawner = EmptyCellSpawner.first(2);
+            var expected = new GameImpl(spawner);
+            for (int cell = 0; cell < values[board].length; cell++) {
+                expected.placeTile(cell % BoardBatch.SIZE, cell / BoardBatch.SIZE, values[board][cell]);
+            }
+            expected.move(direction);
+            boolean expectedMoved = expected.getMoves() == 1;
+
+            assertEquals(expectedMoved, sut.hasMoved(board));
+            assertEquals(expected.getScore(), sut.getScoreDelta(board));
+            for (int cell = 0; cell < values[board].length; cell++) {
+                int x = cell % BoardBatch.SIZE;
+                int y = cell / BoardBatch.SIZE;
+                int expectedValue = expectedMoved && cell == spawner.getLastCell() ? 0 : expected.getValueAt(x, y);
+                assertEquals(expectedValue, sut.getValueAt(board, x, y));
+            }
+        }
+    }
+
+    @Test
+    void setBoardAndGetBoardRoundTrip() {
+        var sut = new BoardBatch(2);
+        long packed = 0x0123456789ABCDEFL;
+
+        sut.setBoard(1, packed);
+
+        assertEquals(packed, sut.getBoard(1));
+        assertEquals(0, sut.getBoard(0));
+    }
+
+    @Test
+    void moveAllMergesEachTileOnlyOnce() {
+        var sut = new BoardBatch(1);
+        for (int x = 0; x < BoardBatch.SIZE; x++) {
+            sut.setValueAt(0, x, 0, 2);
+        }
+
+        sut.moveAll(Direction.left);
+
+        assertEquals(4, sut.getValueAt(0, 0, 0));
+        assertEquals(4, sut.getValueAt(0, 1, 0));
+        assertEquals(0, sut.getValueAt(0, 2, 0));
+        assertEquals(8, sut.getScoreDelta(0));
+        assertTrue(sut.hasMoved(0));
+    }
+}
@@ -0,0 +1,92 @@
+package spw4.game2048.jfr;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import spw4.game2048.Direction;
+import spw4.game2048.GameImpl;
+import spw4.game2048.TileSpawners;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameEventsTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void settingsFileRecordsMovesAndSpawns() throws IOException, ParseException {
+        var file = directory.resolve("game.jfr");
+        var game = new GameImpl(TileSpawners.seeded(1));
+        game.placeTile(0, 0, 2);
+        game.placeTile(1, 0, 2);
+
+        try (var recording = new Recording(settings())) {
+            recording.start();
+            game.move(Direction.left);
+            recording.stop();
+            recording.dump(file);
+        }
+
+        var events = RecordingFile.readAllEvents(file);
+        var move = single(events, "spw4.game2048.Move");
+        assertEquals("left", move.getString("direction"));
+        assertEquals(4, move.getInt("scoreDelta"));
+        assertEquals(1, move.getInt("merges"));
+        assertTrue(move.getBoolean("moved"));
+        assertEquals(boardOf(game), move.getString("board"));
+        assertEquals(1, single(events, "spw4.game2048.Spawn").getLong("attempts"));
+        assertTrue(events.stream().noneMatch(event -> event.getEventType().getName().equals("spw4.game2048.Merge")));
+    }
+
+    @Test
+    void enabledMergeEventsAreRecorded() throws IOException, ParseException {
+        var file = directory.resolve("merges.jfr");
+        var game = new GameImpl(TileSpawners.seeded(1));
+        game.placeTile(0, 0, 2);
+        game.placeTile(1, 0, 2);
+
+        try (var recording = new Recording(settings())) {
+            recording.enable(MergeEvent.class);
+            recording.start();
+            game.move(Direction.left);
+            recording.stop();
+            recording.dump(file);
+        }
+
+        var events = RecordingFile.readAllEvents(file);
+        var merge = single(events, "spw4.game2048.Merge");
+        assertEquals(4, merge.getInt("value"));
+        assertEquals(0, merge.getInt("cell"));
+    }
+
+    private static String boardOf(GameImpl game) {
+        int[] values = new int[16];
+        game.copyBoard(values);
+        return Arrays.stream(values).mapToObj(String::valueOf).collect(Collectors.joining(","));
+    }
+
+    private static Configuration settings() throws IOException, ParseException {
+        try (var in = GameEventsTest.class.getResourceAsStream("/spw4/game2048/jfr/game2048.jfc")) {
+            assertNotNull(in);
+            return Configuration.create(new InputStreamReader(in, StandardCharsets.UTF_8));
+        }
+    }
+
+    private static RecordedEvent single(List<RecordedEvent> events, String name) {
+        var matching = events.stream().filter(event -> event.getEventType().getName().equals(name)).toList();
+        assertEquals(1, matching.size(), name);
+        return matching.get(0);
+    }
+}
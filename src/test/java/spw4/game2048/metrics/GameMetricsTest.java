@@ -0,0 +1,102 @@
+package spw4.game2048.metrics;
+
+import org.junit.jupiter.api.Test;
+import spw4.game2048.Direction;
+import spw4.game2048.GameImpl;
+import spw4.game2048.ReplayableRandom;
+import spw4.game2048.TileSpawners;
+
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+
+class GameMetricsTest {
+    @Test
+    void histogramQuantilesAreWithinOneSubBucket() {
+        var sut = new LatencyHistogram();
+        for (long value = 1; value <= 10_000; value++)
+            sut.record(value);
+
+        assertEquals(10_000, sut.getCount());
+        assertEquals(10_000, sut.getMax());
+        assertEquals(5_000.5, sut.getMean(), 1e-9);
+        long median = sut.getValueAtQuantile(0.5);
+        assertTrue(median >= 5_000 && median <= 5_000 * 9 / 8, "median " + median);
+    }
+
+    @Test
+    void bucketUpperBoundContainsValue() {
+        for (long value : new long[]{0, 7, 8, 9, 15, 16, 1_000, 123_456_789, Long.MAX_VALUE}) {
+            int bucket = LatencyHistogram.bucket(value);
+
+            assertTrue(LatencyHistogram.upperBound(bucket) >= value);
+            assertTrue(bucket == 0 || LatencyHistogram.upperBound(bucket - 1) < value);
+        }
+    }
+
+    @Test
+    void instrumentedGameCountsMovesAndSpawnAttempts() {
+        var metrics = new GameMetrics();
+        var spawner = new InstrumentedTileSpawner(TileSpawners.rejectionSampling(new ReplayableRandom() {
+            final int[] values = {0, 0, 1, 0, 0, 1, 0, 1};
+            int next;
+
+            @Override
+            public int nextInt(int bound) {
+                return values[next++];
+            }
+
+            @Override
+            public long nextLong() {
+                return values[next++];
+            }
+
+            @Override
+            public long saveState() {
+                return next;
+            }
+
+            @Override
+            public void restoreState(long state) {
+                next = (int) state;
+            }
+        }), metrics);
+        var sut = new InstrumentedGame(new GameImpl(spawner), metrics);
+
+        sut.initialize();
+        sut.move(Direction.left);
+        sut.isOver();
+
+        assertEquals(1, metrics.getMoveCalls());
+        assertEquals(0, metrics.getEffectiveMoves());
+        assertEquals(1, metrics.getIsOverCalls());
+        assertEquals(2, metrics.getSpawns());
+        assertEquals(3, metrics.getSpawnAttempts());
+        assertEquals(1, metrics.getMoveLatency().getCount());
+    }
+
+    @Test
+    void instrumentReturnsGameItselfWhenDisabled() {
+        assumeFalse(GameMetrics.ENABLED);
+        var game = new GameImpl();
+
+        assertSame(game, GameMetrics.instrument(game));
+    }
+
+    @Test
+    void metricsAreVisibleThroughJmx() throws Exception {
+        var sut = new GameMetrics();
+        sut.moveCalls.add(5);
+        var name = sut.registerMBean("test");
+        try {
+            var actual = ManagementFactory.getPlatformMBeanServer().getAttribute(name, "MoveCalls");
+
+            assertEquals(5L, actual);
+            assertEquals(new ObjectName("spw4.game2048:type=GameMetrics,name=\"test\""), name);
+        } finally {
+            sut.unregisterMBean("test");
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package spw4.game2048.record;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import spw4.game2048.BitboardGame;
+import spw4.game2048.Bitboards;
+import spw4.game2048.Direction;
+import spw4.game2048.TileSpawners;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameRecordTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void readerReplaysEveryRecordedGame() throws IOException {
+        var file = directory.resolve("games.bin");
+        var expected = writeGames(file, 20, 3);
+
+        try (var sut = new GameRecordReader(file)) {
+            var cursor = sut.cursor();
+            int game = 0;
+            while (cursor.next()) {
+                assertEquals(game, cursor.gameNumber());
+                assertEquals(expected.get(game)[0], cursor.finalBoard());
+                assertEquals(expected.get(game)[1], cursor.moveCount());
+                game++;
+            }
+            assertEquals(20, game);
+            assertEquals(20, sut.getGames());
+            assertEquals(7, sut.getBlocks());
+        }
+    }
+
+    @Test
+    void cursorSeeksThroughBlockIndex() throws IOException {
+        var file = directory.resolve("games.bin");
+        var expected = writeGames(file, 20, 3);
+
+        try (var sut = new GameRecordReader(file)) {
+            var cursor = sut.cursor(13);
+
+            assertTrue(cursor.next());
+            assertEquals(13, cursor.gameNumber());
+            assertEquals(expected.get(13)[0], cursor.finalBoard());
+        }
+    }
+
+    @Test
+    void recordsOnlyMovesThatChangedTheBoard() throws IOException {
+        var file = directory.resolve("games.bin");
+        try (var writer = new GameRecordWriter(file)) {
+            var recorder = new GameRecorder(TileSpawners.seeded(1), writer);
+            var game = new BitboardGame(recorder);
+            game.placeTile(0, 0, 2);
+            recorder.begin(game);
+            recorder.move(game, Direction.left);
+            recorder.move(game, Direction.up);
+            recorder.move(game, Direction.right);
+            recorder.end();
+        }
+
+        try (var sut = new GameRecordReader(file)) {
+            var cursor = sut.cursor();
+            assertTrue(cursor.next());
+            assertEquals(1, cursor.moveCount());
+            assertEquals(Direction.right, cursor.direction(0));
+            assertEquals(Bitboards.withExponent(0, 0, 0, 1), cursor.initialBoard());
+            assertFalse(cursor.next());
+        }
+    }
+
+    @Test
+    void emptyFileHasNoGames() throws IOException {
+        var file = directory.resolve("games.bin");
+        new GameRecordWriter(file).close();
+
+        try (var sut = new GameRecordReader(file)) {
+            assertEquals(0, sut.getGames());
+            assertFalse(sut.cursor().next());
+        }
+    }
+
+    @Test
+    void readerRejectsForeignFile() throws IOException {
+        var file = directory.resolve("games.txt");
+        Files.writeString(file, "Moves: 0\t\tScore: 0 and some more text");
+
+        assertThrows(IOException.class, () -> new GameRecordReader(file));
+    }
+
+    private static List<long[]> writeGames(Path file, int games, int gamesPerBlock) throws IOException {
+        var results = new ArrayList<long[]>();
+        var directions = Direction.values();
+        try (var writer = new GameRecordWriter(file, gamesPerBlock)) {
+            for (int i = 0; i < games; i++) {
+                var moveRandom = new SplittableRandom(i);
+                var recorder = new GameRecorder(TileSpawners.seeded(i), writer);
+                var game = new BitboardGame(recorder);
+                game.initialize();
+                recorder.begin(game);
+                while (!game.isOver()) {
+                    recorder.move(game, directions[moveRandom.nextInt(directions.length)]);
+                }
+                recorder.end();
+                results.add(new long[]{game.getBoard(), game.getMoves()});
+            }
+        }
+        return results;
+    }
+}
@@ -0,0 +1,57 @@
+package spw4.game2048.record;
+
+import org.junit.jupiter.api.Test;
+import spw4.game2048.BitboardGame;
+import spw4.game2048.Direction;
+import spw4.game2048.GameImpl;
+import spw4.game2048.TileSpawners;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameReplayTest {
+    @Test
+    void seekMatchesPlayingFromTheStart() {
+        var log = randomLog(3_000, 1);
+        var sut = new GameReplay(GameImpl::new, 42, log, 100);
+
+        for (int move : new int[]{2_999, 0, 1_234, 1_235, 1_200, 3_000, 57}) {
+            var expected = new GameImpl(TileSpawners.seeded(42));
+            expected.initialize();
+            for (int i = 0; i < move; i++)
+                expected.move(log[i]);
+
+            var actual = sut.seek(move);
+
+            assertEquals(move, sut.getPosition());
+            assertEquals(expected.snapshot(), actual.snapshot());
+        }
+    }
+
+    @Test
+    void bitboardAndGameImplReplaysAgree() {
+        var log = randomLog(500, 2);
+        var expected = new GameReplay(GameImpl::new, 7, log, 64);
+        var sut = new GameReplay(BitboardGame::new, 7, log, 64);
+
+        assertEquals(expected.seek(321).snapshot(), sut.seek(321).snapshot());
+        assertEquals(expected.seek(17).snapshot(), sut.seek(17).snapshot());
+    }
+
+    @Test
+    void seekBeyondLogThrows() {
+        var sut = new GameReplay(BitboardGame::new, 1, randomLog(10, 3));
+
+        assertThrows(IndexOutOfBoundsException.class, () -> sut.seek(11));
+    }
+
+    private static Direction[] randomLog(int length, long seed) {
+        var random = new SplittableRandom(seed);
+        var directions = Direction.values();
+        var log = new Direction[length];
+        for (int i = 0; i < length; i++)
+            log[i] = directions[random.nextInt(directions.length)];
+        return log;
+    }
+}
@@ -0,0 +1,184 @@
+package spw4.game2048.server;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import spw4.game2048.Direction;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameServerTest {
+    private GameServer server;
+    private SocketChannel client;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = new GameServer(new InetSocketAddress("localhost", 0), 2, 42);
+        client = SocketChannel.open(new InetSocketAddress("localhost", server.getPort()));
+    }
+
+    @AfterEach
+    void stopServer() throws IOException {
+        client.close();
+        server.close();
+    }
+
+    @Test
+    void stateOfNewSessionHasTwoTiles() throws IOException {
+        send(ByteBuffer.wrap(new byte[]{GameProtocol.STATE}));
+
+        var response = receive();
+
+        assertEquals(4, GameProtocol.boardSize(response));
+        assertEquals(0, GameProtocol.moves(response));
+        assertEquals(2, countTiles(response));
+        assertFalse(GameProtocol.isOver(response));
+    }
+
+    @Test
+    void pipelinedRequestsAreAnsweredInOrder() throws IOException {
+        var requests = ByteBuffer.allocate(64);
+        for (int i = 0; i < 20; i++) {
+            GameProtocol.putMove(requests, i % 2 == 0 ? Direction.left : Direction.up);
+        }
+        requests.put(GameProtocol.STATE);
+        send(requests.flip());
+
+        var last = receive();
+        for (int i = 1; i < 21; i++) {
+            var response = receive();
+            assertTrue(GameProtocol.moves(response) >= GameProtocol.moves(last));
+            last = response;
+        }
+
+        assertTrue(GameProtocol.moves(last) > 0);
+    }
+
+    @Test
+    void requestSplitAcrossWritesIsAssembled() throws IOException, InterruptedException {
+        send(ByteBuffer.wrap(new byte[]{GameProtocol.MOVE}));
+        Thread.sleep(50);
+        send(ByteBuffer.wrap(new byte[]{(byte) Direction.down.ordinal()}));
+
+        var expected = receive();
+        send(ByteBuffer.wrap(new byte[]{GameProtocol.STATE}));
+        var actual = receive();
+
+        assertEquals(expected, actual);
+        assertEquals(4, GameProtocol.boardSize(actual));
+    }
+
+    @Test
+    void restartStartsNewGame() throws IOException {
+        var requests = ByteBuffer.allocate(64);
+        for (int i = 0; i < 10; i++) {
+            GameProtocol.putMove(requests, Direction.values()[i % 4]);
+        }
+        requests.put(GameProtocol.RESTART);
+        send(requests.flip());
+        for (int i = 0; i < 10; i++) {
+            receive();
+        }
+
+        var response = receive();
+
+        assertEquals(0, GameProtocol.moves(response));
+        assertEquals(0, GameProtocol.score(response));
+        assertEquals(2, countTiles(response));
+    }
+
+    @Test
+    void batchIsPlayedAsOneRequest() throws IOException {
+        var directions = new Direction[100];
+        for (int i = 0; i < directions.length; i++) {
+            directions[i] = Direction.values()[i % 4];
+        }
+        var requests = ByteBuffer.allocate(GameProtocol.MAX_REQUEST_LENGTH + 1);
+        GameProtocol.putMoves(requests, directions, 0, directions.length);
+        requests.put(GameProtocol.STATE);
+        send(requests.flip());
+
+        var expected = receive();
+        var state = receive();
+
+        assertEquals(100, GameProtocol.consumed(expected));
+        assertEquals(0, GameProtocol.consumed(state));
+        assertEquals(GameProtocol.moves(expected), GameProtocol.moves(state));
+        assertTrue(GameProtocol.moves(state) > 0);
+    }
+
+    @Test
+    void emptyBatchClosesConnection() throws IOException {
+        send(ByteBuffer.wrap(new byte[]{GameProtocol.MOVES, 0}));
+
+        assertEquals(-1, client.read(ByteBuffer.allocate(1)));
+    }
+
+    @Test
+    void unknownOpcodeClosesConnection() throws IOException {
+        send(ByteBuffer.wrap(new byte[]{42}));
+
+        assertEquals(-1, client.read(ByteBuffer.allocate(1)));
+    }
+
+    @Test
+    void closeEndsEverySessionOnce() throws IOException {
+        send(ByteBuffer.wrap(new byte[]{GameProtocol.STATE}));
+        receive();
+        send(ByteBuffer.wrap(new byte[]{42}));
+
+        server.close();
+
+        assertEquals(0, server.getSessions());
+    }
+
+    @Test
+    void loadGeneratorPlaysGames() throws IOException, InterruptedException {
+        var sut = new LoadGenerator(new InetSocketAddress("localhost", server.getPort()), 8, 16, 2);
+
+        long moves = sut.run(200_000_000L);
+
+        assertTrue(moves > 0);
+        assertTrue(server.getMoves() > 0);
+    }
+
+    @Test
+    void loadGeneratorSendsBatches() throws IOException, InterruptedException {
+        var sut = new LoadGenerator(new InetSocketAddress("localhost", server.getPort()), 4, 0, 1, 32);
+
+        long moves = sut.run(200_000_000L);
+
+        assertTrue(moves >= 32);
+    }
+
+    private void send(ByteBuffer request) throws IOException {
+        while (request.hasRemaining()) {
+            client.write(request);
+        }
+    }
+
+    private ByteBuffer receive() throws IOException {
+        var response = ByteBuffer.allocate(GameProtocol.responseLength(4));
+        while (response.hasRemaining()) {
+            if (client.read(response) < 0)
+                throw new IOException("Connection closed");
+        }
+        return response;
+    }
+
+    private static int countTiles(ByteBuffer response) {
+        int tiles = 0;
+        for (int y = 0; y < 4; y++) {
+            for (int x = 0; x < 4; x++) {
+                if (GameProtocol.valueAt(response, x, y) != 0)
+                    tiles++;
+            }
+        }
+        return tiles;
+    }
+}
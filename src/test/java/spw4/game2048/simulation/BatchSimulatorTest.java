@@ -0,0 +1,60 @@
+package spw4.game2048.simulation;
+
+import org.junit.jupiter.api.Test;
+import spw4.game2048.Direction;
+import spw4.game2048.GameImpl;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchSimulatorTest {
+    @Test
+    void runPlaysRequestedNumberOfGames() {
+        var sut = new BatchSimulator(Policies.random(), 2);
+
+        var result = sut.run(500, 1);
+
+        assertEquals(500, result.getGames());
+        assertEquals(500, Arrays.stream(result.getMaxTileHistogram()).sum());
+        assertEquals(500, Arrays.stream(result.getScoreHistogram()).sum());
+        assertTrue(result.getMeanMoves() > 0);
+    }
+
+    @Test
+    void runWithSameSeedReturnsSameResultForAnyThreadCount() {
+        var expected = new BatchSimulator(Policies.random(), 1).run(1000, 42);
+
+        var actual = new BatchSimulator(Policies.random(), 4).run(1000, 42);
+
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void runWithDifferentSeedsReturnsDifferentResults() {
+        var first = new BatchSimulator(Policies.random(), 2).run(200, 1);
+
+        var second = new BatchSimulator(Policies.random(), 2).run(200, 2);
+
+        assertNotEquals(first, second);
+    }
+
+    @Test
+    void runWithGameImplIsDeterministic() {
+        var expected = new BatchSimulator(GameImpl::new, Policies.random(), 1).run(100, 7);
+
+        var actual = new BatchSimulator(GameImpl::new, Policies.random(), 3).run(100, 7);
+
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void runWithPolicyThatNeverMovesStopsStalledGames() {
+        var sut = new BatchSimulator(() -> (game, random) -> Direction.up, 1);
+
+        var result = sut.run(10, 3);
+
+        assertEquals(10, result.getGames());
+        assertEquals(10, result.getStalled());
+    }
+}
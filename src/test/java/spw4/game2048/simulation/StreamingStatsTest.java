@@ -0,0 +1,105 @@
+package spw4.game2048.simulation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StreamingStatsTest {
+    @Test
+    void runningStatsMatchesTwoPassComputation() {
+        var random = new SplittableRandom(1);
+        double[] values = random.doubles(1000, 0, 100_000).toArray();
+        var sut = new RunningStats();
+
+        for (double value : values)
+            sut.add(value);
+
+        double mean = Arrays.stream(values).average().orElseThrow();
+        double variance = Arrays.stream(values).map(v -> (v - mean) * (v - mean)).sum() / (values.length - 1);
+        assertEquals(mean, sut.getMean(), 1e-6);
+        assertEquals(variance, sut.getVariance(), variance * 1e-9);
+        assertEquals(Arrays.stream(values).min().orElseThrow(), sut.getMin());
+        assertEquals(Arrays.stream(values).max().orElseThrow(), sut.getMax());
+    }
+
+    @Test
+    void mergedRunningStatsEqualSequentialOnes() {
+        var random = new SplittableRandom(2);
+        var expected = new RunningStats();
+        var first = new RunningStats();
+        var second = new RunningStats();
+        for (int i = 0; i < 1000; i++) {
+            double value = random.nextDouble(1000);
+            expected.add(value);
+            (i % 3 == 0 ? first : second).add(value);
+        }
+
+        first.merge(second);
+
+        assertEquals(expected.getCount(), first.getCount());
+        assertEquals(expected.getMean(), first.getMean(), 1e-9);
+        assertEquals(expected.getVariance(), first.getVariance(), 1e-6);
+    }
+
+    @Test
+    void quantileSketchStaysWithinRelativeError() {
+        var random = new SplittableRandom(3);
+        int[] values = random.ints(10_000, 0, 1 << 22).toArray();
+        var sut = new QuantileSketch();
+        for (int value : values)
+            sut.add(value);
+        Arrays.sort(values);
+
+        for (double quantile : new double[]{0.01, 0.1, 0.5, 0.9, 0.99, 1}) {
+            int expected = values[(int) Math.ceil(quantile * values.length) - 1];
+            assertEquals(expected, sut.getValueAtQuantile(quantile), expected / 64.0 + 1);
+        }
+    }
+
+    @Test
+    void quantileSketchIsExactForSmallValues() {
+        var sut = new QuantileSketch();
+        for (int value = 1; value <= 60; value++)
+            sut.add(value);
+
+        assertEquals(30, sut.getValueAtQuantile(0.5));
+        assertEquals(60, sut.getValueAtQuantile(1));
+    }
+
+    @Test
+    void batchSimulatorFeedsLiveStats() {
+        var stats = new LiveStats();
+
+        var result = new BatchSimulator(Policies.random(), 4).run(500, 1, stats);
+
+        var snapshot = stats.snapshot();
+        assertEquals(result.getGames(), snapshot.getGames());
+        assertEquals(result.getWins(), snapshot.getWins());
+        assertEquals(result.getMeanScore(), snapshot.getScore().getMean(), 1e-6);
+        assertEquals(result.getMeanMoves(), snapshot.getMoves().getMean(), 1e-6);
+        long[] maxTiles = result.getMaxTileHistogram();
+        for (int exponent = 0; exponent < maxTiles.length; exponent++) {
+            assertEquals(maxTiles[exponent], snapshot.getMaxTileCount(exponent));
+            assertEquals(maxTiles[exponent], Arrays.stream(snapshot.getScoreHistogram(exponent)).sum());
+        }
+    }
+
+    @Test
+    void snapshotsDuringRunOnlyGrow() {
+        var stats = new LiveStats();
+        var run = CompletableFuture.supplyAsync(() -> new BatchSimulator(Policies.random(), 3).run(3000, 2, stats));
+
+        long previous = 0;
+        while (!run.isDone()) {
+            long games = stats.snapshot().getGames();
+            assertTrue(games >= previous);
+            previous = games;
+        }
+
+        assertEquals(run.join().getGames(), stats.snapshot().getGames());
+    }
+}
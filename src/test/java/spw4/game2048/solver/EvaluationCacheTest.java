@@ -0,0 +1,98 @@
+package spw4.game2048.solver;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EvaluationCacheTest {
+    @Test
+    void getReturnsStoredValue() {
+        var sut = new EvaluationCache(64);
+
+        sut.put(0x1234, 42.5);
+
+        assertEquals(42.5, sut.get(0x1234));
+        assertTrue(Double.isNaN(sut.get(0x4321)));
+        assertEquals(1, sut.getHits());
+        assertEquals(1, sut.getMisses());
+    }
+
+    @Test
+    void capacityAboveMaximumThrows() {
+        assertThrows(IllegalArgumentException.class, () -> new EvaluationCache(EvaluationCache.MAX_CAPACITY + 1));
+    }
+
+    @Test
+    void fullCacheEvictsButKeepsRecentlyUsedEntries() {
+        var sut = new EvaluationCache(EvaluationCache.WAYS);
+        for (long board = 1; board <= EvaluationCache.WAYS; board++)
+            sut.put(board, board);
+        sut.get(1);
+
+        sut.put(100, 100);
+
+        assertEquals(1, sut.getEvictions());
+        assertEquals(1.0, sut.get(1));
+        assertEquals(100.0, sut.get(100));
+        assertTrue(Double.isNaN(sut.get(2)));
+    }
+
+    @Test
+    void cacheNeverHoldsMoreThanItsCapacity() {
+        var sut = new EvaluationCache(1000);
+        for (long board = 1; board <= 10_000; board++)
+            sut.put(board, board);
+
+        int present = 0;
+        for (long board = 1; board <= 10_000; board++) {
+            if (!Double.isNaN(sut.get(board)))
+                present++;
+        }
+
+        assertEquals(1024, sut.capacity());
+        assertTrue(present <= sut.capacity());
+        assertEquals(10_000 - present, sut.getEvictions());
+    }
+
+    @Test
+    void concurrentAccessReturnsOnlyStoredValues() throws Exception {
+        var sut = new EvaluationCache(1 << 10);
+        var executor = Executors.newFixedThreadPool(4);
+        try {
+            var futures = new ArrayList<Future<?>>();
+            for (int thread = 0; thread < 4; thread++) {
+                futures.add(executor.submit(() -> {
+                    for (long i = 1; i < 200_000; i++) {
+                        long board = i % 5_000 + 1;
+                        double value = sut.get(board);
+                        if (!Double.isNaN(value))
+                            assertEquals(board * 0.5, value);
+                        else
+                            sut.put(board, board * 0.5);
+                    }
+                }));
+            }
+            for (var future : futures)
+                future.get();
+        } finally {
+            executor.shutdown();
+        }
+        assertTrue(sut.getHits() > 0);
+    }
+
+    @Test
+    void cachingHeuristicMatchesUncachedSolver() {
+        var cache = new EvaluationCache(1 << 16);
+        var expected = new ExpectimaxSolver(Heuristics.standard(), new TranspositionTable(1 << 16));
+        var sut = new ExpectimaxSolver(new CachingHeuristic(Heuristics.standard(), cache), new TranspositionTable(1 << 16));
+        long board = 0x0000_0012_0211_1232L;
+
+        assertEquals(expected.bestMove(board, 2), sut.bestMove(board, 2));
+        assertEquals(expected.bestMove(board, 2), sut.bestMove(board, 2));
+        assertTrue(cache.getHitRate() > 0);
+    }
+}
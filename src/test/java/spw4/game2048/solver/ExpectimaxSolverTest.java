@@ -0,0 +1,102 @@
+package spw4.game2048.solver;
+
+import org.junit.jupiter.api.Test;
+import spw4.game2048.BitboardGame;
+import spw4.game2048.Bitboards;
+import spw4.game2048.Direction;
+import spw4.game2048.TileSpawners;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExpectimaxSolverTest {
+    @Test
+    void bestMoveReturnsMoveThatChangesBoard() {
+        long board = Bitboards.withExponent(0, 0, 0, 1);
+        board = Bitboards.withExponent(board, 0, 1, 2);
+        var sut = new ExpectimaxSolver();
+
+        Direction direction = sut.bestMove(board, 2);
+
+        assertNotNull(direction);
+        assertNotEquals(board, Bitboards.move(board, direction));
+    }
+
+    @Test
+    void bestMoveOnLostBoardReturnsNull() {
+        long board = 0;
+        for (int y = 0; y < Bitboards.SIZE; y++) {
+            for (int x = 0; x < Bitboards.SIZE; x++) {
+                board = Bitboards.withExponent(board, x, y, (x + y) % 2 == 0 ? 2 : 1);
+            }
+        }
+        var sut = new ExpectimaxSolver();
+
+        assertNull(sut.bestMove(board, 3));
+    }
+
+    @Test
+    void bestMoveWithinBudgetCompletesAtLeastDepthOne() {
+        long board = Bitboards.withExponent(Bitboards.withExponent(0, 1, 1, 1), 2, 1, 1);
+        var sut = new ExpectimaxSolver();
+
+        Direction direction = sut.bestMoveWithin(board, TimeUnit.MILLISECONDS.toNanos(20));
+
+        assertNotNull(direction);
+        assertTrue(sut.getCompletedDepth() >= 1);
+        assertTrue(sut.getNodes() > 0);
+    }
+
+    @Test
+    void searchAtDepthThreeWins() {
+        var game = new BitboardGame(TileSpawners.seeded(3));
+        game.initialize();
+        var sut = new ExpectimaxSolver();
+
+        while (!game.isOver()) {
+            game.move(sut.bestMove(game, 3));
+        }
+
+        assertTrue(game.isWon(), game.toString());
+    }
+
+    @Test
+    void solverPlayerPlaysUntilGameIsOver() {
+        var game = new BitboardGame(TileSpawners.seeded(5));
+        game.initialize();
+        var sut = new SolverPlayer(new ExpectimaxSolver(), TimeUnit.MICROSECONDS.toNanos(100));
+
+        sut.play(game);
+
+        assertTrue(game.isOver());
+        assertTrue(sut.getMovesPerSecond() > 0);
+    }
+
+    @Test
+    void transpositionTableStaysWithinCapacity() {
+        var sut = new TranspositionTable(1000);
+
+        for (long board = 1; board <= 10_000; board++) {
+            sut.put(board, 1, board);
+        }
+
+        assertEquals(1024, sut.capacity());
+        assertTrue(sut.getEvictions() >= 10_000 - 1024);
+    }
+
+    @Test
+    void transpositionTableCapacityAboveMaximumThrows() {
+        assertThrows(IllegalArgumentException.class, () -> new TranspositionTable(TranspositionTable.MAX_CAPACITY + 1));
+    }
+
+    @Test
+    void transpositionTableIgnoresShallowerEntries() {
+        var sut = new TranspositionTable(16);
+        sut.put(42, 2, 1.5f);
+
+        assertEquals(1.5f, sut.get(42, 2));
+        assertEquals(1.5f, sut.get(42, 1));
+        assertTrue(Float.isNaN(sut.get(42, 3)));
+    }
+}
@@ -0,0 +1,183 @@
+package spw4.game2048.tablebase;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import spw4.game2048.Bitboards;
+import spw4.game2048.Direction;
+import spw4.game2048.GameImpl;
+import spw4.game2048.Symmetries;
+import spw4.game2048.TileSpawners;
+import spw4.game2048.solver.ExpectimaxSolver;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TablebaseTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void smallBoardMovesMatchGameImpl() {
+        var random = new SplittableRandom(1);
+        for (int size = 2; size <= 4; size++) {
+            for (int i = 0; i < 200; i++) {
+                var game = new GameImpl(size, GameImpl.NO_WINNING_TILE, TileSpawners.seeded(i));
+                for (int cell = 0; cell < size * size; cell++) {
+                    if (random.nextBoolean())
+                        game.placeTile(cell % size, cell / size, 1 << (1 + random.nextInt(4)));
+                }
+                long board = Tablebase.pack(game);
+                for (var direction : Direction.values()) {
+                    var expected = new int[size * size];
+                    int expectedScore = game.previewMove(direction, expected);
+
+                    assertEquals(expectedScore, SmallBoards.score(board, direction, size));
+                    assertEquals(packed(expected, size), SmallBoards.move(board, direction, size));
+                }
+            }
+        }
+    }
+
+    @Test
+    void twoByTwoValuesMatchNaiveExpectimax() throws IOException {
+        Path output = directory.resolve("2x2.tb");
+        new TablebaseGenerator(2, GameImpl.NO_WINNING_TILE, 2, directory.resolve("work")).generate(output);
+        var sut = Tablebase.open(output);
+        var naive = new HashMap<Long, Double>();
+
+        for (int first = 0; first < 4; first++) {
+            for (int second = first + 1; second < 4; second++) {
+                long board = 1L << (4 * first) | 2L << (4 * second);
+                double expected = naiveValue(board, naive);
+
+                assertEquals(expected, sut.value(board), expected * 1e-5);
+            }
+        }
+    }
+
+    @Test
+    void interruptedGenerationResumesToSameTable() throws IOException {
+        Path work = directory.resolve("work");
+        Path expected = directory.resolve("expected.tb");
+        new TablebaseGenerator(3, 16, 4, work).generate(expected);
+
+        var store = new LayerStore(work, "sum");
+        int[] sums = store.layers(LayerStore.KEYS);
+        Files.delete(store.path(sums[sums.length - 1], LayerStore.KEYS));
+        for (int i = 0; i < sums.length / 2; i++) {
+            Files.delete(store.path(sums[i], LayerStore.VALUES));
+            Files.delete(store.path(sums[i], LayerStore.MOVES));
+        }
+        Path actual = directory.resolve("actual.tb");
+        new TablebaseGenerator(3, 16, 1, work).generate(actual);
+
+        assertArrayEquals(Files.readAllBytes(expected), Files.readAllBytes(actual));
+    }
+
+    @Test
+    void threeByThreeLookupsFollowRules() throws IOException {
+        Path output = directory.resolve("3x3.tb");
+        new TablebaseGenerator(3, 32, 2, directory.resolve("work")).generate(output);
+        var sut = Tablebase.open(output);
+        var game = new GameImpl(3, 32, TileSpawners.seeded(3));
+        game.initialize();
+
+        while (!game.isOver()) {
+            long board = Tablebase.pack(game);
+            var move = sut.bestMove(game);
+            assertNotNull(move);
+            assertNotEquals(board, SmallBoards.move(board, move, 3));
+            game.move(move);
+        }
+        long board = Tablebase.pack(game);
+        assertEquals(0, sut.value(board));
+        assertNull(sut.bestMove(board));
+        assertTrue(Float.isNaN(sut.value(0xFL)));
+    }
+
+    @Test
+    void tableOfOtherWinningTileIsNotConsulted() throws IOException {
+        Path output = directory.resolve("3x3.tb");
+        new TablebaseGenerator(3, 16, 2, directory.resolve("work")).generate(output);
+        var sut = Tablebase.open(output);
+        var matching = new GameImpl(3, 16, TileSpawners.seeded(1));
+        var other = new GameImpl(3, 32, TileSpawners.seeded(1));
+        matching.initialize();
+        other.initialize();
+
+        assertEquals(16, sut.getWinningTile());
+        assertNotNull(sut.bestMove(matching));
+        assertNull(sut.bestMove(other));
+    }
+
+    @Test
+    void openingBookHoldsSearchedMoveOfEveryStartPosition() throws IOException {
+        Path output = directory.resolve("book.tb");
+        new OpeningBookGenerator(2, 1, 2, directory.resolve("work")).generate(output);
+        var sut = Tablebase.open(output);
+        var solver = new ExpectimaxSolver();
+
+        for (int first = 0; first < 16; first++) {
+            for (int second = first + 1; second < 16; second++) {
+                long board = 1L << (4 * first) | 2L << (4 * second);
+                var expected = Symmetries.unmapDirection(solver.bestMove(Symmetries.canonical(board), 1),
+                        Symmetries.canonicalTransform(board));
+
+                assertEquals(expected, sut.bestMove(board));
+                assertTrue(Float.isNaN(sut.value(board)));
+            }
+        }
+        long afterFirstMove = Bitboards.move(0x21, sut.bestMove(0x21)) | 1L << 60;
+        assertTrue(sut.contains(afterFirstMove));
+        var game = new GameImpl(4, GameImpl.NO_WINNING_TILE, TileSpawners.seeded(1));
+        game.initialize();
+        assertEquals(Tablebase.ANY_WINNING_TILE, sut.getWinningTile());
+        assertNotNull(sut.bestMove(game));
+    }
+
+    private static double naiveValue(long board, Map<Long, Double> memo) {
+        Double cached = memo.get(board);
+        if (cached != null)
+            return cached;
+        double best = 0;
+        for (var direction : Direction.values()) {
+            var game = new GameImpl(2, GameImpl.NO_WINNING_TILE, TileSpawners.seeded(0));
+            for (int cell = 0; cell < 4; cell++) {
+                int exponent = (int) (board >>> (4 * cell)) & 0xF;
+                if (exponent != 0)
+                    game.placeTile(cell % 2, cell / 2, 1 << exponent);
+            }
+            var moved = new int[4];
+            int score = game.previewMove(direction, moved);
+            long after = packed(moved, 2);
+            if (after == board)
+                continue;
+            double sum = 0;
+            int empty = 0;
+            for (int cell = 0; cell < 4; cell++) {
+                if (moved[cell] != 0)
+                    continue;
+                empty++;
+                sum += 0.9 * naiveValue(after | 1L << (4 * cell), memo) + 0.1 * naiveValue(after | 2L << (4 * cell), memo);
+            }
+            best = Math.max(best, score + sum / empty);
+        }
+        memo.put(board, best);
+        return best;
+    }
+
+    private static long packed(int[] values, int size) {
+        long board = 0;
+        for (int cell = 0; cell < size * size; cell++) {
+            if (values[cell] != 0)
+                board |= (long) Integer.numberOfTrailingZeros(values[cell]) << (4 * cell);
+        }
+        return board;
+    }
+}
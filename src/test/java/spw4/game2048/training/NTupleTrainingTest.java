@@ -0,0 +1,107 @@
+package spw4.game2048.training;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import spw4.game2048.RandomBoards;
+import spw4.game2048.Symmetries;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NTupleTrainingTest {
+    private static final int[][] SMALL_TUPLES = {
+            {0, 1, 2, 3},
+            {4, 5, 6, 7},
+            {0, 1, 4, 5},
+            {1, 2, 5, 6},
+            {5, 6, 9, 10}
+    };
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void trainingRaisesMeanScore() {
+        var sut = new TDTrainer(new NTupleNetwork(SMALL_TUPLES), 0.1f, 1);
+
+        var first = sut.train(200, 1);
+        sut.train(1000, 2);
+        var last = sut.train(200, 3);
+
+        assertEquals(200, last.getGames());
+        assertTrue(last.getMeanScore() > 1.5 * first.getMeanScore(),
+                () -> first.getMeanScore() + " -> " + last.getMeanScore());
+    }
+
+    @Test
+    void parallelTrainingPlaysEveryGame() {
+        var sut = new TDTrainer(new NTupleNetwork(SMALL_TUPLES), 0.1f, 4);
+
+        var result = sut.train(200, 5);
+
+        assertEquals(200, result.getGames());
+        assertEquals(200, sum(result.getMaxTileHistogram()));
+        assertTrue(result.getGamesPerHour() > 0);
+    }
+
+    @Test
+    void symmetricBoardsEvaluateEqually() {
+        var network = new NTupleNetwork(SMALL_TUPLES);
+        new TDTrainer(network, 0.1f, 1).train(200, 7);
+        var random = new SplittableRandom(11);
+
+        for (int i = 0; i < 100; i++) {
+            long board = RandomBoards.next(random);
+            double expected = network.evaluate(board);
+            for (int t = 0; t < Symmetries.COUNT; t++)
+                assertEquals(expected, network.evaluate(Symmetries.apply(board, t)), Math.abs(expected) * 1e-5);
+        }
+    }
+
+    @Test
+    void weightFileRoundTrip() throws IOException {
+        var network = new NTupleNetwork(SMALL_TUPLES);
+        new TDTrainer(network, 0.1f, 1).train(200, 13);
+        Path path = directory.resolve("small.weights");
+
+        WeightFile.write(network, path);
+        var mapped = WeightFile.open(path);
+        var loaded = WeightFile.load(path);
+
+        assertArrayEquals(SMALL_TUPLES, mapped.getTuples());
+        var random = new SplittableRandom(17);
+        for (int i = 0; i < 100; i++) {
+            long board = RandomBoards.next(random);
+            assertEquals(network.evaluate(board), mapped.evaluate(board));
+            assertEquals(network.evaluate(board), loaded.evaluate(board));
+        }
+        assertFalse(Files.exists(directory.resolve("small.weights.tmp")));
+    }
+
+    @Test
+    void openRejectsTruncatedFile() throws IOException {
+        Path path = directory.resolve("truncated.weights");
+        WeightFile.write(new NTupleNetwork(SMALL_TUPLES), path);
+        byte[] bytes = Files.readAllBytes(path);
+        Files.write(path, Arrays.copyOf(bytes, bytes.length - 4));
+
+        assertThrows(IOException.class, () -> WeightFile.open(path));
+    }
+
+    @Test
+    void constructorRejectsRepeatedCells() {
+        assertThrows(IllegalArgumentException.class, () -> new NTupleNetwork(new int[][]{{0, 1, 1}}));
+    }
+
+    private static long sum(long[] values) {
+        long sum = 0;
+        for (long value : values)
+            sum += value;
+        return sum;
+    }
+}